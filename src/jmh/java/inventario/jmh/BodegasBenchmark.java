@@ -0,0 +1,98 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+/**
+ * 100k productos con stock en 50 bodegas: costo de una transferencia y del resumen de una bodega
+ * con el indice contra calcularlo recorriendo stockPorBodega de cada producto. La memoria del
+ * reparto la verifica BodegasMemoriaTest.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="BodegasBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BodegasBenchmark {
+    private static final int PRODUCTOS = 100_000;
+    private static final int BODEGAS = 50;
+
+    private Inventario inventario;
+    private String[] codigos;
+    private String[] bodegas;
+    private String bodega;
+    private final Random rnd = new Random(13);
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random r = new Random(11);
+        List<Producto> lista = new ArrayList<>(PRODUCTOS);
+        codigos = new String[PRODUCTOS];
+        for (int i = 0; i < PRODUCTOS; i++) {
+            codigos[i] = "P" + i;
+            lista.add(new Producto(codigos[i], "Prod_" + (i % 200), "desc_" + (i % 1_000),
+                BigDecimal.valueOf(r.nextInt(500_000), 2), 0));
+        }
+        inventario = new Inventario();
+        inventario.agregarProductos(lista);
+        inventario.habilitarBodegas();
+        for (int b = 1; b < BODEGAS; b++) {
+            inventario.registrarBodega("B" + b);
+        }
+        bodegas = inventario.listarBodegas().toArray(new String[0]);
+        for (String c : codigos) {
+            for (String b : bodegas) {
+                inventario.aumentarStock(c, b, 1 + r.nextInt(200));
+            }
+        }
+        bodega = bodegas[BODEGAS / 2];
+    }
+
+    // Origen y destino al azar; si coinciden o el origen quedo vacio no se transfiere
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean transferir() {
+        String origen = bodegas[rnd.nextInt(BODEGAS)];
+        String destino = bodegas[rnd.nextInt(BODEGAS)];
+        String c = codigos[rnd.nextInt(PRODUCTOS)];
+        if (origen.equals(destino) || inventario.stockEnBodega(c, origen) == 0) return false;
+        inventario.transferirStock(c, origen, destino, 1);
+        return true;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ResumenInventario resumenDeBodega() {
+        return inventario.generarResumen(bodega, 10, 5);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long recorrerStockPorBodega() {
+        long items = 0;
+        for (String c : codigos) {
+            items += inventario.stockPorBodega(c).getOrDefault(bodega, 0);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,45 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import inventario.core.Inventario;
+import inventario.modelo.Producto;
+
+/**
+ * Catalogo compartido por los benchmarks, con la misma forma de datos que
+ * InventarioPerformanceTest: 200 nombres distintos y "running" en 1 de cada 37 descripciones.
+ */
+@State(Scope.Benchmark)
+public class Catalogo {
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int tamano;
+
+    public Inventario inventario;
+    public String[] codigos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random rnd = new Random(7);
+        List<Producto> lista = new ArrayList<>(tamano);
+        codigos = new String[tamano];
+        for (int i = 0; i < tamano; i++) {
+            String desc = (i % 37 == 0) ? "running item " + i : "desc_" + rnd.nextInt(10_000);
+            codigos[i] = "P" + i;
+            lista.add(new Producto(codigos[i], "Prod_" + (i % 200), desc, BigDecimal.valueOf(rnd.nextInt(5_000_000), 2),
+                rnd.nextInt(100)));
+        }
+        inventario = new Inventario();
+        inventario.agregarProductos(lista);
+        // Fuerza la construccion de los indices de texto fuera de la medicion
+        inventario.buscarPorTexto("running");
+    }
+}
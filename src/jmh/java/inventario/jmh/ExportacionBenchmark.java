@@ -0,0 +1,100 @@
+package inventario.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.modelo.Producto;
+import inventario.reportes.ExportadorInventario;
+import inventario.reportes.FormatoExportacion;
+
+/**
+ * Exporta 1M productos a un destino que descarta los bytes, en cada formato y con o sin gzip,
+ * contra la base de un println (sincronizado y con autoflush) por producto.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="ExportacionBenchmark -p formato=JSONL"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExportacionBenchmark {
+    private static final int PRODUCTOS = 1_000_000;
+
+    private Inventario inventario;
+
+    // Solo exportar() depende del formato: println se mide una vez
+    @State(Scope.Benchmark)
+    public static class Formato {
+        @Param({"CSV", "JSONL", "TEXTO"})
+        public FormatoExportacion formato;
+
+        @Param({"false", "true"})
+        public boolean gzip;
+
+        ExportadorInventario exportador;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            exportador = new ExportadorInventario(formato, gzip);
+        }
+    }
+
+    // Cuenta bytes para que la escritura no se pueda descartar
+    private static class Contador extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        inventario = new Inventario();
+        Random rnd = new Random(5);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            inventario.agregarProducto(new Producto("P" + i, "Producto " + rnd.nextInt(100_000), "desc " + rnd.nextInt(1_000),
+                BigDecimal.valueOf(rnd.nextInt(1_000_000), 2), rnd.nextInt(1_000)));
+        }
+    }
+
+    @Benchmark
+    public long exportar(Formato f) throws IOException {
+        Contador out = new Contador();
+        f.exportador.exportarProductos(inventario.recorrerPorCodigo(null).iterator(), out);
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long println() {
+        Contador out = new Contador();
+        PrintStream ps = new PrintStream(out, true);
+        inventario.recorrerPorCodigo(null).forEach(ps::println);
+        return out.bytes;
+    }
+}
@@ -0,0 +1,102 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.eventos.FeedCambios;
+import inventario.eventos.LoteCambios;
+import inventario.eventos.PoliticaContrapresion;
+import inventario.eventos.Suscripcion;
+import inventario.modelo.Producto;
+
+/**
+ * Movimientos de stock con el feed conectado y de 0 a 4 suscriptores leyendo en lotes desde sus
+ * propios hilos, con ambas politicas de contrapresion. Con BLOQUEAR el productor espera al
+ * suscriptor mas lento, asi que el resultado incluye el costo de leer.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="FeedCambiosBenchmark -p suscriptores=0,4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedCambiosBenchmark {
+    private static final int PRODUCTOS = 1_000;
+
+    @Param({"0", "1", "2", "4"})
+    public int suscriptores;
+
+    @Param({"BLOQUEAR", "DESCARTAR_ANTIGUOS"})
+    public PoliticaContrapresion politica;
+
+    private Inventario inventario;
+    private FeedCambios feed;
+    private String[] codigos;
+    private final List<Thread> lectores = new ArrayList<>();
+    private volatile boolean activo;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        inventario = new Inventario();
+        codigos = new String[PRODUCTOS];
+        for (int i = 0; i < PRODUCTOS; i++) {
+            codigos[i] = "P" + i;
+            inventario.agregarProducto(new Producto(codigos[i], "Prod", "", BigDecimal.ONE, 1_000_000));
+        }
+        feed = FeedCambios.conectar(inventario, 1 << 14, politica);
+        activo = true;
+        for (int s = 0; s < suscriptores; s++) {
+            Suscripcion sub = feed.suscribir();
+            Thread t = new Thread(() -> {
+                LoteCambios lote = new LoteCambios(1_024);
+                try {
+                    while (activo) {
+                        sub.leer(lote, 100, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            t.setDaemon(true);
+            lectores.add(t);
+            t.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws InterruptedException {
+        activo = false;
+        for (Thread t : lectores) {
+            t.join();
+        }
+        feed.close();
+    }
+
+    // Alterna venta y reposicion para que el stock no se agote
+    @Benchmark
+    public void movimiento() {
+        int i = siguiente++;
+        String codigo = codigos[(i & Integer.MAX_VALUE) % PRODUCTOS];
+        if ((i & 1) == 0) inventario.disminuirStock(codigo, 1);
+        else inventario.aumentarStock(codigo, 1);
+    }
+}
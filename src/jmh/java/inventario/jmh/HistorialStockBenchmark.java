@@ -0,0 +1,128 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenMovimientos;
+import inventario.historial.HistorialStock;
+import inventario.modelo.Producto;
+
+/**
+ * Historial de stock con 10k productos precargado con 5M cambios (cada producto cambia en
+ * promedio cada 5 minutos, con deltas chicos como los de ventas y reposiciones): costo de un
+ * cambio con el historial conectado, de stockEn y de los movimientos de todo el historial. La
+ * memoria por millon de cambios la verifica HistorialStockMemoriaTest.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="HistorialStockBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistorialStockBenchmark {
+    private static final int PRODUCTOS = 10_000;
+    private static final int EVENTOS = 5_000_000;
+
+    private static class RelojManual extends Clock {
+        long ms = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+        @Override
+        public long millis() {
+            return ms;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(ms);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private final RelojManual reloj = new RelojManual();
+    private final Random rnd = new Random(21);
+    private Producto[] productos;
+    private String[] codigos;
+    private HistorialStock historial;
+    private Instant inicio;
+    private Instant fin;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Inventario inv = new Inventario();
+        productos = new Producto[PRODUCTOS];
+        codigos = new String[PRODUCTOS];
+        for (int i = 0; i < PRODUCTOS; i++) {
+            codigos[i] = "P" + i;
+            productos[i] = new Producto(codigos[i], "Prod_" + (i % 200), "", new BigDecimal("1.00"), 1_000);
+            inv.agregarProducto(productos[i]);
+        }
+        inicio = reloj.instant();
+        historial = HistorialStock.conectar(inv, null, reloj);
+        for (int i = 0; i < EVENTOS; i++) {
+            cambiar();
+        }
+        fin = reloj.instant();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        historial.close();
+    }
+
+    private void cambiar() {
+        reloj.ms += rnd.nextInt(600_000) / PRODUCTOS;
+        Producto p = productos[rnd.nextInt(PRODUCTOS)];
+        int delta = rnd.nextInt(4) == 0 ? 1 + rnd.nextInt(50) : -1 - rnd.nextInt(5);
+        p.setStock(Math.max(0, p.getStock() + delta));
+    }
+
+    // Incluye el costo del inventario y de avanzar el reloj
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void cambio() {
+        cambiar();
+    }
+
+    // Consulta un instante dentro del rango precargado
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public OptionalInt stockEn() {
+        long ms = inicio.toEpochMilli() + (long) (rnd.nextDouble() * (fin.toEpochMilli() - inicio.toEpochMilli()));
+        return historial.stockEn(codigos[rnd.nextInt(PRODUCTOS)], Instant.ofEpochMilli(ms));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ResumenMovimientos movimientos() {
+        return historial.movimientos(inicio, fin.plusMillis(1));
+    }
+}
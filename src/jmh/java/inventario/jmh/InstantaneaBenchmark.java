@@ -0,0 +1,144 @@
+package inventario.jmh;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Instantanea;
+import inventario.core.Inventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+import inventario.persistencia.InstantaneaBinaria;
+
+/**
+ * Instantaneas sobre 1M productos. Arranque: cargar una instantanea binaria contra importar el
+ * mismo contenido desde CSV producto por producto. En memoria: costo de snapshot(), de un cambio
+ * de stock con las instantaneas habilitadas y de generarResumen sobre una instantanea. La
+ * memoria retenida por instantanea la verifica InstantaneasMemoriaTest.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="InstantaneaBenchmark.cargar"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstantaneaBenchmark {
+    private static final int PRODUCTOS = 1_000_000;
+
+    private static Inventario catalogo() {
+        Random rnd = new Random(7);
+        List<Producto> lista = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            lista.add(new Producto("P" + i, "Prod_" + (i % 200), "desc_" + rnd.nextInt(10_000),
+                BigDecimal.valueOf(rnd.nextInt(5_000_000), 2), rnd.nextInt(100)));
+        }
+        Inventario inv = new Inventario();
+        inv.agregarProductos(lista);
+        return inv;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Archivos {
+        Path dir;
+        Path instantanea;
+        Path csv;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            Inventario inv = catalogo();
+            dir = Files.createTempDirectory("instantanea-bench");
+            instantanea = dir.resolve("inv.snap");
+            csv = dir.resolve("inv.csv");
+            InstantaneaBinaria.escribir(inv, instantanea);
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                for (Producto p : inv.listarTodos()) {
+                    out.write(p.getCodigo() + ";" + p.getNombre() + ";" + p.getDescripcion() + ";" + p.getPrecio() + ";"
+                        + p.getStock());
+                    out.newLine();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void borrar() throws IOException {
+            Files.deleteIfExists(instantanea);
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Vigente {
+        Inventario inventario;
+        Instantanea instantanea;
+        int siguiente;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            inventario = catalogo();
+            inventario.habilitarInstantaneas();
+            instantanea = inventario.snapshot();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Inventario cargar(Archivos a) throws IOException {
+        Inventario inv = new Inventario();
+        InstantaneaBinaria.cargar(a.instantanea, inv);
+        return inv;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Inventario importarCsv(Archivos a) throws IOException {
+        Inventario inv = new Inventario();
+        try (BufferedReader in = Files.newBufferedReader(a.csv, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                String[] c = linea.split(";", -1);
+                inv.agregarProducto(new Producto(c[0], c[1], c[2], new BigDecimal(c[3]), Integer.parseInt(c[4])));
+            }
+        }
+        return inv;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Instantanea snapshot(Vigente v) {
+        return v.inventario.snapshot();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void aumentarStock(Vigente v) {
+        v.siguiente = (v.siguiente + 7919) % PRODUCTOS;
+        v.inventario.aumentarStock("P" + v.siguiente, 1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ResumenInventario resumenDeInstantanea(Vigente v) {
+        return v.instantanea.generarResumen(10, 5);
+    }
+}
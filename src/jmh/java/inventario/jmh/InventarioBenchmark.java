@@ -0,0 +1,66 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventarioBenchmark {
+    private static final Comparator<Producto> POR_NOMBRE = Comparator.comparing(Producto::getNombre);
+
+    private int siguiente;
+
+    // El inventario conserva su tamano: cada invocacion agrega un producto nuevo y lo elimina
+    @Benchmark
+    public boolean agregarProducto(Catalogo c) {
+        String codigo = "NUEVO" + (siguiente++);
+        c.inventario.agregarProducto(new Producto(codigo, "Nuevo", "benchmark", BigDecimal.TEN, 5));
+        return c.inventario.eliminarProducto(codigo);
+    }
+
+    @Benchmark
+    public Optional<Producto> buscarPorId(Catalogo c) {
+        siguiente = (siguiente + 7919) % c.tamano;
+        return c.inventario.buscarPorId(c.codigos[siguiente]);
+    }
+
+    @Benchmark
+    public List<Producto> buscarPorTexto(Catalogo c) {
+        return c.inventario.buscarPorTexto("item 3700");
+    }
+
+    @Benchmark
+    public List<Producto> listarTodos(Catalogo c) {
+        return c.inventario.listarTodos();
+    }
+
+    @Benchmark
+    public List<Producto> listarOrdenado(Catalogo c) {
+        return c.inventario.listarOrdenado(POR_NOMBRE);
+    }
+
+    @Benchmark
+    public ResumenInventario generarResumen(Catalogo c) {
+        return c.inventario.generarResumen(5, 3);
+    }
+}
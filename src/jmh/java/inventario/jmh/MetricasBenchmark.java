@@ -0,0 +1,59 @@
+package inventario.jmh;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.modelo.Producto;
+
+/**
+ * Costo de las metricas sobre la operacion mas barata (buscarPorId). Con metricas=false el
+ * resultado debe coincidir con InventarioBenchmark.buscarPorId dentro del ruido.
+ * Ejemplo: mvn -Pjmh exec:exec -Djmh.args="MetricasBenchmark -p tamano=100000"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricasBenchmark {
+    @Param({"false", "true"})
+    public boolean metricas;
+
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar(Catalogo c) {
+        if (metricas) {
+            c.inventario.habilitarMetricas();
+        } else {
+            c.inventario.deshabilitarMetricas();
+        }
+    }
+
+    @Benchmark
+    public Optional<Producto> buscarPorId(Catalogo c) {
+        siguiente = (siguiente + 7919) % c.tamano;
+        return c.inventario.buscarPorId(c.codigos[siguiente]);
+    }
+
+    @Benchmark
+    public void aumentarYDisminuir(Catalogo c) {
+        siguiente = (siguiente + 7919) % c.tamano;
+        c.inventario.aumentarStock(c.codigos[siguiente], 1);
+        c.inventario.disminuirStock(c.codigos[siguiente], 1);
+    }
+}
@@ -0,0 +1,89 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+/**
+ * Recorridos sobre 1M productos sin paralelismo (hilos=0) y con pools de 1 a N hilos. Un producto
+ * con precio enorme fuerza el recalculo del valor total con BigDecimal en cada resumen.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="ParaleloBenchmark -p hilos=0,4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParaleloBenchmark {
+    private static final int PRODUCTOS = 1_000_000;
+    private static final Comparator<Producto> POR_PRECIO = Comparator.comparingLong(Producto::getPrecioCentavos);
+
+    @Param({"0", "1", "2", "4"})
+    public int hilos;
+
+    private Inventario inventario;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        inventario = new Inventario();
+        Random rnd = new Random(9);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            inventario.agregarProducto(new Producto("P" + i, "Prod " + rnd.nextInt(100_000), "desc " + rnd.nextInt(100_000),
+                new BigDecimal(rnd.nextInt(100_000) + ".00"), rnd.nextInt(1_000)));
+        }
+        inventario.agregarProducto(new Producto("G", "Grande", "", new BigDecimal("90000000000000000.00"), 1_000));
+        if (hilos > 0) {
+            pool = new ForkJoinPool(hilos);
+            inventario.habilitarParalelismo(pool, 10_000);
+        }
+        // Fuerza la construccion de los indices de texto fuera de la medicion
+        inventario.buscarPorTexto("9z");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        if (pool != null) {
+            inventario.deshabilitarParalelismo();
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Producto> listarOrdenado() {
+        return inventario.listarOrdenado(POR_PRECIO);
+    }
+
+    // Aguja de 2 letras: recorre todos los textos
+    @Benchmark
+    public List<Producto> buscarPorTexto() {
+        return inventario.buscarPorTexto("9z");
+    }
+
+    @Benchmark
+    public ResumenInventario generarResumen() {
+        return inventario.generarResumen(10, 5);
+    }
+}
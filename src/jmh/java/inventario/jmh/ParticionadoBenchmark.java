@@ -0,0 +1,84 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.core.InventarioParticionado;
+import inventario.core.ModoInventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+/**
+ * Consultas globales sobre 200k productos: inventario unico (particiones=0) contra el
+ * particionado con 1 a 16 particiones sobre el pool comun.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="ParticionadoBenchmark -p particiones=0,4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticionadoBenchmark {
+    private static final int PRODUCTOS = 200_000;
+    private static final Comparator<Producto> POR_PRECIO = Comparator.comparingLong(Producto::getPrecioCentavos);
+
+    @Param({"0", "1", "2", "4", "8", "16"})
+    public int particiones;
+
+    private Inventario unico;
+    private InventarioParticionado particionado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random rnd = new Random(3);
+        List<Producto> catalogo = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            catalogo.add(new Producto("P" + i, "Prod " + rnd.nextInt(50_000), "desc " + rnd.nextInt(10_000),
+                new BigDecimal(rnd.nextInt(10_000) + ".00"), rnd.nextInt(1_000)));
+        }
+        if (particiones == 0) {
+            unico = new Inventario();
+            unico.agregarProductos(catalogo);
+        } else {
+            particionado = new InventarioParticionado(particiones, ModoInventario.SECUENCIAL, ForkJoinPool.commonPool());
+            particionado.agregarProductos(catalogo);
+        }
+        // Fuerza la construccion de los indices de texto fuera de la medicion
+        buscarPorTexto();
+    }
+
+    @Benchmark
+    public List<Producto> buscarPorTexto() {
+        return unico != null ? unico.buscarPorTexto("desc 12") : particionado.buscarPorTexto("desc 12");
+    }
+
+    @Benchmark
+    public List<Producto> listarOrdenado() {
+        return unico != null ? unico.listarOrdenado(POR_PRECIO) : particionado.listarOrdenado(POR_PRECIO);
+    }
+
+    @Benchmark
+    public ResumenInventario generarResumen() {
+        return unico != null ? unico.generarResumen(20, 5) : particionado.generarResumen(20, 5);
+    }
+}
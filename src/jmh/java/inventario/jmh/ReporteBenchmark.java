@@ -0,0 +1,50 @@
+package inventario.jmh;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.dto.ResumenInventario;
+import inventario.reportes.ReporteInventario;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporteBenchmark {
+    private ResumenInventario resumen;
+    private PrintStream original;
+
+    // umbral 50: con stock uniforme en [0, 100) la seccion de stock bajo trae la mitad del catalogo
+    @Setup(Level.Trial)
+    public void preparar(Catalogo c) {
+        resumen = c.inventario.generarResumen(20, 50);
+        original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restaurar() {
+        System.setOut(original);
+    }
+
+    @Benchmark
+    public void imprimirResumen() {
+        ReporteInventario.imprimirResumen(resumen);
+    }
+}
@@ -0,0 +1,82 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.modelo.Producto;
+
+/**
+ * Reservas de a una unidad sobre un unico SKU caliente. Se comparan tres caminos:
+ * Inventario.tryReservar, que es el que usan las ventas (bloqueo del codigo y monitor del
+ * producto); Producto.tryReservar sobre un producto fuera del inventario (CAS puro); y el mismo
+ * chequeo-y-descuento bajo un ReentrantLock. Cuando no alcanza, se repone y se sigue.
+ * La cantidad de hilos se elige con -t (1 a 64), por ejemplo:
+ * mvn -Pjmh compile exec:exec -Djmh.args="StockBenchmark -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockBenchmark {
+    private static final String CODIGO = "HOT";
+    private static final int REPOSICION = 1_000_000;
+
+    private Inventario inventario;
+    private Producto suelto;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int stockConLock;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        inventario = new Inventario(ModoInventario.CONCURRENTE);
+        inventario.agregarProducto(new Producto(CODIGO, "Hot", "", BigDecimal.ONE, REPOSICION));
+        suelto = new Producto(CODIGO, "Hot", "", BigDecimal.ONE, REPOSICION);
+        stockConLock = REPOSICION;
+    }
+
+    @Benchmark
+    public boolean inventario() {
+        if (inventario.tryReservar(CODIGO, 1)) return true;
+        inventario.aumentarStock(CODIGO, REPOSICION);
+        return false;
+    }
+
+    @Benchmark
+    public boolean productoSuelto() {
+        if (suelto.tryReservar(1)) return true;
+        suelto.aumentarStock(REPOSICION);
+        return false;
+    }
+
+    @Benchmark
+    public boolean conLock() {
+        lock.lock();
+        try {
+            if (stockConLock < 1) {
+                stockConLock += REPOSICION;
+                return false;
+            }
+            stockConLock--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
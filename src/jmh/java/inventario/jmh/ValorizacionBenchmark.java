@@ -0,0 +1,78 @@
+package inventario.jmh;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+/**
+ * Valorizacion con BigDecimal por producto contra la aritmetica en centavos, y generarResumen
+ * sobre el mismo catalogo. Los bytes asignados por operacion salen de -prof gc.
+ * Ejemplo: mvn -Pjmh compile exec:exec -Djmh.args="ValorizacionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValorizacionBenchmark {
+    @Param({"1000000"})
+    public int tamano;
+
+    private List<Producto> productos;
+    private Inventario inventario;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random rnd = new Random(7);
+        productos = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            productos.add(new Producto("P" + i, "Prod_" + (i % 200), "", BigDecimal.valueOf(rnd.nextInt(5_000_000), 2),
+                rnd.nextInt(100)));
+        }
+        inventario = new Inventario();
+        inventario.agregarProductos(productos);
+    }
+
+    @Benchmark
+    public BigDecimal valorBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Producto p : productos) {
+            total = total.add(p.getPrecio().multiply(BigDecimal.valueOf(p.getStock())));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal valorCentavos() {
+        long total = 0;
+        for (Producto p : productos) {
+            total = Math.addExact(total, p.valorCentavos());
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+
+    @Benchmark
+    public ResumenInventario generarResumen() {
+        return inventario.generarResumen(5, 3);
+    }
+}
@@ -1,9 +1,57 @@
 package inventario;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.http.ServidorHttp;
+import inventario.persistencia.PoliticaFsync;
+import inventario.persistencia.RegistroMutaciones;
 import inventario.ui.MenuPrincipal;
 
 public class App {
-    public static void main( String[] args ) {
+    public static void main( String[] args ) throws IOException {
+        // Con "--http [puerto]" se atiende la API HTTP en vez del menu de consola
+        if (args.length > 0 && args[0].equals("--http")) {
+            int puerto = args.length > 1 ? puerto(args[1]) : 8080;
+            if (puerto < 0) {
+                System.out.println("Puerto invalido: " + args[1]);
+                System.out.println("Uso: --http [puerto], con el puerto entre 0 y 65535 (0 elige uno libre).");
+                return;
+            }
+            servirHttp(puerto);
+            return;
+        }
         MenuPrincipal.mostrar();
     }
+
+    // -1 si el argumento no es un puerto valido
+    private static int puerto(String s) {
+        try {
+            int p = Integer.parseInt(s.trim());
+            return p >= 0 && p <= 65_535 ? p : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void servirHttp(int puerto) throws IOException {
+        // Antes de crear el primer servidor, que es cuando el JDK lee la propiedad (ver ServidorHttp)
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        Inventario inventario = new Inventario(ModoInventario.CONCURRENTE);
+        Path archivo = Path.of(System.getProperty("inventario.registro", "inventario.wal"));
+        RegistroMutaciones registro = RegistroMutaciones.abrir(archivo, inventario, PoliticaFsync.PERIODICA);
+        ServidorHttp servidor = new ServidorHttp(inventario, puerto);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            try {
+                registro.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el registro: " + e.getMessage());
+            }
+        }));
+        System.out.println("Inventario recuperado: " + inventario.size() + " productos. Escuchando en el puerto "
+            + servidor.getPuerto() + ".");
+    }
 }
@@ -0,0 +1,98 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import inventario.modelo.Producto;
+
+/**
+ * Totales del inventario mantenidos en cada alta, baja y cambio de stock o precio.
+ * El valor se acumula en centavos en un long. Un aporte que no cabe, sea el producto de precio
+ * por stock o la suma acumulada, va a un excedente en BigInteger, asi que el total es siempre
+ * exacto sin recorrer los productos. Cuando el total vuelve a caber en un long, el excedente
+ * se devuelve al acumulado y las consultas siguientes dejan de usar BigInteger.
+ */
+class Agregados {
+    private final LongAdder totalItems = new LongAdder();
+    private final AtomicLong valorCentavos = new AtomicLong();
+    // Aportes que no cupieron en valorCentavos; se modifica bajo el monitor de this
+    private BigInteger excedente = BigInteger.ZERO;
+    private volatile boolean desbordado;
+
+    void agregar(Producto p) {
+        totalItems.add(p.getStock());
+        sumarValor(p.getPrecioCentavos(), p.getStock());
+    }
+
+    void quitar(Producto p) {
+        totalItems.add(-p.getStock());
+        sumarValor(p.getPrecioCentavos(), -p.getStock());
+    }
+
+    void stockCambiado(Producto p, int anterior, int nuevo) {
+        long delta = (long) nuevo - anterior;
+        totalItems.add(delta);
+        sumarValor(p.getPrecioCentavos(), delta);
+    }
+
+    void precioCambiado(Producto p, long anteriorCentavos) {
+        sumarValor(p.getPrecioCentavos() - anteriorCentavos, p.getStock());
+    }
+
+    long getTotalItems() {
+        return totalItems.sum();
+    }
+
+    /** True mientras el total no quepa en un long de centavos. */
+    boolean isDesbordado() {
+        return desbordado;
+    }
+
+    BigDecimal getValorTotal() {
+        if (!desbordado) return BigDecimal.valueOf(valorCentavos.get(), 2);
+        return new BigDecimal(totalConExcedente(), 2);
+    }
+
+    private void sumarValor(long centavos, long unidades) {
+        long aporte;
+        try {
+            aporte = Math.multiplyExact(centavos, unidades);
+        } catch (ArithmeticException e) {
+            sumarExcedente(BigInteger.valueOf(centavos).multiply(BigInteger.valueOf(unidades)));
+            return;
+        }
+        long actual;
+        long suma;
+        do {
+            actual = valorCentavos.get();
+            suma = actual + aporte;
+            // Desborda si los dos sumandos tienen el mismo signo y la suma el contrario
+            if (((actual ^ suma) & (aporte ^ suma)) < 0) {
+                sumarExcedente(BigInteger.valueOf(aporte));
+                return;
+            }
+        } while (!valorCentavos.compareAndSet(actual, suma));
+    }
+
+    private synchronized void sumarExcedente(BigInteger aporte) {
+        excedente = excedente.add(aporte);
+        desbordado = excedente.signum() != 0;
+    }
+
+    // Acumulado mas excedente. Si cabe en un long, el excedente pasa al acumulado con un CAS
+    // (los aportes que llegan en el medio no se pierden) y se deja de estar desbordado
+    private synchronized BigInteger totalConExcedente() {
+        long actual;
+        BigInteger total;
+        do {
+            actual = valorCentavos.get();
+            total = excedente.add(BigInteger.valueOf(actual));
+            if (total.bitLength() > 63) return total;
+        } while (!valorCentavos.compareAndSet(actual, total.longValue()));
+        excedente = BigInteger.ZERO;
+        desbordado = false;
+        return total;
+    }
+}
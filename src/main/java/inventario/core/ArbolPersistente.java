@@ -0,0 +1,186 @@
+package inventario.core;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa ordenado inmutable (arbol AVL). Cada alta o baja copia solo el camino desde la raiz hasta
+ * el nodo tocado, O(log n) nodos, y comparte el resto con la version anterior, que sigue valida.
+ */
+final class ArbolPersistente<K, V> {
+
+    private static final class Nodo<K, V> {
+        final K clave;
+        final V valor;
+        final Nodo<K, V> izq;
+        final Nodo<K, V> der;
+        final int altura;
+        final int tamano;
+
+        Nodo(K clave, V valor, Nodo<K, V> izq, Nodo<K, V> der) {
+            this.clave = clave;
+            this.valor = valor;
+            this.izq = izq;
+            this.der = der;
+            this.altura = Math.max(altura(izq), altura(der)) + 1;
+            this.tamano = tamano(izq) + tamano(der) + 1;
+        }
+    }
+
+    private final Comparator<? super K> cmp;
+    private final Nodo<K, V> raiz;
+
+    private ArbolPersistente(Comparator<? super K> cmp, Nodo<K, V> raiz) {
+        this.cmp = cmp;
+        this.raiz = raiz;
+    }
+
+    static <K, V> ArbolPersistente<K, V> vacio(Comparator<? super K> cmp) {
+        return new ArbolPersistente<>(cmp, null);
+    }
+
+    int tamano() {
+        return tamano(raiz);
+    }
+
+    V buscar(K clave) {
+        Nodo<K, V> n = raiz;
+        while (n != null) {
+            int c = cmp.compare(clave, n.clave);
+            if (c == 0) return n.valor;
+            n = c < 0 ? n.izq : n.der;
+        }
+        return null;
+    }
+
+    /** Copia con {@code clave} asociada a {@code valor} (la agrega o la reemplaza). */
+    ArbolPersistente<K, V> con(K clave, V valor) {
+        return new ArbolPersistente<>(cmp, insertar(raiz, clave, valor));
+    }
+
+    /** Copia sin {@code clave}; este mismo arbol si no estaba. */
+    ArbolPersistente<K, V> sin(K clave) {
+        Nodo<K, V> nueva = quitar(raiz, clave);
+        return nueva == raiz ? this : new ArbolPersistente<>(cmp, nueva);
+    }
+
+    /** Mayor clave, o null si esta vacio. */
+    K ultima() {
+        Nodo<K, V> n = raiz;
+        if (n == null) return null;
+        while (n.der != null) {
+            n = n.der;
+        }
+        return n.clave;
+    }
+
+    /** Mayor clave estrictamente menor que {@code clave}, o null. */
+    K anterior(K clave) {
+        K res = null;
+        Nodo<K, V> n = raiz;
+        while (n != null) {
+            if (cmp.compare(n.clave, clave) < 0) {
+                res = n.clave;
+                n = n.der;
+            } else {
+                n = n.izq;
+            }
+        }
+        return res;
+    }
+
+    /** Valores en orden de clave a partir de la primera clave >= {@code desde} (null: desde el principio). */
+    Iterator<V> desde(K desde) {
+        ArrayDeque<Nodo<K, V>> pila = new ArrayDeque<>();
+        Nodo<K, V> n = raiz;
+        while (n != null) {
+            if (desde == null || cmp.compare(n.clave, desde) >= 0) {
+                pila.push(n);
+                n = n.izq;
+            } else {
+                n = n.der;
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !pila.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (pila.isEmpty()) throw new NoSuchElementException();
+                Nodo<K, V> actual = pila.pop();
+                for (Nodo<K, V> m = actual.der; m != null; m = m.izq) {
+                    pila.push(m);
+                }
+                return actual.valor;
+            }
+        };
+    }
+
+    private Nodo<K, V> insertar(Nodo<K, V> n, K clave, V valor) {
+        if (n == null) return new Nodo<>(clave, valor, null, null);
+        int c = cmp.compare(clave, n.clave);
+        if (c == 0) return new Nodo<>(clave, valor, n.izq, n.der);
+        if (c < 0) return balancear(n.clave, n.valor, insertar(n.izq, clave, valor), n.der);
+        return balancear(n.clave, n.valor, n.izq, insertar(n.der, clave, valor));
+    }
+
+    private Nodo<K, V> quitar(Nodo<K, V> n, K clave) {
+        if (n == null) return null;
+        int c = cmp.compare(clave, n.clave);
+        if (c < 0) {
+            Nodo<K, V> izq = quitar(n.izq, clave);
+            return izq == n.izq ? n : balancear(n.clave, n.valor, izq, n.der);
+        }
+        if (c > 0) {
+            Nodo<K, V> der = quitar(n.der, clave);
+            return der == n.der ? n : balancear(n.clave, n.valor, n.izq, der);
+        }
+        if (n.izq == null) return n.der;
+        if (n.der == null) return n.izq;
+        Nodo<K, V> min = n.der;
+        while (min.izq != null) {
+            min = min.izq;
+        }
+        return balancear(min.clave, min.valor, n.izq, quitarMinimo(n.der));
+    }
+
+    private Nodo<K, V> quitarMinimo(Nodo<K, V> n) {
+        if (n.izq == null) return n.der;
+        return balancear(n.clave, n.valor, quitarMinimo(n.izq), n.der);
+    }
+
+    private static <K, V> Nodo<K, V> balancear(K clave, V valor, Nodo<K, V> izq, Nodo<K, V> der) {
+        int hi = altura(izq);
+        int hd = altura(der);
+        if (hi > hd + 1) {
+            if (altura(izq.izq) >= altura(izq.der)) {
+                return new Nodo<>(izq.clave, izq.valor, izq.izq, new Nodo<>(clave, valor, izq.der, der));
+            }
+            Nodo<K, V> m = izq.der;
+            return new Nodo<>(m.clave, m.valor, new Nodo<>(izq.clave, izq.valor, izq.izq, m.izq),
+                new Nodo<>(clave, valor, m.der, der));
+        }
+        if (hd > hi + 1) {
+            if (altura(der.der) >= altura(der.izq)) {
+                return new Nodo<>(der.clave, der.valor, new Nodo<>(clave, valor, izq, der.izq), der.der);
+            }
+            Nodo<K, V> m = der.izq;
+            return new Nodo<>(m.clave, m.valor, new Nodo<>(clave, valor, izq, m.izq),
+                new Nodo<>(der.clave, der.valor, m.der, der.der));
+        }
+        return new Nodo<>(clave, valor, izq, der);
+    }
+
+    private static int altura(Nodo<?, ?> n) {
+        return n == null ? 0 : n.altura;
+    }
+
+    private static int tamano(Nodo<?, ?> n) {
+        return n == null ? 0 : n.tamano;
+    }
+}
@@ -0,0 +1,100 @@
+package inventario.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueos por franjas: cada codigo cae en una franja fija, de modo que productos
+ * distintos casi nunca compiten y un mismo producto siempre usa el mismo lock.
+ */
+class BloqueosPorCodigo {
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    private BloqueosPorCodigo(int cantidad) {
+        if (cantidad == 0) {
+            franjas = null;
+            mascara = 0;
+            return;
+        }
+        int n = Integer.highestOneBit(Math.max(1, cantidad - 1)) << 1;
+        franjas = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        mascara = n - 1;
+    }
+
+    static BloqueosPorCodigo para(ModoInventario modo) {
+        if (modo == ModoInventario.SECUENCIAL) return new BloqueosPorCodigo(0);
+        return new BloqueosPorCodigo(Math.max(64, Runtime.getRuntime().availableProcessors() * 16));
+    }
+
+    void bloquear(String codigo) {
+        if (franjas != null) franjas[indice(codigo)].lock();
+    }
+
+    void liberar(String codigo) {
+        if (franjas != null) franjas[indice(codigo)].unlock();
+    }
+
+    /**
+     * Bloquea las franjas de todos los codigos del lote, siempre en orden creciente de franja
+     * para que dos lotes que se cruzan no se bloqueen mutuamente. Devuelve lo que hay que liberar.
+     */
+    int[] bloquearTodos(LoteMovimientos lote) {
+        if (franjas == null || lote.size() == 0) return new int[0];
+        int[] idx = new int[lote.size()];
+        for (int i = 0; i < idx.length; i++) {
+            idx[i] = indice(lote.codigo(i));
+        }
+        return tomar(idx);
+    }
+
+    /** Igual que {@link #bloquearTodos(LoteMovimientos)}, para una coleccion de codigos. */
+    int[] bloquearTodos(Collection<String> codigos) {
+        if (franjas == null || codigos.isEmpty()) return new int[0];
+        int[] idx = new int[codigos.size()];
+        int i = 0;
+        for (String codigo : codigos) {
+            idx[i++] = indice(codigo);
+        }
+        return tomar(idx);
+    }
+
+    /** Bloquea todas las franjas, en orden: nadie puede escribir hasta liberarlas. */
+    int[] bloquearTodas() {
+        if (franjas == null) return new int[0];
+        int[] todas = new int[franjas.length];
+        for (int i = 0; i < todas.length; i++) {
+            franjas[i].lock();
+            todas[i] = i;
+        }
+        return todas;
+    }
+
+    private int[] tomar(int[] idx) {
+        Arrays.sort(idx);
+        int unicos = 0;
+        for (int i = 0; i < idx.length; i++) {
+            if (i == 0 || idx[i] != idx[i - 1]) idx[unicos++] = idx[i];
+        }
+        int[] tomadas = Arrays.copyOf(idx, unicos);
+        for (int f : tomadas) {
+            franjas[f].lock();
+        }
+        return tomadas;
+    }
+
+    void liberarTodos(int[] tomadas) {
+        for (int i = tomadas.length - 1; i >= 0; i--) {
+            franjas[tomadas[i]].unlock();
+        }
+    }
+
+    private int indice(String codigo) {
+        int h = codigo.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
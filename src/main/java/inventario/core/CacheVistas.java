@@ -0,0 +1,60 @@
+package inventario.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import inventario.dto.EstadisticasCache;
+import inventario.modelo.Producto;
+
+/**
+ * Cache LRU de resultados de consultas (listados ordenados y busquedas). Cada entrada guarda la
+ * version del inventario con la que se calculo y solo sirve mientras esa version siga vigente,
+ * asi que no hace falta invalidar nada al escribir: basta con que cada cambio incremente la version.
+ */
+class CacheVistas {
+    private final int capacidad;
+    private final Map<Object, Entrada> entradas;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    private record Entrada(long version, List<Producto> resultado) {
+    }
+
+    CacheVistas(int capacidad) {
+        this.capacidad = capacidad;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> mayor) {
+                if (size() <= CacheVistas.this.capacidad) return false;
+                desalojos++;
+                return true;
+            }
+        };
+    }
+
+    /** Resultado guardado para la clave si se calculo en {@code version}; null si no hay o quedo viejo. */
+    synchronized List<Producto> buscar(Object clave, long version) {
+        Entrada e = entradas.get(clave);
+        if (e != null && e.version() == version) {
+            aciertos++;
+            return e.resultado();
+        }
+        if (e != null) entradas.remove(clave);
+        fallos++;
+        return null;
+    }
+
+    synchronized void guardar(Object clave, long version, List<Producto> resultado) {
+        Entrada actual = entradas.get(clave);
+        // No pisa un resultado calculado con una version mas nueva por otro hilo
+        if (actual == null || actual.version() < version) {
+            entradas.put(clave, new Entrada(version, resultado));
+        }
+    }
+
+    synchronized EstadisticasCache estadisticas() {
+        return new EstadisticasCache(capacidad, entradas.size(), aciertos, fallos, desalojos);
+    }
+}
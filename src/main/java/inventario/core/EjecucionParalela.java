@@ -0,0 +1,146 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Recorridos en paralelo sobre un ForkJoinPool propio. Debajo del umbral se hace lo mismo en el
+ * hilo que llama. Los resultados son identicos a los del recorrido secuencial sobre el mismo
+ * orden de la coleccion: el filtro concatena los tramos en orden y el ordenamiento es una mezcla
+ * estable (ante empates gana el tramo de la izquierda).
+ */
+class EjecucionParalela {
+    // Tramo minimo por tarea: por debajo el costo de repartir supera al del trabajo
+    private static final int TRAMO_MINIMO = 1_024;
+
+    private final ForkJoinPool pool;
+    private final int umbral;
+
+    EjecucionParalela(ForkJoinPool pool, int umbral) {
+        this.pool = pool;
+        this.umbral = umbral;
+    }
+
+    private int tramo(int n) {
+        return Math.max(TRAMO_MINIMO, n / (pool.getParallelism() * 4));
+    }
+
+    /** Igual que {@code fuente.stream().sorted(cmp).toList()}. */
+    @SuppressWarnings("unchecked")
+    <T> List<T> ordenar(Collection<T> fuente, Comparator<? super T> cmp) {
+        if (fuente.size() < umbral) {
+            return fuente.stream().sorted(cmp).toList();
+        }
+        Object[] a = fuente.toArray();
+        pool.invoke(new Ordenar(a, new Object[a.length], 0, a.length, (Comparator<Object>) cmp, tramo(a.length)));
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(a));
+    }
+
+    /** Los que cumplen {@code condicion}, en el orden de la coleccion. */
+    @SuppressWarnings("unchecked")
+    <T> List<T> filtrar(Collection<T> fuente, Predicate<? super T> condicion) {
+        if (fuente.size() < umbral) {
+            List<T> res = new ArrayList<>();
+            for (T t : fuente) {
+                if (condicion.test(t)) res.add(t);
+            }
+            return res;
+        }
+        Object[] a = fuente.toArray();
+        return (List<T>) pool.invoke(new Filtrar(a, 0, a.length, (Predicate<Object>) condicion, tramo(a.length)));
+    }
+
+    @SuppressWarnings("serial")
+    private static class Ordenar extends RecursiveAction {
+        private final Object[] a;
+        private final Object[] aux;
+        private final int desde;
+        private final int hasta;
+        private final Comparator<Object> cmp;
+        private final int tramo;
+
+        Ordenar(Object[] a, Object[] aux, int desde, int hasta, Comparator<Object> cmp, int tramo) {
+            this.a = a;
+            this.aux = aux;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cmp = cmp;
+            this.tramo = tramo;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= tramo) {
+                // TimSort: estable, igual que sorted() secuencial
+                Arrays.sort(a, desde, hasta, cmp);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            Ordenar izquierda = new Ordenar(a, aux, desde, medio, cmp, tramo);
+            izquierda.fork();
+            new Ordenar(a, aux, medio, hasta, cmp, tramo).compute();
+            izquierda.join();
+            mezclar(medio);
+        }
+
+        private void mezclar(int medio) {
+            if (cmp.compare(a[medio - 1], a[medio]) <= 0) return;
+            System.arraycopy(a, desde, aux, desde, hasta - desde);
+            int i = desde;
+            int j = medio;
+            int k = desde;
+            while (i < medio && j < hasta) {
+                a[k++] = cmp.compare(aux[i], aux[j]) <= 0 ? aux[i++] : aux[j++];
+            }
+            while (i < medio) {
+                a[k++] = aux[i++];
+            }
+            while (j < hasta) {
+                a[k++] = aux[j++];
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class Filtrar extends RecursiveTask<List<Object>> {
+        private final Object[] a;
+        private final int desde;
+        private final int hasta;
+        private final Predicate<Object> condicion;
+        private final int tramo;
+
+        Filtrar(Object[] a, int desde, int hasta, Predicate<Object> condicion, int tramo) {
+            this.a = a;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.condicion = condicion;
+            this.tramo = tramo;
+        }
+
+        @Override
+        protected List<Object> compute() {
+            if (hasta - desde <= tramo) {
+                List<Object> res = new ArrayList<>();
+                for (int i = desde; i < hasta; i++) {
+                    if (condicion.test(a[i])) res.add(a[i]);
+                }
+                return res;
+            }
+            int medio = (desde + hasta) >>> 1;
+            Filtrar izquierda = new Filtrar(a, desde, medio, condicion, tramo);
+            izquierda.fork();
+            List<Object> derecha = new Filtrar(a, medio, hasta, condicion, tramo).compute();
+            List<Object> res = izquierda.join();
+            res.addAll(derecha);
+            return res;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Reparto del stock de cada producto entre bodegas. El total sigue siendo Producto.stock; aca se
+ * guarda cuanto hay en cada bodega y se mantiene que la suma de las bodegas sea ese total. Los
+ * cambios de stock que no nombran una bodega van a la principal; si una baja no alcanza con lo
+ * que hay en la principal, el resto sale de las demas bodegas en orden de alta.
+ *
+ * Cada producto tiene un slot denso y cada bodega guarda por slot su cantidad (-1 si el producto
+ * nunca estuvo ahi) y su posicion dentro del bloque de productos con ese mismo stock. Los bloques
+ * van en un TreeMap por stock, asi que el top y el stock bajo de una bodega salen sin recorrerla
+ * entera, y cada par producto/bodega ocupa unos pocos ints en vez de un objeto.
+ *
+ * Los cambios sobre un mismo producto deben llegar serializados (Inventario los hace bajo el
+ * bloqueo del codigo, y Producto avisa sus cambios de stock bajo su monitor, que aca se toma
+ * tambien para repartir). Cada bodega tiene su propio lock. Un cambio por bodega reparte antes
+ * de cambiar el total; si el total se rechaza (un observador que lanza en antesDeCambiarStock), el
+ * reparto se deshace.
+ */
+class ExistenciasBodegas {
+    private static final int AUSENTE = -1;
+    private static final Comparator<Existencias> POR_CODIGO = Comparator.comparing(e -> e.producto.getCodigo());
+
+    private static final class Existencias {
+        final Producto producto;
+        final int slot;
+        // Suma de lo repartido en las bodegas; difiere de producto.getStock() solo mientras se
+        // procesa un cambio que no nombro bodega
+        int asignado;
+
+        Existencias(Producto producto, int slot) {
+            this.producto = producto;
+            this.slot = slot;
+        }
+    }
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // Se reemplaza entero al registrar una bodega: leerlo no necesita lock
+    private volatile Bodega[] bodegas = new Bodega[0];
+    private final Map<String, Existencias> porCodigo;
+    private int[] libres = new int[16];
+    private int cantidadLibres;
+    private int proximoSlot;
+
+    ExistenciasBodegas(ModoInventario modo, String principal) {
+        this.porCodigo = (modo == ModoInventario.CONCURRENTE) ? new ConcurrentHashMap<>() : new HashMap<>();
+        registrar(principal);
+    }
+
+    /** Devuelve false si ya existia. */
+    synchronized boolean registrar(String nombre) {
+        if (ids.containsKey(nombre)) return false;
+        Bodega[] nuevas = Arrays.copyOf(bodegas, bodegas.length + 1);
+        nuevas[bodegas.length] = new Bodega(nombre);
+        ids.put(nombre, bodegas.length);
+        bodegas = nuevas;
+        return true;
+    }
+
+    List<String> nombres() {
+        List<String> res = new ArrayList<>();
+        for (Bodega b : bodegas) {
+            res.add(b.nombre);
+        }
+        return res;
+    }
+
+    private Bodega bodega(String nombre) {
+        Integer id = nombre == null ? null : ids.get(nombre);
+        if (id == null) {
+            throw new ValidacionException("Bodega desconocida: " + nombre);
+        }
+        return bodegas[id];
+    }
+
+    /** Alta: todo su stock queda en la principal. No hace nada si el producto ya estaba. */
+    void agregar(Producto p) {
+        existencias(p);
+    }
+
+    private Existencias existencias(Producto p) {
+        Existencias e = porCodigo.get(p.getCodigo());
+        if (e != null && e.producto == p) return e;
+        if (e != null) quitar(e.producto);
+        e = new Existencias(p, tomarSlot());
+        e.asignado = p.getStock();
+        bodegas[0].sumar(e, e.asignado);
+        porCodigo.put(p.getCodigo(), e);
+        return e;
+    }
+
+    void quitar(Producto p) {
+        Existencias e = porCodigo.get(p.getCodigo());
+        if (e == null || e.producto != p) return;
+        porCodigo.remove(p.getCodigo());
+        for (Bodega b : bodegas) {
+            b.quitar(e);
+        }
+        devolverSlot(e.slot);
+    }
+
+    /** Reparte un cambio del total que no nombro bodega. */
+    void stockCambiado(Producto p, int nuevo) {
+        Existencias e = porCodigo.get(p.getCodigo());
+        if (e == null || e.producto != p) return;
+        int delta = nuevo - e.asignado;
+        if (delta == 0) return;
+        e.asignado = nuevo;
+        Bodega[] bs = bodegas;
+        if (delta > 0) {
+            bs[0].sumar(e, delta);
+            return;
+        }
+        int falta = -delta;
+        for (int i = 0; i < bs.length && falta > 0; i++) {
+            int hay = bs[i].stock(e.slot);
+            if (hay <= 0) continue;
+            int sale = Math.min(hay, falta);
+            bs[i].sumar(e, -sale);
+            falta -= sale;
+        }
+    }
+
+    void precioCambiado(Producto p, long anteriorCentavos) {
+        Existencias e = porCodigo.get(p.getCodigo());
+        if (e == null || e.producto != p) return;
+        long diferencia = p.getPrecioCentavos() - anteriorCentavos;
+        for (Bodega b : bodegas) {
+            b.precioCambiado(e, diferencia);
+        }
+    }
+
+    void aumentar(Producto p, String bodega, int cantidad) {
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a aumentar debe ser > 0.");
+        }
+        Bodega b = bodega(bodega);
+        Existencias e = existencias(p);
+        // Bajo el monitor del producto, igual que sus cambios de stock: un tryReservar directo
+        // no puede colarse entre el reparto y el cambio del total
+        synchronized (p) {
+            if ((long) p.getStock() + cantidad > Integer.MAX_VALUE) {
+                throw new ValidacionException("El stock excede el maximo permitido.");
+            }
+            int total = p.getStock();
+            boolean estaba = b.stock(e.slot) != AUSENTE;
+            // Primero la bodega: cuando el total cambie, stockCambiado ya lo encuentra repartido
+            b.sumar(e, cantidad);
+            e.asignado += cantidad;
+            try {
+                p.aumentarStock(cantidad);
+            } catch (RuntimeException ex) {
+                if (p.getStock() == total) {
+                    if (estaba) b.sumar(e, -cantidad);
+                    else b.quitar(e);
+                    e.asignado -= cantidad;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    void disminuir(Producto p, String bodega, int cantidad) {
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a disminuir debe ser > 0.");
+        }
+        Bodega b = bodega(bodega);
+        Existencias e = existencias(p);
+        synchronized (p) {
+            if (b.stock(e.slot) < cantidad) {
+                throw new ValidacionException("No hay stock suficiente en la bodega " + bodega + ".");
+            }
+            int total = p.getStock();
+            b.sumar(e, -cantidad);
+            e.asignado -= cantidad;
+            try {
+                p.disminuirStock(cantidad);
+            } catch (RuntimeException ex) {
+                if (p.getStock() == total) {
+                    b.sumar(e, cantidad);
+                    e.asignado += cantidad;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    void transferir(Producto p, String origen, String destino, int cantidad) {
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a transferir debe ser > 0.");
+        }
+        Bodega desde = bodega(origen);
+        Bodega hasta = bodega(destino);
+        if (desde == hasta) {
+            throw new ValidacionException("Origen y destino deben ser bodegas distintas.");
+        }
+        Existencias e = existencias(p);
+        synchronized (p) {
+            if (desde.stock(e.slot) < cantidad) {
+                throw new ValidacionException("No hay stock suficiente en la bodega " + origen + ".");
+            }
+            desde.sumar(e, -cantidad);
+            hasta.sumar(e, cantidad);
+        }
+    }
+
+    /** Stock del producto en la bodega (0 si nunca estuvo ahi). */
+    int stockEn(Producto p, String bodega) {
+        Bodega b = bodega(bodega);
+        Existencias e = existencias(p);
+        return Math.max(0, b.stock(e.slot));
+    }
+
+    /** Bodegas donde estuvo el producto, en orden de alta, con su stock en cada una. */
+    Map<String, Integer> stockPorBodega(Producto p) {
+        Existencias e = existencias(p);
+        Map<String, Integer> res = new LinkedHashMap<>();
+        for (Bodega b : bodegas) {
+            int s = b.stock(e.slot);
+            if (s != AUSENTE) res.put(b.nombre, s);
+        }
+        return res;
+    }
+
+    List<Producto> mayores(String bodega, int n) {
+        Bodega b = bodega(bodega);
+        synchronized (b) {
+            return b.mayores(n);
+        }
+    }
+
+    List<Producto> menoresQue(String bodega, int umbral) {
+        Bodega b = bodega(bodega);
+        synchronized (b) {
+            return b.menoresQue(umbral);
+        }
+    }
+
+    /** Todo el resumen bajo el lock de la bodega: totales y listas son de un mismo estado. */
+    ResumenInventario resumen(String bodega, int topN, int umbralBajo) {
+        Bodega b = bodega(bodega);
+        synchronized (b) {
+            return new ResumenInventario(b.presentes, b.totalItems, b.valorTotal(), b.mayores(topN),
+                umbralBajo <= 0 ? List.of() : b.menoresQue(umbralBajo));
+        }
+    }
+
+    private synchronized int tomarSlot() {
+        return cantidadLibres > 0 ? libres[--cantidadLibres] : proximoSlot++;
+    }
+
+    private synchronized void devolverSlot(int slot) {
+        if (cantidadLibres == libres.length) libres = Arrays.copyOf(libres, libres.length * 2);
+        libres[cantidadLibres++] = slot;
+    }
+
+    // Productos con un mismo stock en una bodega, sin orden
+    private static final class Bloque {
+        Existencias[] items = new Existencias[4];
+        int n;
+    }
+
+    private static final class Bodega {
+        final String nombre;
+        // Por slot: stock en esta bodega (AUSENTE si nunca estuvo) y posicion dentro de su bloque
+        int[] stock = new int[0];
+        int[] posicion = new int[0];
+        final TreeMap<Integer, Bloque> bloques = new TreeMap<>();
+        int presentes;
+        long totalItems;
+        // Valor en centavos; lo que no cabe en el long va al excedente, que vuelve a cero en cuanto
+        // el total cabe otra vez (como en Agregados)
+        long valorCentavos;
+        BigInteger excedente = BigInteger.ZERO;
+
+        Bodega(String nombre) {
+            this.nombre = nombre;
+        }
+
+        synchronized int stock(int slot) {
+            return slot < stock.length ? stock[slot] : AUSENTE;
+        }
+
+        synchronized void sumar(Existencias e, int delta) {
+            int slot = e.slot;
+            if (slot >= stock.length) {
+                int largo = Math.max(slot + 1, stock.length + (stock.length >> 1) + 16);
+                int desde = stock.length;
+                stock = Arrays.copyOf(stock, largo);
+                posicion = Arrays.copyOf(posicion, largo);
+                Arrays.fill(stock, desde, largo, AUSENTE);
+            }
+            int anterior = stock[slot];
+            if (anterior == AUSENTE) {
+                anterior = 0;
+                presentes++;
+            } else {
+                sacar(slot, anterior);
+            }
+            int nuevo = anterior + delta;
+            stock[slot] = nuevo;
+            meter(e, nuevo);
+            totalItems += delta;
+            sumarValor(e.producto.getPrecioCentavos(), delta);
+        }
+
+        synchronized void quitar(Existencias e) {
+            int s = stock(e.slot);
+            if (s == AUSENTE) return;
+            sacar(e.slot, s);
+            stock[e.slot] = AUSENTE;
+            presentes--;
+            totalItems -= s;
+            sumarValor(e.producto.getPrecioCentavos(), -s);
+        }
+
+        synchronized void precioCambiado(Existencias e, long diferencia) {
+            int s = stock(e.slot);
+            if (s > 0) sumarValor(diferencia, s);
+        }
+
+        private void meter(Existencias e, int s) {
+            Bloque b = bloques.computeIfAbsent(s, k -> new Bloque());
+            if (b.n == b.items.length) b.items = Arrays.copyOf(b.items, b.n * 2);
+            posicion[e.slot] = b.n;
+            b.items[b.n++] = e;
+        }
+
+        // Saca el slot de su bloque moviendo el ultimo del bloque a su lugar
+        private void sacar(int slot, int s) {
+            Bloque b = bloques.get(s);
+            int pos = posicion[slot];
+            Existencias ultimo = b.items[--b.n];
+            b.items[pos] = ultimo;
+            posicion[ultimo.slot] = pos;
+            b.items[b.n] = null;
+            if (b.n == 0) bloques.remove(s);
+        }
+
+        private void sumarValor(long centavos, long unidades) {
+            if (excedente.signum() == 0) {
+                try {
+                    valorCentavos = Math.addExact(valorCentavos, Math.multiplyExact(centavos, unidades));
+                    return;
+                } catch (ArithmeticException e) {
+                    // No cabe: se suma en BigInteger
+                }
+            }
+            BigInteger total = excedente.add(BigInteger.valueOf(valorCentavos))
+                .add(BigInteger.valueOf(centavos).multiply(BigInteger.valueOf(unidades)));
+            if (total.bitLength() <= 63) {
+                valorCentavos = total.longValue();
+                excedente = BigInteger.ZERO;
+            } else {
+                valorCentavos = 0;
+                excedente = total;
+            }
+        }
+
+        BigDecimal valorTotal() {
+            if (excedente.signum() == 0) return BigDecimal.valueOf(valorCentavos, 2);
+            return new BigDecimal(excedente.add(BigInteger.valueOf(valorCentavos)), 2);
+        }
+
+        /** Los n de mayor stock en la bodega; los empates salen por codigo ascendente. */
+        List<Producto> mayores(int n) {
+            List<Producto> res = new ArrayList<>(Math.min(Math.max(n, 0), 64));
+            for (Map.Entry<Integer, Bloque> en : bloques.descendingMap().entrySet()) {
+                if (res.size() >= n) break;
+                agregarOrdenados(res, en.getValue(), en.getKey(), n - res.size());
+            }
+            return res;
+        }
+
+        /** Los de stock estrictamente menor que el umbral en la bodega, de menor a mayor. */
+        List<Producto> menoresQue(int umbral) {
+            List<Producto> res = new ArrayList<>();
+            for (Map.Entry<Integer, Bloque> en : bloques.headMap(umbral, false).entrySet()) {
+                agregarOrdenados(res, en.getValue(), en.getKey(), Integer.MAX_VALUE);
+            }
+            return res;
+        }
+
+        // Los primeros {@code cuantos} del bloque por codigo; si el bloque es mucho mas grande
+        // que lo que falta, selecciona con un heap en vez de ordenarlo entero
+        private static void agregarOrdenados(List<Producto> res, Bloque b, int stock, int cuantos) {
+            Existencias[] elegidos;
+            if (b.n <= cuantos) {
+                elegidos = Arrays.copyOf(b.items, b.n);
+            } else {
+                PriorityQueue<Existencias> heap = new PriorityQueue<>(cuantos + 1, POR_CODIGO.reversed());
+                for (int i = 0; i < b.n; i++) {
+                    heap.add(b.items[i]);
+                    if (heap.size() > cuantos) heap.poll();
+                }
+                elegidos = heap.toArray(new Existencias[0]);
+            }
+            Arrays.sort(elegidos, POR_CODIGO);
+            for (Existencias e : elegidos) {
+                Producto p = e.producto;
+                // Copia con el stock de esta bodega, no el total
+                res.add(Producto.restaurarInternado(p.getCodigo(), p.getNombre(), p.getDescripcion(), p.getPrecioCentavos(),
+                    stock));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package inventario.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-lineal de latencias en nanosegundos, sin locks al registrar.
+ * Valores menores a 32 van a su propio bucket; de ahi en adelante cada potencia de 2 se divide
+ * en 16 buckets, asi que el error relativo de un percentil es menor a 1/16 (~6%).
+ */
+class HistogramaLatencia {
+    private static final int LINEALES = 32;
+    private static final int SUB = 16;
+    private static final int BUCKETS = LINEALES + (63 - 5) * SUB + SUB;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(BUCKETS);
+
+    void registrar(long nanos) {
+        cuentas.incrementAndGet(indice(Math.max(0, nanos)));
+    }
+
+    static int indice(long v) {
+        if (v < LINEALES) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - 4)) & (SUB - 1);
+        return LINEALES + (exp - 5) * SUB + sub;
+    }
+
+    // Mayor valor que cae en el bucket
+    static long limiteSuperior(int i) {
+        if (i < LINEALES) return i;
+        int exp = (i - LINEALES) / SUB + 5;
+        int sub = (i - LINEALES) % SUB;
+        long base = (long) (SUB + sub) << (exp - 4);
+        return base + (1L << (exp - 4)) - 1;
+    }
+
+    /** Copia de las cuentas; como se lee bucket a bucket puede no ser atomica respecto de registros en curso. */
+    long[] copiar() {
+        long[] c = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = cuentas.get(i);
+        }
+        return c;
+    }
+
+    /** Percentil (0-100] sobre una copia de las cuentas; 0 si no hay registros. */
+    static long percentil(long[] c, double p) {
+        long total = 0;
+        for (long x : c) {
+            total += x;
+        }
+        if (total == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < c.length; i++) {
+            acumulado += c[i];
+            if (acumulado >= objetivo) return limiteSuperior(i);
+        }
+        return limiteSuperior(c.length - 1);
+    }
+}
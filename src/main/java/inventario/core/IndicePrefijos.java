@@ -0,0 +1,55 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import inventario.modelo.Producto;
+
+/**
+ * Nombres plegados en orden, para autocompletar: los que empiezan con un prefijo forman un
+ * rango contiguo, asi que basta ubicar el inicio (O(log n)) y leer k entradas.
+ */
+class IndicePrefijos {
+    private static final Comparator<Entrada> ORDEN = Comparator.comparing(Entrada::plegado)
+        .thenComparing(Entrada::codigo);
+
+    private record Entrada(String plegado, String codigo, Producto producto) {
+    }
+
+    private final NavigableSet<Entrada> entradas;
+
+    IndicePrefijos(ModoInventario modo) {
+        this.entradas = (modo == ModoInventario.CONCURRENTE) ? new ConcurrentSkipListSet<>(ORDEN) : new TreeSet<>(ORDEN);
+    }
+
+    void agregar(Producto p) {
+        entradas.add(new Entrada(IndiceTrigramas.plegar(p.getNombre()), p.getCodigo(), p));
+    }
+
+    void quitar(Producto p) {
+        entradas.remove(clave(IndiceTrigramas.plegar(p.getNombre()), p.getCodigo()));
+    }
+
+    void nombreCambiado(Producto p, String anterior) {
+        entradas.remove(clave(IndiceTrigramas.plegar(anterior), p.getCodigo()));
+        agregar(p);
+    }
+
+    /** Hasta k productos cuyo nombre plegado empieza con {@code prefijo} (ya plegado), por nombre y codigo. */
+    List<Producto> conPrefijo(String prefijo, int k) {
+        List<Producto> res = new ArrayList<>(Math.min(k, 64));
+        for (Entrada e : entradas.tailSet(clave(prefijo, ""), true)) {
+            if (res.size() == k || !e.plegado().startsWith(prefijo)) break;
+            res.add(e.producto());
+        }
+        return res;
+    }
+
+    private static Entrada clave(String plegado, String codigo) {
+        return new Entrada(plegado, codigo, null);
+    }
+}
@@ -0,0 +1,74 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import inventario.modelo.Producto;
+
+/**
+ * Productos ordenados por (stock, codigo). Las entradas guardan el stock con el que se
+ * insertaron, asi que al cambiar el stock se quitan con el valor anterior y se reinsertan.
+ */
+class IndiceStock {
+    private static final Comparator<Entrada> ORDEN = Comparator.comparingInt(Entrada::stock)
+        .thenComparing(Entrada::codigo);
+
+    private record Entrada(int stock, String codigo, Producto producto) {
+    }
+
+    private final NavigableSet<Entrada> entradas;
+
+    IndiceStock(ModoInventario modo) {
+        this.entradas = (modo == ModoInventario.CONCURRENTE) ? new ConcurrentSkipListSet<>(ORDEN) : new TreeSet<>(ORDEN);
+    }
+
+    void agregar(Producto p) {
+        entradas.add(new Entrada(p.getStock(), p.getCodigo(), p));
+    }
+
+    void quitar(Producto p) {
+        entradas.remove(clave(p.getStock(), p.getCodigo()));
+    }
+
+    void stockCambiado(Producto p, int anterior, int nuevo) {
+        entradas.remove(clave(anterior, p.getCodigo()));
+        entradas.add(new Entrada(nuevo, p.getCodigo(), p));
+    }
+
+    /** Los n de mayor stock; los empates salen por codigo ascendente. */
+    List<Producto> mayores(int n) {
+        List<Producto> res = new ArrayList<>(Math.min(n, 64));
+        Entrada ultima = ultima();
+        while (ultima != null && res.size() < n) {
+            int s = ultima.stock();
+            // Recorre el bloque de un mismo stock en orden de codigo
+            for (Entrada e : entradas.subSet(clave(s, ""), true, clave(s, ultima.codigo()), true)) {
+                if (res.size() == n) break;
+                res.add(e.producto());
+            }
+            ultima = entradas.lower(clave(s, ""));
+        }
+        return res;
+    }
+
+    /** Los de stock estrictamente menor que el umbral, de menor a mayor. */
+    List<Producto> menoresQue(int umbral) {
+        List<Producto> res = new ArrayList<>();
+        for (Entrada e : entradas.headSet(clave(umbral, ""), false)) {
+            res.add(e.producto());
+        }
+        return res;
+    }
+
+    private Entrada ultima() {
+        return entradas.isEmpty() ? null : entradas.last();
+    }
+
+    private static Entrada clave(int stock, String codigo) {
+        return new Entrada(stock, codigo, null);
+    }
+}
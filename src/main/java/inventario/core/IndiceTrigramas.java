@@ -0,0 +1,160 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import inventario.modelo.DiccionarioTextos;
+import inventario.modelo.Producto;
+
+/**
+ * Indice invertido de trigramas sobre un texto por producto.
+ * Guarda el texto ya pasado a minusculas para no repetir la conversion en cada consulta.
+ * Es seguro entre hilos: las consultas comparten un lock de lectura.
+ */
+class IndiceTrigramas {
+    private static final int N = 3;
+
+    private final Map<Long, Set<Producto>> postings = new HashMap<>();
+    private final Map<Producto, String> textos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Los textos de productos ya traen su forma plegada en el diccionario
+    static String plegar(String s) {
+        return DiccionarioTextos.plegar(s);
+    }
+
+    void agregar(Producto p, String texto) {
+        String plegado = plegar(texto);
+        lock.writeLock().lock();
+        try {
+            agregarPlegado(p, plegado);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void agregarSiFalta(Producto p, String texto) {
+        lock.writeLock().lock();
+        try {
+            if (!textos.containsKey(p)) agregarPlegado(p, plegar(texto));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void quitar(Producto p) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void actualizar(Producto p, String texto) {
+        String plegado = plegar(texto);
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(p);
+            agregarPlegado(p, plegado);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Productos cuyo texto contiene {@code needle}; la aguja ya debe venir plegada. */
+    List<Producto> buscar(String needle) {
+        return buscar(needle, null);
+    }
+
+    /** Como {@link #buscar(String)}, verificando los candidatos en paralelo si {@code paralelo} no es null. */
+    List<Producto> buscar(String needle, EjecucionParalela paralelo) {
+        lock.readLock().lock();
+        try {
+            return buscarSinBloqueo(needle, paralelo);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void agregarPlegado(Producto p, String plegado) {
+        textos.put(p, plegado);
+        for (long t : trigramas(plegado)) {
+            postings.computeIfAbsent(t, k -> new HashSet<>()).add(p);
+        }
+    }
+
+    private void quitarSinBloqueo(Producto p) {
+        String plegado = textos.remove(p);
+        if (plegado == null) return;
+        for (long t : trigramas(plegado)) {
+            Set<Producto> lista = postings.get(t);
+            if (lista != null) {
+                lista.remove(p);
+                if (lista.isEmpty()) postings.remove(t);
+            }
+        }
+    }
+
+    private List<Producto> buscarSinBloqueo(String needle, EjecucionParalela paralelo) {
+        if (needle.length() < N) {
+            List<Map.Entry<Producto, String>> hallados = filtrar(paralelo, textos.entrySet(), e -> e.getValue().contains(needle));
+            List<Producto> res = new ArrayList<>(hallados.size());
+            for (Map.Entry<Producto, String> e : hallados) {
+                res.add(e.getKey());
+            }
+            return res;
+        }
+
+        long[] ts = trigramas(needle);
+        List<Set<Producto>> listas = new ArrayList<>(ts.length);
+        for (long t : ts) {
+            Set<Producto> lista = postings.get(t);
+            if (lista == null) return new ArrayList<>();
+            listas.add(lista);
+        }
+        listas.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Collection<Producto> candidatos = listas.get(0);
+        return filtrar(paralelo, candidatos, p -> {
+            for (int i = 1; i < listas.size(); i++) {
+                if (!listas.get(i).contains(p)) return false;
+            }
+            // Los trigramas no garantizan contiguidad: se confirma contra el texto
+            return textos.get(p).contains(needle);
+        });
+    }
+
+    private static <T> List<T> filtrar(EjecucionParalela paralelo, Collection<T> fuente, Predicate<? super T> condicion) {
+        if (paralelo != null) return paralelo.filtrar(fuente, condicion);
+        List<T> res = new ArrayList<>();
+        for (T t : fuente) {
+            if (condicion.test(t)) res.add(t);
+        }
+        return res;
+    }
+
+    private static long[] trigramas(String s) {
+        int cant = s.length() - N + 1;
+        if (cant <= 0) return new long[0];
+        long[] ts = new long[cant];
+        for (int i = 0; i < cant; i++) {
+            ts[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        Arrays.sort(ts);
+        int unicos = 0;
+        for (int i = 0; i < ts.length; i++) {
+            if (i == 0 || ts[i] != ts[i - 1]) ts[unicos++] = ts[i];
+        }
+        return Arrays.copyOf(ts, unicos);
+    }
+}
@@ -0,0 +1,201 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import inventario.dto.PaginaProductos;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Foto inmutable del inventario en un instante (ver {@link Inventario#snapshot()}). Todas sus
+ * consultas ven la misma version aunque el inventario siga cambiando. Guarda versiones inmutables
+ * de los productos en arboles persistentes que comparten casi toda su estructura con las fotos
+ * vecinas, asi que tomarla es O(1) y retenerla cuesta solo lo que cambio despues.
+ *
+ * Los productos que devuelve son copias sueltas: modificarlos no afecta al inventario.
+ */
+public final class Instantanea {
+
+    // Version inmutable de un producto
+    record Version(String codigo, String nombre, String descripcion, long precioCentavos, int stock) {
+        static Version de(Producto p) {
+            return new Version(p.getCodigo(), p.getNombre(), p.getDescripcion(), p.getPrecioCentavos(), p.getStock());
+        }
+
+        Producto aProducto() {
+            return Producto.restaurarInternado(codigo, nombre, descripcion, precioCentavos, stock);
+        }
+    }
+
+    private record ClaveStock(int stock, String codigo) {
+    }
+
+    // Valor total como en Agregados: centavos en un long y lo que no cabe en un excedente, que
+    // vuelve a cero en cuanto el total cabe otra vez en el long
+    private record Valor(long centavos, BigInteger excedente) {
+        static final Valor CERO = new Valor(0, BigInteger.ZERO);
+
+        Valor mas(long precioCentavos, long unidades) {
+            if (excedente.signum() == 0) {
+                try {
+                    return new Valor(Math.addExact(centavos, Math.multiplyExact(precioCentavos, unidades)), BigInteger.ZERO);
+                } catch (ArithmeticException e) {
+                    // No cabe: se suma en BigInteger
+                }
+            }
+            BigInteger total = total().add(BigInteger.valueOf(precioCentavos).multiply(BigInteger.valueOf(unidades)));
+            return total.bitLength() <= 63 ? new Valor(total.longValue(), BigInteger.ZERO) : new Valor(0, total);
+        }
+
+        BigInteger total() {
+            return excedente.add(BigInteger.valueOf(centavos));
+        }
+    }
+
+    // Mismo orden que IndiceStock
+    private static final Comparator<ClaveStock> ORDEN_STOCK = Comparator.comparingInt(ClaveStock::stock)
+        .thenComparing(ClaveStock::codigo);
+
+    static final Instantanea VACIA = new Instantanea(0, ArbolPersistente.vacio(Comparator.naturalOrder()),
+        ArbolPersistente.vacio(ORDEN_STOCK), 0, Valor.CERO);
+
+    private final long numero;
+    private final ArbolPersistente<String, Version> porCodigo;
+    private final ArbolPersistente<ClaveStock, Version> porStock;
+    private final long totalItems;
+    private final Valor valor;
+
+    private Instantanea(long numero, ArbolPersistente<String, Version> porCodigo, ArbolPersistente<ClaveStock, Version> porStock,
+            long totalItems, Valor valor) {
+        this.numero = numero;
+        this.porCodigo = porCodigo;
+        this.porStock = porStock;
+        this.totalItems = totalItems;
+        this.valor = valor;
+    }
+
+    /** Siguiente version, con el estado actual de {@code p} (alta o cambio). */
+    Instantanea con(Producto p) {
+        Version nueva = Version.de(p);
+        Version vieja = porCodigo.buscar(nueva.codigo());
+        ArbolPersistente<ClaveStock, Version> stock = porStock;
+        long items = totalItems;
+        Valor v = valor;
+        if (vieja != null) {
+            stock = stock.sin(new ClaveStock(vieja.stock(), vieja.codigo()));
+            items -= vieja.stock();
+            v = v.mas(vieja.precioCentavos(), -vieja.stock());
+        }
+        items += nueva.stock();
+        v = v.mas(nueva.precioCentavos(), nueva.stock());
+        stock = stock.con(new ClaveStock(nueva.stock(), nueva.codigo()), nueva);
+        return new Instantanea(numero + 1, porCodigo.con(nueva.codigo(), nueva), stock, items, v);
+    }
+
+    /** Siguiente version, sin el producto {@code codigo}. */
+    Instantanea sin(String codigo) {
+        Version vieja = porCodigo.buscar(codigo);
+        if (vieja == null) return this;
+        return new Instantanea(numero + 1, porCodigo.sin(codigo), porStock.sin(new ClaveStock(vieja.stock(), codigo)),
+            totalItems - vieja.stock(), valor.mas(vieja.precioCentavos(), -vieja.stock()));
+    }
+
+    /** Cantidad de cambios aplicados desde que se habilitaron las instantaneas; crece con cada version. */
+    public long getNumero() {
+        return numero;
+    }
+
+    public int size() {
+        return porCodigo.tamano();
+    }
+
+    public Optional<Producto> buscarPorId(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return Optional.empty();
+        }
+        Version v = porCodigo.buscar(codigo);
+        return v == null ? Optional.empty() : Optional.of(v.aProducto());
+    }
+
+    /** Todos los productos en orden de codigo. */
+    public List<Producto> listarTodos() {
+        List<Producto> res = new ArrayList<>(size());
+        for (Iterator<Version> it = porCodigo.desde(null); it.hasNext(); ) {
+            res.add(it.next().aProducto());
+        }
+        return res;
+    }
+
+    /** Como {@link Inventario#listarPagina}, pero todas las paginas salen de esta misma version. */
+    public PaginaProductos listarPagina(String despuesDe, int limite) {
+        if (limite < 1) {
+            throw new ValidacionException("El limite de la pagina debe ser > 0.");
+        }
+        Iterator<Version> it = porCodigo.desde(despuesDe == null || despuesDe.isEmpty() ? null : despuesDe);
+        List<Producto> pagina = new ArrayList<>(Math.min(limite, 256));
+        while (it.hasNext() && pagina.size() <= limite) {
+            Version v = it.next();
+            if (v.codigo().equals(despuesDe)) continue;
+            pagina.add(v.aProducto());
+        }
+        if (pagina.size() <= limite) return new PaginaProductos(pagina, null);
+        pagina.remove(limite);
+        return new PaginaProductos(pagina, pagina.get(limite - 1).getCodigo());
+    }
+
+    /** Los n de mayor stock; los empates salen por codigo ascendente. */
+    public List<Producto> topPorStock(int n) {
+        List<Producto> res = new ArrayList<>(Math.min(Math.max(n, 0), 64));
+        ClaveStock ultima = porStock.ultima();
+        while (ultima != null && res.size() < n) {
+            int s = ultima.stock();
+            // Recorre el bloque de un mismo stock en orden de codigo
+            for (Iterator<Version> it = porStock.desde(new ClaveStock(s, "")); it.hasNext() && res.size() < n; ) {
+                Version v = it.next();
+                if (v.stock() != s) break;
+                res.add(v.aProducto());
+            }
+            ultima = porStock.anterior(new ClaveStock(s, ""));
+        }
+        return res;
+    }
+
+    /** Los de stock estrictamente menor que el umbral, de menor a mayor. */
+    public List<Producto> bajoUmbral(int umbral) {
+        List<Producto> res = new ArrayList<>();
+        for (Iterator<Version> it = porStock.desde(null); it.hasNext(); ) {
+            Version v = it.next();
+            if (v.stock() >= umbral) break;
+            res.add(v.aProducto());
+        }
+        return res;
+    }
+
+    /** Mismo resumen que {@link Inventario#generarResumen}, con totales y listas de esta version. */
+    public ResumenInventario generarResumen(int topN, int umbralBajo) {
+        final int n = (topN < 1) ? 3 : topN;
+        final int u = Math.max(0, umbralBajo);
+        return new ResumenInventario(size(), totalItems, getValorTotal(), topPorStock(n), u <= 0 ? List.of() : bajoUmbral(u));
+    }
+
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public BigDecimal getValorTotal() {
+        if (valor.excedente().signum() == 0) return BigDecimal.valueOf(valor.centavos(), 2);
+        return new BigDecimal(valor.total(), 2);
+    }
+
+    /** True si el valor total de esta version no cabe en un long de centavos. */
+    boolean isDesbordado() {
+        return valor.excedente().signum() != 0;
+    }
+}
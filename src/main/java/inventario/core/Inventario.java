@@ -1,23 +1,101 @@
 package inventario.core;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import inventario.dto.EstadisticasCache;
+import inventario.dto.PaginaProductos;
+import inventario.dto.ReporteMetricas;
 import inventario.dto.ResumenInventario;
 import inventario.excepciones.ProductoNoEncontradoException;
 import inventario.excepciones.ValidacionException;
+import inventario.modelo.ObservadorProducto;
 import inventario.modelo.Producto;
 
 public class Inventario {
-    private final Map<String, Producto> productos = new HashMap<>();
+    /** Bodega a la que van los cambios de stock que no nombran una (ver {@link #habilitarBodegas()}). */
+    public static final String BODEGA_PRINCIPAL = "PRINCIPAL";
+
+    private static final Comparator<Producto> POR_NOMBRE = Comparator.comparing(Producto::getNombre);
+
+    private final ModoInventario modo;
+    private final Map<String, Producto> productos;
+    private final BloqueosPorCodigo bloqueos;
+    private final IndiceTrigramas indiceNombre = new IndiceTrigramas();
+    private final IndiceTrigramas indiceDescripcion = new IndiceTrigramas();
+    private final IndicePrefijos indicePrefijos;
+    private final Agregados agregados = new Agregados();
+    private final IndiceStock indiceStock;
+    // Mismos productos ordenados por codigo, para listar y paginar sin ordenar todo el mapa
+    private final NavigableMap<String, Producto> porCodigo;
+    private final ObservadorProducto observador = new ObservadorIndices();
+    private final List<ObservadorInventario> observadores = new CopyOnWriteArrayList<>();
+    // Tras una carga masiva los indices de texto se completan en la primera busqueda
+    private volatile boolean indiceTextoPendiente;
+    // null mientras las metricas esten deshabilitadas: cada operacion solo paga una lectura volatil
+    private volatile MetricasInventario metricas;
+    // Se incrementa con cada cambio visible (altas, bajas y cambios de campos por cualquier via)
+    private final AtomicLong version = new AtomicLong();
+    private volatile CacheVistas cache;
+    // null mientras no se habilite el paralelismo: los recorridos se hacen en el hilo que llama
+    private volatile EjecucionParalela paralelo;
+    // null mientras no se habiliten las instantaneas: las escrituras no copian versiones
+    private volatile RegistroInstantaneas instantaneas;
+    // null mientras no se habiliten las bodegas: el stock es solo el total de cada producto
+    private volatile ExistenciasBodegas bodegas;
+
+    public Inventario() {
+        this(ModoInventario.SECUENCIAL);
+    }
+
+    /**
+     * En modo CONCURRENTE la instancia puede compartirse entre hilos: las escrituras sobre un mismo
+     * codigo se serializan y las de codigos distintos avanzan en paralelo. Los productos deben
+     * modificarse a traves del inventario (actualizarProducto, aumentarStock, disminuirStock).
+     */
+    public Inventario(ModoInventario modo) {
+        if (modo == null) {
+            throw new ValidacionException("El modo no puede ser null.");
+        }
+        this.modo = modo;
+        this.productos = (modo == ModoInventario.CONCURRENTE) ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.bloqueos = BloqueosPorCodigo.para(modo);
+        this.indiceStock = new IndiceStock(modo);
+        this.indicePrefijos = new IndicePrefijos(modo);
+        this.porCodigo = (modo == ModoInventario.CONCURRENTE) ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
 
     public void agregarProducto(Producto producto) {
+        MetricasInventario m = metricas;
+        if (m == null) {
+            agregarProductoInterno(producto);
+        } else {
+            m.medir(Operacion.AGREGAR_PRODUCTO, () -> agregarProductoInterno(producto));
+        }
+    }
+
+    private void agregarProductoInterno(Producto producto) {
         if (producto == null) {
             throw new ValidacionException("El producto no puede ser null.");
         }
@@ -25,25 +103,332 @@ public class Inventario {
         if (codigo == null || codigo.isBlank()) {
             throw new ValidacionException("Codigo invalido.");
         }
-        if (productos.containsKey(codigo)) {
-            throw new ValidacionException("Ya esiste un producto con el codigo " + codigo);
+        bloqueos.bloquear(codigo);
+        try {
+            if (productos.containsKey(codigo)) {
+                throw new ValidacionException("Ya esiste un producto con el codigo " + codigo);
+            }
+            for (ObservadorInventario o : observadores) {
+                o.antesDeAgregar(producto);
+            }
+            productos.put(codigo, producto);
+            indexar(producto);
+            for (ObservadorInventario o : observadores) {
+                o.productoAgregado(producto);
+            }
+        } finally {
+            bloqueos.liberar(codigo);
+        }
+    }
+
+    /**
+     * Carga masiva: valida todo el lote (null, codigos repetidos en el lote o ya existentes) antes
+     * de insertar nada, y deja los indices de texto para la primera busqueda.
+     */
+    public void agregarProductos(Collection<Producto> nuevos) {
+        MetricasInventario m = metricas;
+        if (m == null) {
+            agregarProductosInterno(nuevos);
+        } else {
+            m.medir(Operacion.AGREGAR_PRODUCTOS, () -> agregarProductosInterno(nuevos));
+        }
+    }
+
+    private void agregarProductosInterno(Collection<Producto> nuevos) {
+        if (nuevos == null) {
+            throw new ValidacionException("La lista de productos no puede ser null.");
+        }
+        Set<String> codigos = new HashSet<>(nuevos.size() * 4 / 3 + 1);
+        for (Producto p : nuevos) {
+            if (p == null) {
+                throw new ValidacionException("El producto no puede ser null.");
+            }
+            if (!codigos.add(p.getCodigo())) {
+                throw new ValidacionException("Ya esiste un producto con el codigo " + p.getCodigo());
+            }
+        }
+        // Con los bloqueos de todo el lote nadie puede insertar uno de sus codigos entre la
+        // validacion y la insercion: o entra el lote entero o no entra nada
+        int[] tomadas = bloqueos.bloquearTodos(codigos);
+        try {
+            for (String codigo : codigos) {
+                if (productos.containsKey(codigo)) {
+                    throw new ValidacionException("Ya esiste un producto con el codigo " + codigo);
+                }
+            }
+            for (Producto p : nuevos) {
+                verificarCambio(p);
+            }
+            // Los avisos de todo el lote antes de insertar: si uno rechaza, no entra ninguno
+            for (Producto p : nuevos) {
+                for (ObservadorInventario o : observadores) {
+                    o.antesDeAgregar(p);
+                }
+            }
+            indiceTextoPendiente = true;
+            try {
+                for (Producto p : nuevos) {
+                    productos.put(p.getCodigo(), p);
+                    indexarSinTexto(p);
+                    for (ObservadorInventario o : observadores) {
+                        o.productoAgregado(p);
+                    }
+                }
+            } finally {
+                // De nuevo al terminar: una reconstruccion que empezo durante la carga pudo bajarlo
+                // sin ver los ultimos productos
+                indiceTextoPendiente = true;
+            }
+        } finally {
+            bloqueos.liberarTodos(tomadas);
         }
-        productos.put(codigo, producto);
     }
 
     public boolean eliminarProducto(String codigo) {
+        MetricasInventario m = metricas;
+        return m == null ? eliminarProductoInterno(codigo) : m.medir(Operacion.ELIMINAR_PRODUCTO, () -> eliminarProductoInterno(codigo));
+    }
+
+    private boolean eliminarProductoInterno(String codigo) {
         if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
-        return productos.remove(codigo) != null;
+        bloqueos.bloquear(codigo);
+        try {
+            Producto p = productos.get(codigo);
+            if (p == null) return false;
+            for (ObservadorInventario o : observadores) {
+                o.antesDeEliminar(p);
+            }
+            productos.remove(codigo);
+            desindexar(p);
+            for (ObservadorInventario o : observadores) {
+                o.productoEliminado(p);
+            }
+            return true;
+        } finally {
+            bloqueos.liberar(codigo);
+        }
     }
 
     public void actualizarProducto(String codigo, Consumer<Producto> cambios) {
+        MetricasInventario m = metricas;
+        if (m == null) {
+            actualizarProductoInterno(codigo, cambios);
+        } else {
+            m.medir(Operacion.ACTUALIZAR_PRODUCTO, () -> actualizarProductoInterno(codigo, cambios));
+        }
+    }
+
+    private void actualizarProductoInterno(String codigo, Consumer<Producto> cambios) {
         if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
-        Producto p = productos.get(codigo);
-        if (p == null) throw new ProductoNoEncontradoException(codigo);
-        cambios.accept(p);
+        bloqueos.bloquear(codigo);
+        try {
+            Producto p = productos.get(codigo);
+            if (p == null) throw new ProductoNoEncontradoException(codigo);
+            cambios.accept(p);
+        } finally {
+            bloqueos.liberar(codigo);
+        }
+    }
+
+    public void aumentarStock(String codigo, int cantidad) {
+        MetricasInventario m = metricas;
+        if (m == null) {
+            actualizarProductoInterno(codigo, p -> p.aumentarStock(cantidad));
+        } else {
+            m.medir(Operacion.AUMENTAR_STOCK, () -> actualizarProductoInterno(codigo, p -> p.aumentarStock(cantidad)));
+        }
+    }
+
+    public void disminuirStock(String codigo, int cantidad) {
+        MetricasInventario m = metricas;
+        if (m == null) {
+            actualizarProductoInterno(codigo, p -> p.disminuirStock(cantidad));
+        } else {
+            m.medir(Operacion.DISMINUIR_STOCK, () -> actualizarProductoInterno(codigo, p -> p.disminuirStock(cantidad)));
+        }
+    }
+
+    /**
+     * Descuenta {@code cantidad} si alcanza el stock; devuelve false sin lanzar si no alcanza.
+     * Lanza ProductoNoEncontradoException si el codigo no existe.
+     *
+     * Toma el bloqueo del codigo y el monitor del producto: los indices, totales y observadores
+     * necesitan los avisos de un mismo producto en orden, asi que las reservas sobre un SKU se
+     * serializan. El CAS de Producto solo evita locks en un producto fuera de un inventario.
+     */
+    public boolean tryReservar(String codigo, int cantidad) {
+        MetricasInventario m = metricas;
+        return m == null ? tryReservarInterno(codigo, cantidad)
+            : m.medir(Operacion.RESERVAR_STOCK, () -> tryReservarInterno(codigo, cantidad));
+    }
+
+    private boolean tryReservarInterno(String codigo, int cantidad) {
+        if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
+        bloqueos.bloquear(codigo);
+        try {
+            Producto p = productos.get(codigo);
+            if (p == null) throw new ProductoNoEncontradoException(codigo);
+            return p.tryReservar(cantidad);
+        } finally {
+            bloqueos.liberar(codigo);
+        }
+    }
+
+    /** Suma {@code cantidad} al stock del producto en {@code bodega} (y a su total). */
+    public void aumentarStock(String codigo, String bodega, int cantidad) {
+        ExistenciasBodegas b = bodegas();
+        MetricasInventario m = metricas;
+        if (m == null) {
+            actualizarProductoInterno(codigo, p -> b.aumentar(p, bodega, cantidad));
+        } else {
+            m.medir(Operacion.AUMENTAR_STOCK, () -> actualizarProductoInterno(codigo, p -> b.aumentar(p, bodega, cantidad)));
+        }
+    }
+
+    /** Descuenta {@code cantidad} del stock en {@code bodega}; lanza ValidacionException si ahi no alcanza. */
+    public void disminuirStock(String codigo, String bodega, int cantidad) {
+        ExistenciasBodegas b = bodegas();
+        MetricasInventario m = metricas;
+        if (m == null) {
+            actualizarProductoInterno(codigo, p -> b.disminuir(p, bodega, cantidad));
+        } else {
+            m.medir(Operacion.DISMINUIR_STOCK, () -> actualizarProductoInterno(codigo, p -> b.disminuir(p, bodega, cantidad)));
+        }
+    }
+
+    /**
+     * Mueve {@code cantidad} unidades de una bodega a otra bajo el bloqueo del codigo: se aplica
+     * entera o, si en el origen no alcanza, no se aplica. El total del producto no cambia.
+     */
+    public void transferirStock(String codigo, String origen, String destino, int cantidad) {
+        ExistenciasBodegas b = bodegas();
+        MetricasInventario m = metricas;
+        if (m == null) {
+            transferirStockInterno(b, codigo, origen, destino, cantidad);
+        } else {
+            m.medir(Operacion.TRANSFERIR_STOCK, () -> transferirStockInterno(b, codigo, origen, destino, cantidad));
+        }
+    }
+
+    private void transferirStockInterno(ExistenciasBodegas b, String codigo, String origen, String destino, int cantidad) {
+        actualizarProductoInterno(codigo, p -> {
+            verificarCambio(p);
+            b.transferir(p, origen, destino, cantidad);
+            version.incrementAndGet();
+            for (ObservadorInventario o : observadores) {
+                o.stockTransferido(p, origen, destino, cantidad);
+            }
+        });
+    }
+
+    /** Stock del producto en la bodega; 0 si nunca tuvo stock ahi. */
+    public int stockEnBodega(String codigo, String bodega) {
+        ExistenciasBodegas b = bodegas();
+        return conProducto(codigo, p -> b.stockEn(p, bodega));
+    }
+
+    /** Stock del producto en cada bodega donde estuvo, en orden de alta de las bodegas. Suma su total. */
+    public Map<String, Integer> stockPorBodega(String codigo) {
+        ExistenciasBodegas b = bodegas();
+        return conProducto(codigo, b::stockPorBodega);
+    }
+
+    // Lee bajo el bloqueo del codigo, para no ver a medias un cambio en curso
+    private <T> T conProducto(String codigo, Function<Producto, T> lectura) {
+        if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
+        bloqueos.bloquear(codigo);
+        try {
+            Producto p = productos.get(codigo);
+            if (p == null) throw new ProductoNoEncontradoException(codigo);
+            return lectura.apply(p);
+        } finally {
+            bloqueos.liberar(codigo);
+        }
+    }
+
+    /**
+     * Aplica un lote de movimientos de stock en una pasada, en el orden del lote, y devuelve el
+     * resultado de cada linea en vez de lanzar. Cada producto se actualiza una sola vez con su
+     * stock final, asi que indices, totales y observadores ven un cambio por producto y no uno por
+     * linea. En modo CONCURRENTE se toman los bloqueos de todos los codigos del lote.
+     */
+    public ResultadoMovimiento[] aplicarMovimientos(LoteMovimientos lote, ModoLote modo) {
+        MetricasInventario m = metricas;
+        return m == null ? aplicarMovimientosInterno(lote, modo) : m.medir(Operacion.APLICAR_MOVIMIENTOS, () -> aplicarMovimientosInterno(lote, modo));
+    }
+
+    private ResultadoMovimiento[] aplicarMovimientosInterno(LoteMovimientos lote, ModoLote modo) {
+        if (lote == null || modo == null) {
+            throw new ValidacionException("Lote y modo son obligatorios.");
+        }
+        int n = lote.size();
+        ResultadoMovimiento[] res = new ResultadoMovimiento[n];
+        Map<String, Cuenta> cuentas = new LinkedHashMap<>();
+        int[] tomadas = bloqueos.bloquearTodos(lote);
+        try {
+            boolean fallo = false;
+            for (int i = 0; i < n; i++) {
+                res[i] = simular(cuentas, lote.codigo(i), lote.delta(i));
+                fallo |= res[i] != ResultadoMovimiento.APLICADO;
+            }
+            if (fallo && modo == ModoLote.TODO_O_NADA) {
+                for (int i = 0; i < n; i++) {
+                    if (res[i] == ResultadoMovimiento.APLICADO) res[i] = ResultadoMovimiento.REVERTIDO;
+                }
+                return res;
+            }
+            for (Cuenta c : cuentas.values()) {
+                if (c.stock != c.producto.getStock()) verificarCambio(c.producto);
+            }
+            // Todo el lote sale en una sola version de las instantaneas
+            RegistroInstantaneas r = instantaneas;
+            if (r != null) r.iniciarLote();
+            try {
+                for (Cuenta c : cuentas.values()) {
+                    if (c.stock != c.producto.getStock()) c.producto.setStock(c.stock);
+                }
+            } finally {
+                if (r != null) r.terminarLote();
+            }
+            return res;
+        } finally {
+            bloqueos.liberarTodos(tomadas);
+        }
+    }
+
+    private ResultadoMovimiento simular(Map<String, Cuenta> cuentas, String codigo, int delta) {
+        if (delta == 0) return ResultadoMovimiento.CANTIDAD_INVALIDA;
+        Cuenta c = cuentas.get(codigo);
+        if (c == null) {
+            Producto p = productos.get(codigo);
+            if (p == null) return ResultadoMovimiento.NO_ENCONTRADO;
+            c = new Cuenta(p);
+            cuentas.put(codigo, c);
+        }
+        long nuevo = (long) c.stock + delta;
+        if (nuevo < 0) return ResultadoMovimiento.STOCK_INSUFICIENTE;
+        if (nuevo > Integer.MAX_VALUE) return ResultadoMovimiento.CANTIDAD_INVALIDA;
+        c.stock = (int) nuevo;
+        return ResultadoMovimiento.APLICADO;
+    }
+
+    // Stock en curso de un producto mientras se recorre un lote
+    private static class Cuenta {
+        final Producto producto;
+        int stock;
+
+        Cuenta(Producto producto) {
+            this.producto = producto;
+            this.stock = producto.getStock();
+        }
     }
 
     public Optional<Producto> buscarPorId(String codigo) {
+        MetricasInventario m = metricas;
+        return m == null ? buscarPorIdInterno(codigo) : m.medir(Operacion.BUSCAR_POR_ID, () -> buscarPorIdInterno(codigo));
+    }
+
+    private Optional<Producto> buscarPorIdInterno(String codigo) {
         if (codigo == null || codigo.isBlank()) {
             return Optional.empty();
         } 
@@ -51,49 +436,216 @@ public class Inventario {
     }
 
     public List<Producto> buscarPorNombre(String nombreParcial) {
+        MetricasInventario m = metricas;
+        return m == null ? buscarPorNombreInterno(nombreParcial) : m.medir(Operacion.BUSCAR_POR_NOMBRE, () -> buscarPorNombreInterno(nombreParcial));
+    }
+
+    private List<Producto> buscarPorNombreInterno(String nombreParcial) {
         if (nombreParcial == null || nombreParcial.isBlank()) {
             return List.of();
         }
-        String needle = nombreParcial.toLowerCase(Locale.ROOT);
-        return productos.values().stream().filter(p -> p.getNombre().toLowerCase(Locale.ROOT).contains(needle))
-                .sorted(Comparator.comparing(Producto::getNombre)).toList();
+        String needle = IndiceTrigramas.plegar(nombreParcial);
+        return enCache(new ClaveConsulta("nombre", needle), () -> {
+            asegurarIndiceTexto();
+            EjecucionParalela par = paralelo;
+            return ordenar(par, indiceNombre.buscar(needle, par), POR_NOMBRE);
+        });
     }
 
     public List<Producto> buscarPorTexto(String texto) {
+        MetricasInventario m = metricas;
+        return m == null ? buscarPorTextoInterno(texto) : m.medir(Operacion.BUSCAR_POR_TEXTO, () -> buscarPorTextoInterno(texto));
+    }
+
+    private List<Producto> buscarPorTextoInterno(String texto) {
         if (texto == null || texto.isBlank()) {
             return List.of();
         }
-        String needle = texto.toLowerCase(Locale.ROOT);
-        return productos.values().stream().filter(p -> p.getNombre().toLowerCase(Locale.ROOT).contains(needle)
-                || p.getDescripcion().toLowerCase(Locale.ROOT).contains(needle)).sorted(Comparator.comparing(Producto::getNombre))
-                .toList();
+        String needle = IndiceTrigramas.plegar(texto);
+        return enCache(new ClaveConsulta("texto", needle), () -> {
+            asegurarIndiceTexto();
+            EjecucionParalela par = paralelo;
+            Set<Producto> encontrados = new LinkedHashSet<>(indiceNombre.buscar(needle, par));
+            encontrados.addAll(indiceDescripcion.buscar(needle, par));
+            return ordenar(par, encontrados, POR_NOMBRE);
+        });
+    }
+
+    /**
+     * Hasta k productos cuyo nombre empieza con {@code prefijo}, sin distinguir mayusculas,
+     * ordenados por nombre. Cuesta O(log n + k), pensado para buscar mientras se escribe.
+     */
+    public List<Producto> autocompletar(String prefijo, int k) {
+        MetricasInventario m = metricas;
+        return m == null ? autocompletarInterno(prefijo, k)
+            : m.medir(Operacion.AUTOCOMPLETAR, () -> autocompletarInterno(prefijo, k));
+    }
+
+    private List<Producto> autocompletarInterno(String prefijo, int k) {
+        if (prefijo == null || prefijo.isBlank() || k < 1) {
+            return List.of();
+        }
+        asegurarIndiceTexto();
+        return indicePrefijos.conPrefijo(IndiceTrigramas.plegar(prefijo.stripLeading()), k);
     }
 
     public List<Producto> listarTodos() {
-        return productos.values().stream().sorted(Comparator.comparing(Producto::getCodigo)).toList();
+        MetricasInventario m = metricas;
+        return m == null ? listarTodosInterno() : m.medir(Operacion.LISTAR_TODOS, () -> listarTodosInterno());
+    }
+
+    private List<Producto> listarTodosInterno() {
+        return enCache(new ClaveConsulta("todos", null), () -> List.copyOf(porCodigo.values()));
+    }
+
+    /**
+     * Hasta {@code limite} productos en orden de codigo, a partir del primero mayor que
+     * {@code despuesDe} (null o vacio para empezar desde el principio). Cuesta O(log n + limite).
+     */
+    public PaginaProductos listarPagina(String despuesDe, int limite) {
+        MetricasInventario m = metricas;
+        return m == null ? listarPaginaInterno(despuesDe, limite)
+            : m.medir(Operacion.LISTAR_PAGINA, () -> listarPaginaInterno(despuesDe, limite));
+    }
+
+    private PaginaProductos listarPaginaInterno(String despuesDe, int limite) {
+        if (limite < 1) {
+            throw new ValidacionException("El limite de la pagina debe ser > 0.");
+        }
+        List<Producto> pagina = new ArrayList<>(Math.min(limite, 256));
+        String siguiente = null;
+        for (Producto p : desde(despuesDe).values()) {
+            if (pagina.size() == limite) {
+                siguiente = pagina.get(limite - 1).getCodigo();
+                break;
+            }
+            pagina.add(p);
+        }
+        return new PaginaProductos(pagina, siguiente);
+    }
+
+    /**
+     * Recorrido perezoso en orden de codigo, sin copiar la coleccion. En modo CONCURRENTE es
+     * debilmente consistente; en modo SECUENCIAL no debe modificarse el inventario mientras se consume.
+     */
+    public Stream<Producto> recorrerPorCodigo(String despuesDe) {
+        return desde(despuesDe).values().stream();
+    }
+
+    private NavigableMap<String, Producto> desde(String despuesDe) {
+        return (despuesDe == null || despuesDe.isEmpty()) ? porCodigo : porCodigo.tailMap(despuesDe, false);
     }
 
     public List<Producto> listarOrdenado(Comparator<Producto> cmp) {
-        return productos.values().stream().sorted(cmp).toList();
+        MetricasInventario m = metricas;
+        return m == null ? listarOrdenadoInterno(cmp) : m.medir(Operacion.LISTAR_ORDENADO, () -> listarOrdenadoInterno(cmp));
+    }
+
+    // El comparador se compara por identidad: conviene reutilizar la misma instancia (una constante)
+    private List<Producto> listarOrdenadoInterno(Comparator<Producto> cmp) {
+        return enCache(new ClaveConsulta("orden", cmp), () -> ordenar(paralelo, productos.values(), cmp));
+    }
+
+    private static <T> List<T> ordenar(EjecucionParalela par, Collection<T> fuente, Comparator<? super T> cmp) {
+        return par == null ? fuente.stream().sorted(cmp).toList() : par.ordenar(fuente, cmp);
+    }
+
+    private List<Producto> enCache(ClaveConsulta clave, Supplier<List<Producto>> calcular) {
+        CacheVistas c = cache;
+        if (c == null) return calcular.get();
+        // La version se lee antes de calcular: si algo cambia en el medio la entrada nace vieja
+        long v = version.get();
+        List<Producto> res = c.buscar(clave, v);
+        if (res == null) {
+            res = calcular.get();
+            c.guardar(clave, v, res);
+        }
+        return res;
+    }
+
+    private record ClaveConsulta(String tipo, Object valor) {
     }
 
     public ResumenInventario generarResumen(int topN, int umbralBajo) {
+        MetricasInventario m = metricas;
+        return m == null ? generarResumenInterno(topN, umbralBajo) : m.medir(Operacion.GENERAR_RESUMEN, () -> generarResumenInterno(topN, umbralBajo));
+    }
+
+    private ResumenInventario generarResumenInterno(int topN, int umbralBajo) {
+        RegistroInstantaneas r = instantaneas;
+        if (r != null) return r.actual().generarResumen(topN, umbralBajo);
         final int n = (topN < 1) ? 3 : topN;
         final int u = Math.max(0, umbralBajo);
 
         int cant = productos.size();
-        long totalItems = productos.values().stream().mapToLong(Producto::getStock).sum();
+        long totalItems = agregados.getTotalItems();
+        BigDecimal valorTotal = agregados.getValorTotal();
+
+        List<Producto> top = topPorStock(n);
+        List<Producto> bajos = bajoUmbral(u);
+
+        return new ResumenInventario(cant, totalItems, valorTotal, top, bajos);
+    }
+
+    /**
+     * Resumen de una bodega: productos que estuvieron en ella, sus unidades y valor ahi, y top y
+     * stock bajo segun el stock en esa bodega. Los productos de las listas son copias con el
+     * stock de la bodega en vez del total.
+     */
+    public ResumenInventario generarResumen(String bodega, int topN, int umbralBajo) {
+        ExistenciasBodegas b = bodegas();
+        final int n = (topN < 1) ? 3 : topN;
+        final int u = Math.max(0, umbralBajo);
+        MetricasInventario m = metricas;
+        return m == null ? b.resumen(bodega, n, u) : m.medir(Operacion.GENERAR_RESUMEN, () -> b.resumen(bodega, n, u));
+    }
 
-        BigDecimal valorTotal = productos.values().stream().map(p -> p.getPrecio().multiply(BigDecimal.valueOf(p.getStock())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /** Los n de mayor stock en la bodega, como copias con el stock de esa bodega. */
+    public List<Producto> topPorStock(String bodega, int n) {
+        ExistenciasBodegas b = bodegas();
+        if (n < 1) {
+            return List.of();
+        }
+        MetricasInventario m = metricas;
+        return m == null ? b.mayores(bodega, n) : m.medir(Operacion.TOP_POR_STOCK, () -> b.mayores(bodega, n));
+    }
 
-        List<Producto> top = productos.values().stream().sorted(Comparator.comparingInt(Producto::getStock)
-            .reversed()).limit(n).toList();
+    /** Los de stock menor que el umbral en la bodega, como copias con el stock de esa bodega. */
+    public List<Producto> bajoUmbral(String bodega, int umbral) {
+        ExistenciasBodegas b = bodegas();
+        if (umbral <= 0) {
+            return List.of();
+        }
+        MetricasInventario m = metricas;
+        return m == null ? b.menoresQue(bodega, umbral) : m.medir(Operacion.BAJO_UMBRAL, () -> b.menoresQue(bodega, umbral));
+    }
 
-        List<Producto> bajos = productos.values().stream().filter(p -> p.getStock() < u).sorted(Comparator.comparingInt(Producto::getStock))
-            .toList();
+    public List<Producto> topPorStock(int n) {
+        MetricasInventario m = metricas;
+        return m == null ? topPorStockInterno(n) : m.medir(Operacion.TOP_POR_STOCK, () -> topPorStockInterno(n));
+    }
 
-        return new ResumenInventario(cant, totalItems, valorTotal, top, bajos);
+    private List<Producto> topPorStockInterno(int n) {
+        if (n < 1) {
+            return List.of();
+        }
+        return indiceStock.mayores(n);
+    }
+
+    public List<Producto> bajoUmbral(int umbral) {
+        MetricasInventario m = metricas;
+        return m == null ? bajoUmbralInterno(umbral) : m.medir(Operacion.BAJO_UMBRAL, () -> bajoUmbralInterno(umbral));
+    }
+
+    private List<Producto> bajoUmbralInterno(int umbral) {
+        if (umbral <= 0) {
+            return List.of();
+        }
+        return indiceStock.menoresQue(umbral);
+    }
+
+    public ModoInventario getModo() {
+        return modo;
     }
 
     public int size() { 
@@ -103,4 +655,342 @@ public class Inventario {
     public boolean contiene(String codigo) { 
         return productos.containsKey(codigo); 
     }
+
+    public void agregarObservador(ObservadorInventario o) {
+        if (o == null) {
+            throw new ValidacionException("El observador no puede ser null.");
+        }
+        observadores.add(o);
+    }
+
+    public void quitarObservador(ObservadorInventario o) {
+        observadores.remove(o);
+    }
+
+    /** Contador de modificaciones: si no cambio entre dos lecturas, el inventario tampoco. */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Guarda hasta {@code capacidad} resultados de listarTodos, listarOrdenado, buscarPorNombre y
+     * buscarPorTexto, descartando el menos usado. Un resultado se reutiliza mientras no haya
+     * cambios en el inventario. Reemplaza una cache anterior.
+     */
+    public synchronized void habilitarCache(int capacidad) {
+        if (capacidad < 1) {
+            throw new ValidacionException("La capacidad de la cache debe ser > 0.");
+        }
+        cache = new CacheVistas(capacidad);
+    }
+
+    public synchronized void deshabilitarCache() {
+        cache = null;
+    }
+
+    /** Aciertos, fallos y desalojos de la cache; todo en cero si esta deshabilitada. */
+    public EstadisticasCache estadisticasCache() {
+        CacheVistas c = cache;
+        return c == null ? new EstadisticasCache(0, 0, 0, 0, 0) : c.estadisticas();
+    }
+
+    /**
+     * Reparte en {@code pool} los recorridos de listarOrdenado, buscarPorNombre y buscarPorTexto
+     * cuando abarcan al menos {@code umbral} productos. Los resultados
+     * son los mismos que sin paralelismo, incluido el orden de los empates. Reemplaza una
+     * configuracion anterior; el pool no se cierra al deshabilitar.
+     */
+    public synchronized void habilitarParalelismo(ForkJoinPool pool, int umbral) {
+        if (pool == null) {
+            throw new ValidacionException("El pool no puede ser null.");
+        }
+        if (umbral < 1) {
+            throw new ValidacionException("El umbral de paralelismo debe ser > 0.");
+        }
+        paralelo = new EjecucionParalela(pool, umbral);
+    }
+
+    public synchronized void deshabilitarParalelismo() {
+        paralelo = null;
+    }
+
+    public boolean paralelismoHabilitado() {
+        return paralelo != null;
+    }
+
+    /**
+     * Empieza a mantener versiones inmutables del inventario para {@link #snapshot()}. Desde aca
+     * cada escritura paga ademas O(log n) por la nueva version, y generarResumen sale entero de
+     * una misma version. No hace nada si ya estaban habilitadas.
+     */
+    public synchronized void habilitarInstantaneas() {
+        if (instantaneas != null) return;
+        RegistroInstantaneas r = new RegistroInstantaneas();
+        // La primera version se arma con todas las franjas tomadas y recien entonces se publica:
+        // ni snapshot() ni generarResumen llegan a ver un inventario a medio cargar
+        int[] tomadas = bloqueos.bloquearTodas();
+        try {
+            r.iniciarLote();
+            try {
+                for (Producto p : productos.values()) {
+                    r.poner(p);
+                }
+            } finally {
+                r.terminarLote();
+            }
+            instantaneas = r;
+        } finally {
+            bloqueos.liberarTodos(tomadas);
+        }
+    }
+
+    /** Las instantaneas ya tomadas siguen siendo validas. */
+    public synchronized void deshabilitarInstantaneas() {
+        instantaneas = null;
+    }
+
+    public boolean instantaneasHabilitadas() {
+        return instantaneas != null;
+    }
+
+    /**
+     * Version actual del inventario, en O(1) y sin bloquear a nadie. Sus consultas ven siempre
+     * esa version aunque el inventario siga cambiando.
+     *
+     * @throws ValidacionException si las instantaneas no estan habilitadas
+     */
+    public Instantanea snapshot() {
+        RegistroInstantaneas r = instantaneas;
+        if (r == null) {
+            throw new ValidacionException("Las instantaneas no estan habilitadas.");
+        }
+        return r.actual();
+    }
+
+    /**
+     * Agrega la dimension de bodegas: el stock de cada producto queda repartido entre bodegas y
+     * su total sigue siendo getStock(). Al habilitar, todo el stock existente queda en
+     * {@link #BODEGA_PRINCIPAL}, igual que los cambios de stock que no nombran bodega; si una baja
+     * sin bodega no alcanza con la principal, el resto sale de las demas en orden de alta.
+     * No hace nada si ya estaban habilitadas.
+     *
+     * El reparto vive solo en memoria: el registro de mutaciones guarda los totales por producto,
+     * no las bodegas ni las transferencias, asi que al reproducirlo todo el stock vuelve a quedar
+     * en la principal.
+     */
+    public synchronized void habilitarBodegas() {
+        if (bodegas != null) return;
+        ExistenciasBodegas b = new ExistenciasBodegas(modo, BODEGA_PRINCIPAL);
+        // Se publica antes de recorrer: los cambios que lleguen durante el recorrido ya lo actualizan
+        bodegas = b;
+        for (Producto p : productos.values()) {
+            bloqueos.bloquear(p.getCodigo());
+            try {
+                if (productos.get(p.getCodigo()) == p) b.agregar(p);
+            } finally {
+                bloqueos.liberar(p.getCodigo());
+            }
+        }
+    }
+
+    /** Descarta el reparto por bodega y las bodegas registradas; los totales no cambian. */
+    public synchronized void deshabilitarBodegas() {
+        bodegas = null;
+    }
+
+    public boolean bodegasHabilitadas() {
+        return bodegas != null;
+    }
+
+    /** Devuelve false si ya estaba registrada. */
+    public boolean registrarBodega(String nombre) {
+        ExistenciasBodegas b = bodegas();
+        if (nombre == null || nombre.isBlank()) {
+            throw new ValidacionException("El nombre de la bodega no puede estar vacio.");
+        }
+        return b.registrar(nombre.trim());
+    }
+
+    /** Bodegas registradas en orden de alta; la primera es la principal. */
+    public List<String> listarBodegas() {
+        return bodegas().nombres();
+    }
+
+    private ExistenciasBodegas bodegas() {
+        ExistenciasBodegas b = bodegas;
+        if (b == null) {
+            throw new ValidacionException("Las bodegas no estan habilitadas.");
+        }
+        return b;
+    }
+
+    /** Empieza a registrar llamadas, errores y latencias por operacion. No hace nada si ya estaban habilitadas. */
+    public synchronized void habilitarMetricas() {
+        if (metricas == null) metricas = new MetricasInventario();
+    }
+
+    /** Deja de registrar y descarta lo acumulado. */
+    public synchronized void deshabilitarMetricas() {
+        metricas = null;
+    }
+
+    public boolean metricasHabilitadas() {
+        return metricas != null;
+    }
+
+    /** Foto de las metricas acumuladas; vacia si estan deshabilitadas. */
+    public ReporteMetricas reporteMetricas() {
+        MetricasInventario m = metricas;
+        return m == null ? new ReporteMetricas(List.of()) : m.reporte();
+    }
+
+    private void indexar(Producto p) {
+        indiceNombre.agregar(p, p.getNombre());
+        indiceDescripcion.agregar(p, p.getDescripcion());
+        indicePrefijos.agregar(p);
+        indexarSinTexto(p);
+    }
+
+    private void indexarSinTexto(Producto p) {
+        agregados.agregar(p);
+        indiceStock.agregar(p);
+        porCodigo.put(p.getCodigo(), p);
+        version.incrementAndGet();
+        p.agregarObservador(observador);
+        ExistenciasBodegas b = bodegas;
+        if (b != null) b.agregar(p);
+        versionar(p);
+    }
+
+    private void asegurarIndiceTexto() {
+        if (!indiceTextoPendiente) return;
+        synchronized (indiceNombre) {
+            if (!indiceTextoPendiente) return;
+            // Se baja antes de recorrer: una carga que inserte detras del iterador lo vuelve a subir
+            indiceTextoPendiente = false;
+            for (Producto p : productos.values()) {
+                bloqueos.bloquear(p.getCodigo());
+                try {
+                    // Si lo eliminaron mientras recorriamos no hay que indexarlo
+                    if (productos.get(p.getCodigo()) == p) {
+                        indiceNombre.agregarSiFalta(p, p.getNombre());
+                        indiceDescripcion.agregarSiFalta(p, p.getDescripcion());
+                        indicePrefijos.agregar(p);
+                    }
+                } finally {
+                    bloqueos.liberar(p.getCodigo());
+                }
+            }
+        }
+    }
+
+    private void desindexar(Producto p) {
+        p.quitarObservador(observador);
+        indiceNombre.quitar(p);
+        indiceDescripcion.quitar(p);
+        indicePrefijos.quitar(p);
+        indiceStock.quitar(p);
+        porCodigo.remove(p.getCodigo());
+        agregados.quitar(p);
+        ExistenciasBodegas b = bodegas;
+        if (b != null) b.quitar(p);
+        version.incrementAndGet();
+        RegistroInstantaneas r = instantaneas;
+        if (r != null) r.quitar(p.getCodigo());
+    }
+
+    // Un observador que ya no puede seguir los cambios (un registro de mutaciones con error) los
+    // rechaza aca, antes de que se aplique nada de una operacion con varios pasos
+    private void verificarCambio(Producto p) {
+        for (ObservadorInventario o : observadores) {
+            o.antesDeCambiar(p);
+        }
+    }
+
+    private void versionar(Producto p) {
+        RegistroInstantaneas r = instantaneas;
+        if (r != null) r.poner(p);
+    }
+
+    // Mantiene indices y totales al dia cuando se modifica un producto, sea por actualizarProducto o por sus setters
+    private class ObservadorIndices implements ObservadorProducto {
+        @Override
+        public void antesDeCambiar(Producto p) {
+            verificarCambio(p);
+        }
+
+        @Override
+        public void antesDeCambiarNombre(Producto p, String nuevo) {
+            for (ObservadorInventario o : observadores) {
+                o.antesDeCambiarNombre(p, nuevo);
+            }
+        }
+
+        @Override
+        public void antesDeCambiarDescripcion(Producto p, String nueva) {
+            for (ObservadorInventario o : observadores) {
+                o.antesDeCambiarDescripcion(p, nueva);
+            }
+        }
+
+        @Override
+        public void antesDeCambiarPrecio(Producto p, long nuevoCentavos) {
+            for (ObservadorInventario o : observadores) {
+                o.antesDeCambiarPrecio(p, nuevoCentavos);
+            }
+        }
+
+        @Override
+        public void antesDeCambiarStock(Producto p, int anterior, int nuevo) {
+            for (ObservadorInventario o : observadores) {
+                o.antesDeCambiarStock(p, anterior, nuevo);
+            }
+        }
+
+        @Override
+        public void nombreCambiado(Producto p, String anterior) {
+            indiceNombre.actualizar(p, p.getNombre());
+            indicePrefijos.nombreCambiado(p, anterior);
+            version.incrementAndGet();
+            versionar(p);
+            for (ObservadorInventario o : observadores) {
+                o.nombreCambiado(p, anterior);
+            }
+        }
+
+        @Override
+        public void descripcionCambiada(Producto p, String anterior) {
+            indiceDescripcion.actualizar(p, p.getDescripcion());
+            version.incrementAndGet();
+            versionar(p);
+            for (ObservadorInventario o : observadores) {
+                o.descripcionCambiada(p, anterior);
+            }
+        }
+
+        @Override
+        public void precioCambiado(Producto p, long anteriorCentavos) {
+            agregados.precioCambiado(p, anteriorCentavos);
+            ExistenciasBodegas b = bodegas;
+            if (b != null) b.precioCambiado(p, anteriorCentavos);
+            version.incrementAndGet();
+            versionar(p);
+            for (ObservadorInventario o : observadores) {
+                o.precioCambiado(p, anteriorCentavos);
+            }
+        }
+
+        @Override
+        public void stockCambiado(Producto p, int anterior, int nuevo) {
+            agregados.stockCambiado(p, anterior, nuevo);
+            indiceStock.stockCambiado(p, anterior, nuevo);
+            ExistenciasBodegas b = bodegas;
+            if (b != null) b.stockCambiado(p, nuevo);
+            version.incrementAndGet();
+            versionar(p);
+            for (ObservadorInventario o : observadores) {
+                o.stockCambiado(p, anterior, nuevo);
+            }
+        }
+    }
 }
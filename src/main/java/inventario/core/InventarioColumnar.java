@@ -0,0 +1,273 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Alternativa a {@link Inventario} que guarda los campos en columnas (un arreglo por campo)
+ * indexadas por un slot denso, en vez de un objeto Producto por entrada. Los productos que
+ * devuelve se construyen a pedido y son copias: los cambios deben hacerse con
+ * actualizarProducto, aumentarStock o disminuirStock. No es seguro entre hilos.
+ */
+public class InventarioColumnar {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] codigos = new String[CAPACIDAD_INICIAL];
+    private String[] nombres = new String[CAPACIDAD_INICIAL];
+    private String[] descripciones = new String[CAPACIDAD_INICIAL];
+    private String[] nombresPlegados = new String[CAPACIDAD_INICIAL];
+    private String[] descripcionesPlegadas = new String[CAPACIDAD_INICIAL];
+    private long[] precios = new long[CAPACIDAD_INICIAL];
+    private int[] stocks = new int[CAPACIDAD_INICIAL];
+    private int cantidad;
+
+    public void agregarProducto(Producto producto) {
+        if (producto == null) {
+            throw new ValidacionException("El producto no puede ser null.");
+        }
+        String codigo = producto.getCodigo();
+        if (codigo == null || codigo.isBlank()) {
+            throw new ValidacionException("Codigo invalido.");
+        }
+        if (slots.containsKey(codigo)) {
+            throw new ValidacionException("Ya esiste un producto con el codigo " + codigo);
+        }
+        asegurarCapacidad(cantidad + 1);
+        int slot = cantidad++;
+        codigos[slot] = codigo;
+        escribir(slot, producto);
+        slots.put(codigo, slot);
+    }
+
+    public boolean eliminarProducto(String codigo) {
+        if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
+        Integer slot = slots.remove(codigo);
+        if (slot == null) return false;
+
+        // Mueve el ultimo slot al hueco para que las columnas sigan densas
+        int ultimo = --cantidad;
+        if (slot != ultimo) {
+            codigos[slot] = codigos[ultimo];
+            nombres[slot] = nombres[ultimo];
+            descripciones[slot] = descripciones[ultimo];
+            nombresPlegados[slot] = nombresPlegados[ultimo];
+            descripcionesPlegadas[slot] = descripcionesPlegadas[ultimo];
+            precios[slot] = precios[ultimo];
+            stocks[slot] = stocks[ultimo];
+            slots.put(codigos[slot], slot);
+        }
+        codigos[ultimo] = null;
+        nombres[ultimo] = null;
+        descripciones[ultimo] = null;
+        nombresPlegados[ultimo] = null;
+        descripcionesPlegadas[ultimo] = null;
+        return true;
+    }
+
+    public void actualizarProducto(String codigo, Consumer<Producto> cambios) {
+        int slot = slotExistente(codigo);
+        Producto vista = vista(slot);
+        cambios.accept(vista);
+        escribir(slot, vista);
+    }
+
+    public void aumentarStock(String codigo, int cantidad) {
+        int slot = slotExistente(codigo);
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a aumentar debe ser > 0.");
+        }
+        int nuevo = stocks[slot] + cantidad;
+        if (nuevo < 0) {
+            throw new ValidacionException("El stock no puede ser negativo.");
+        }
+        stocks[slot] = nuevo;
+    }
+
+    public void disminuirStock(String codigo, int cantidad) {
+        int slot = slotExistente(codigo);
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a disminuir debe ser > 0.");
+        }
+        if (stocks[slot] - cantidad < 0) {
+            throw new ValidacionException("No puede dejar el stock negativo.");
+        }
+        stocks[slot] -= cantidad;
+    }
+
+    public Optional<Producto> buscarPorId(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return Optional.empty();
+        }
+        Integer slot = slots.get(codigo);
+        return slot == null ? Optional.empty() : Optional.of(vista(slot));
+    }
+
+    public List<Producto> buscarPorNombre(String nombreParcial) {
+        if (nombreParcial == null || nombreParcial.isBlank()) {
+            return List.of();
+        }
+        String needle = IndiceTrigramas.plegar(nombreParcial);
+        List<Producto> res = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            if (nombresPlegados[i].contains(needle)) res.add(vista(i));
+        }
+        res.sort(Comparator.comparing(Producto::getNombre));
+        return res;
+    }
+
+    public List<Producto> buscarPorTexto(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String needle = IndiceTrigramas.plegar(texto);
+        List<Producto> res = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            if (nombresPlegados[i].contains(needle) || descripcionesPlegadas[i].contains(needle)) res.add(vista(i));
+        }
+        res.sort(Comparator.comparing(Producto::getNombre));
+        return res;
+    }
+
+    public List<Producto> listarTodos() {
+        return listarOrdenado(Comparator.comparing(Producto::getCodigo));
+    }
+
+    public List<Producto> listarOrdenado(Comparator<Producto> cmp) {
+        List<Producto> res = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            res.add(vista(i));
+        }
+        res.sort(cmp);
+        return res;
+    }
+
+    public ResumenInventario generarResumen(int topN, int umbralBajo) {
+        final int n = (topN < 1) ? 3 : topN;
+        final int u = Math.max(0, umbralBajo);
+
+        long totalItems = 0;
+        for (int i = 0; i < cantidad; i++) {
+            totalItems += stocks[i];
+        }
+
+        return new ResumenInventario(cantidad, totalItems, valorTotal(), topPorStock(n), bajoUmbral(u));
+    }
+
+    public List<Producto> topPorStock(int n) {
+        if (n < 1) {
+            return List.of();
+        }
+        // Heap acotado con el "peor" del top en la cima: menor stock y, a igual stock, mayor codigo
+        Comparator<Integer> peorPrimero = Comparator.<Integer>comparingInt(s -> stocks[s])
+            .thenComparing(s -> codigos[s], Comparator.reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(n, cantidad) + 1, peorPrimero);
+        for (int i = 0; i < cantidad; i++) {
+            if (heap.size() < n) {
+                heap.add(i);
+            } else if (mejorQue(i, heap.peek())) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        Integer[] orden = heap.toArray(new Integer[0]);
+        Arrays.sort(orden, peorPrimero.reversed());
+        List<Producto> res = new ArrayList<>(orden.length);
+        for (int s : orden) {
+            res.add(vista(s));
+        }
+        return res;
+    }
+
+    public List<Producto> bajoUmbral(int umbral) {
+        if (umbral <= 0) {
+            return List.of();
+        }
+        List<Integer> encontrados = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            if (stocks[i] < umbral) encontrados.add(i);
+        }
+        encontrados.sort(Comparator.<Integer>comparingInt(s -> stocks[s]).thenComparing(s -> codigos[s]));
+        List<Producto> res = new ArrayList<>(encontrados.size());
+        for (int s : encontrados) {
+            res.add(vista(s));
+        }
+        return res;
+    }
+
+    public int size() {
+        return cantidad;
+    }
+
+    public boolean contiene(String codigo) {
+        return slots.containsKey(codigo);
+    }
+
+    private BigDecimal valorTotal() {
+        long centavos = 0;
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                centavos = Math.addExact(centavos, Math.multiplyExact(precios[i], (long) stocks[i]));
+            }
+            return BigDecimal.valueOf(centavos, 2);
+        } catch (ArithmeticException e) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < cantidad; i++) {
+                total = total.add(BigDecimal.valueOf(precios[i], 2).multiply(BigDecimal.valueOf(stocks[i])));
+            }
+            return total;
+        }
+    }
+
+    // Orden del top: mas stock primero y, a igual stock, menor codigo
+    private boolean mejorQue(int a, int b) {
+        if (stocks[a] != stocks[b]) return stocks[a] > stocks[b];
+        return codigos[a].compareTo(codigos[b]) < 0;
+    }
+
+    private int slotExistente(String codigo) {
+        if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
+        Integer slot = slots.get(codigo);
+        if (slot == null) throw new ProductoNoEncontradoException(codigo);
+        return slot;
+    }
+
+    // Las columnas guardan los valores ya normalizados e internados de un Producto
+    private Producto vista(int slot) {
+        return Producto.restaurarInternado(codigos[slot], nombres[slot], descripciones[slot], precios[slot], stocks[slot]);
+    }
+
+    private void escribir(int slot, Producto p) {
+        nombres[slot] = p.getNombre();
+        descripciones[slot] = p.getDescripcion();
+        nombresPlegados[slot] = IndiceTrigramas.plegar(p.getNombre());
+        descripcionesPlegadas[slot] = IndiceTrigramas.plegar(p.getDescripcion());
+        precios[slot] = p.getPrecioCentavos();
+        stocks[slot] = p.getStock();
+    }
+
+    private void asegurarCapacidad(int minimo) {
+        if (minimo <= codigos.length) return;
+        int nueva = Math.max(minimo, codigos.length + (codigos.length >> 1));
+        codigos = Arrays.copyOf(codigos, nueva);
+        nombres = Arrays.copyOf(nombres, nueva);
+        descripciones = Arrays.copyOf(descripciones, nueva);
+        nombresPlegados = Arrays.copyOf(nombresPlegados, nueva);
+        descripcionesPlegadas = Arrays.copyOf(descripcionesPlegadas, nueva);
+        precios = Arrays.copyOf(precios, nueva);
+        stocks = Arrays.copyOf(stocks, nueva);
+    }
+}
@@ -0,0 +1,323 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import inventario.dto.PaginaProductos;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Inventario repartido en N particiones independientes segun el hash del codigo. Las
+ * operaciones sobre un codigo van a una sola particion; las consultas globales se reparten
+ * entre todas en un ForkJoinPool y los resultados parciales, ya ordenados en cada particion,
+ * se combinan con una mezcla de k vias. Los resultados coinciden con los de un {@link Inventario}
+ * con los mismos productos, salvo el orden entre empates del criterio de orden.
+ */
+public class InventarioParticionado {
+    private static final Comparator<Producto> POR_CODIGO = Comparator.comparing(Producto::getCodigo);
+    private static final Comparator<Producto> POR_NOMBRE = Comparator.comparing(Producto::getNombre).thenComparing(POR_CODIGO);
+    private static final Comparator<Producto> POR_NOMBRE_PLEGADO =
+        Comparator.<Producto, String>comparing(p -> IndiceTrigramas.plegar(p.getNombre())).thenComparing(POR_CODIGO);
+    // Mismo orden que IndiceStock: mayores por stock descendente y, en empates, codigo ascendente
+    private static final Comparator<Producto> MAYOR_STOCK = Comparator.comparingInt(Producto::getStock).reversed().thenComparing(POR_CODIGO);
+    private static final Comparator<Producto> MENOR_STOCK = Comparator.comparingInt(Producto::getStock).thenComparing(POR_CODIGO);
+
+    private final Inventario[] particiones;
+    private final ForkJoinPool pool;
+
+    public InventarioParticionado(int particiones) {
+        this(particiones, ModoInventario.SECUENCIAL, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param modo modo de cada particion; con CONCURRENTE la instancia puede compartirse entre hilos
+     * @param pool donde se ejecutan las consultas que recorren todas las particiones
+     */
+    public InventarioParticionado(int particiones, ModoInventario modo, ForkJoinPool pool) {
+        if (particiones < 1) {
+            throw new ValidacionException("La cantidad de particiones debe ser > 0.");
+        }
+        if (modo == null || pool == null) {
+            throw new ValidacionException("El modo y el pool son obligatorios.");
+        }
+        this.particiones = new Inventario[particiones];
+        for (int i = 0; i < particiones; i++) {
+            this.particiones[i] = new Inventario(modo);
+        }
+        this.pool = pool;
+    }
+
+    public int getParticiones() {
+        return particiones.length;
+    }
+
+    private Inventario particion(String codigo) {
+        return particiones[indice(codigo)];
+    }
+
+    private int indice(String codigo) {
+        if (codigo == null || codigo.isBlank()) throw new ValidacionException("Codigo invalido");
+        int h = codigo.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), particiones.length);
+    }
+
+    public void agregarProducto(Producto producto) {
+        if (producto == null) {
+            throw new ValidacionException("El producto no puede ser null.");
+        }
+        particion(producto.getCodigo()).agregarProducto(producto);
+    }
+
+    /**
+     * Carga masiva: valida todo el lote antes de insertar nada, como {@link Inventario#agregarProductos},
+     * y despues carga cada particion con su parte en paralelo.
+     */
+    public void agregarProductos(Collection<Producto> nuevos) {
+        if (nuevos == null) {
+            throw new ValidacionException("La lista de productos no puede ser null.");
+        }
+        List<List<Producto>> partes = new ArrayList<>(particiones.length);
+        for (int i = 0; i < particiones.length; i++) {
+            partes.add(new ArrayList<>(nuevos.size() / particiones.length + 1));
+        }
+        Set<String> codigos = new HashSet<>(nuevos.size() * 4 / 3 + 1);
+        for (Producto p : nuevos) {
+            if (p == null) {
+                throw new ValidacionException("El producto no puede ser null.");
+            }
+            int i = indice(p.getCodigo());
+            if (!codigos.add(p.getCodigo()) || particiones[i].contiene(p.getCodigo())) {
+                throw new ValidacionException("Ya esiste un producto con el codigo " + p.getCodigo());
+            }
+            partes.get(i).add(p);
+        }
+        enTodas(i -> {
+            particiones[i].agregarProductos(partes.get(i));
+            return null;
+        });
+    }
+
+    public boolean eliminarProducto(String codigo) {
+        return particion(codigo).eliminarProducto(codigo);
+    }
+
+    public void actualizarProducto(String codigo, Consumer<Producto> cambios) {
+        particion(codigo).actualizarProducto(codigo, cambios);
+    }
+
+    public void aumentarStock(String codigo, int cantidad) {
+        particion(codigo).aumentarStock(codigo, cantidad);
+    }
+
+    public void disminuirStock(String codigo, int cantidad) {
+        particion(codigo).disminuirStock(codigo, cantidad);
+    }
+
+    public boolean tryReservar(String codigo, int cantidad) {
+        return particion(codigo).tryReservar(codigo, cantidad);
+    }
+
+    public Optional<Producto> buscarPorId(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return Optional.empty();
+        }
+        return particion(codigo).buscarPorId(codigo);
+    }
+
+    public boolean contiene(String codigo) {
+        return codigo != null && !codigo.isBlank() && particion(codigo).contiene(codigo);
+    }
+
+    public int size() {
+        int total = 0;
+        for (Inventario inv : particiones) {
+            total += inv.size();
+        }
+        return total;
+    }
+
+    public List<Producto> buscarPorNombre(String nombreParcial) {
+        if (nombreParcial == null || nombreParcial.isBlank()) {
+            return List.of();
+        }
+        return mezclar(enTodas(i -> particiones[i].buscarPorNombre(nombreParcial)), POR_NOMBRE, Integer.MAX_VALUE);
+    }
+
+    public List<Producto> buscarPorTexto(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        return mezclar(enTodas(i -> particiones[i].buscarPorTexto(texto)), POR_NOMBRE, Integer.MAX_VALUE);
+    }
+
+    /** Cada particion aporta sus k primeros y la mezcla se queda con los k primeros del total. */
+    public List<Producto> autocompletar(String prefijo, int k) {
+        if (prefijo == null || prefijo.isBlank() || k < 1) {
+            return List.of();
+        }
+        return mezclar(enTodas(i -> particiones[i].autocompletar(prefijo, k)), POR_NOMBRE_PLEGADO, k);
+    }
+
+    public List<Producto> listarTodos() {
+        return mezclar(enTodas(i -> particiones[i].listarTodos()), POR_CODIGO, Integer.MAX_VALUE);
+    }
+
+    /** Igual que {@link Inventario#listarPagina}: cada particion aporta una pagina desde el cursor. */
+    public PaginaProductos listarPagina(String despuesDe, int limite) {
+        if (limite < 1) {
+            throw new ValidacionException("El limite de la pagina debe ser > 0.");
+        }
+        // Con limite + 1 se sabe si queda algo despues de la pagina sin otra pasada
+        List<Producto> pagina = mezclar(enTodas(i -> particiones[i].listarPagina(despuesDe, limite + 1).getProductos()),
+            POR_CODIGO, limite + 1);
+        if (pagina.size() <= limite) {
+            return new PaginaProductos(pagina, null);
+        }
+        pagina = pagina.subList(0, limite);
+        return new PaginaProductos(pagina, pagina.get(limite - 1).getCodigo());
+    }
+
+    public List<Producto> listarOrdenado(Comparator<Producto> cmp) {
+        return mezclar(enTodas(i -> particiones[i].listarOrdenado(cmp)), cmp, Integer.MAX_VALUE);
+    }
+
+    public ResumenInventario generarResumen(int topN, int umbralBajo) {
+        final int n = (topN < 1) ? 3 : topN;
+        List<ResumenInventario> parciales = enTodas(i -> particiones[i].generarResumen(n, umbralBajo));
+        int cant = 0;
+        long totalItems = 0;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        List<List<Producto>> tops = new ArrayList<>(parciales.size());
+        List<List<Producto>> bajos = new ArrayList<>(parciales.size());
+        for (ResumenInventario r : parciales) {
+            cant += r.getCantidadProductos();
+            totalItems += r.getTotalItems();
+            valorTotal = valorTotal.add(r.getValorTotal());
+            tops.add(r.getTopPorStock());
+            bajos.add(r.getStockBajo());
+        }
+        return new ResumenInventario(cant, totalItems, valorTotal, mezclar(tops, MAYOR_STOCK, n),
+            mezclar(bajos, MENOR_STOCK, Integer.MAX_VALUE));
+    }
+
+    public List<Producto> topPorStock(int n) {
+        if (n < 1) {
+            return List.of();
+        }
+        return mezclar(enTodas(i -> particiones[i].topPorStock(n)), MAYOR_STOCK, n);
+    }
+
+    public List<Producto> bajoUmbral(int umbral) {
+        return mezclar(enTodas(i -> particiones[i].bajoUmbral(umbral)), MENOR_STOCK, Integer.MAX_VALUE);
+    }
+
+    public void agregarObservador(ObservadorInventario o) {
+        for (Inventario inv : particiones) {
+            inv.agregarObservador(o);
+        }
+    }
+
+    public void quitarObservador(ObservadorInventario o) {
+        for (Inventario inv : particiones) {
+            inv.quitarObservador(o);
+        }
+    }
+
+    // Resultado de cada particion, en orden de particion
+    private <T> List<T> enTodas(IntFunction<T> consulta) {
+        if (particiones.length == 1) {
+            return Collections.singletonList(consulta.apply(0));
+        }
+        List<T> res = new ArrayList<>(particiones.length);
+        for (int i = 0; i < particiones.length; i++) {
+            res.add(null);
+        }
+        pool.invoke(new Dispersion<>(consulta, res, 0, particiones.length));
+        return res;
+    }
+
+    // Divide el rango de particiones a la mitad hasta quedar en una y la consulta ahi
+    @SuppressWarnings("serial")
+    private static class Dispersion<T> extends RecursiveTask<Void> {
+        private final IntFunction<T> consulta;
+        private final List<T> res;
+        private final int desde;
+        private final int hasta;
+
+        Dispersion(IntFunction<T> consulta, List<T> res, int desde, int hasta) {
+            this.consulta = consulta;
+            this.res = res;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Void compute() {
+            if (hasta - desde == 1) {
+                res.set(desde, consulta.apply(desde));
+                return null;
+            }
+            int medio = (desde + hasta) >>> 1;
+            Dispersion<T> izquierda = new Dispersion<>(consulta, res, desde, medio);
+            izquierda.fork();
+            new Dispersion<>(consulta, res, medio, hasta).compute();
+            izquierda.join();
+            return null;
+        }
+    }
+
+    /** Mezcla de k vias de listas ya ordenadas por {@code cmp}; se detiene a los {@code limite} elementos. */
+    static <T> List<T> mezclar(List<? extends List<T>> partes, Comparator<? super T> cmp, int limite) {
+        if (partes.size() == 1) {
+            List<T> unica = partes.get(0);
+            return unica.size() <= limite ? unica : unica.subList(0, limite);
+        }
+        int total = 0;
+        for (List<T> parte : partes) {
+            total += parte.size();
+        }
+        List<T> res = new ArrayList<>(Math.min(total, limite));
+        PriorityQueue<Cabeza<T>> cabezas = new PriorityQueue<>(Math.max(1, partes.size()),
+            (a, b) -> cmp.compare(a.actual(), b.actual()));
+        for (List<T> parte : partes) {
+            if (!parte.isEmpty()) cabezas.add(new Cabeza<>(parte));
+        }
+        while (res.size() < limite && !cabezas.isEmpty()) {
+            Cabeza<T> c = cabezas.poll();
+            res.add(c.actual());
+            if (c.avanzar()) cabezas.add(c);
+        }
+        return res;
+    }
+
+    private static class Cabeza<T> {
+        private final List<T> lista;
+        private int pos;
+
+        Cabeza(List<T> lista) {
+            this.lista = lista;
+        }
+
+        T actual() {
+            return lista.get(pos);
+        }
+
+        boolean avanzar() {
+            return ++pos < lista.size();
+        }
+    }
+}
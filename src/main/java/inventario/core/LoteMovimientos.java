@@ -0,0 +1,57 @@
+package inventario.core;
+
+import java.util.Arrays;
+
+import inventario.excepciones.ValidacionException;
+
+/**
+ * Lista compacta de movimientos de stock (codigo, delta con signo) para
+ * {@link Inventario#aplicarMovimientos(LoteMovimientos, ModoLote)}.
+ */
+public final class LoteMovimientos {
+    private String[] codigos;
+    private int[] deltas;
+    private int cantidad;
+
+    public LoteMovimientos() {
+        this(16);
+    }
+
+    public LoteMovimientos(int capacidad) {
+        int c = Math.max(1, capacidad);
+        codigos = new String[c];
+        deltas = new int[c];
+    }
+
+    public LoteMovimientos agregar(String codigo, int delta) {
+        if (codigo == null) {
+            throw new ValidacionException("El codigo no puede ser null.");
+        }
+        if (cantidad == codigos.length) {
+            int nueva = codigos.length + (codigos.length >> 1) + 1;
+            codigos = Arrays.copyOf(codigos, nueva);
+            deltas = Arrays.copyOf(deltas, nueva);
+        }
+        codigos[cantidad] = codigo;
+        deltas[cantidad] = delta;
+        cantidad++;
+        return this;
+    }
+
+    public int size() {
+        return cantidad;
+    }
+
+    public String codigo(int i) {
+        return codigos[i];
+    }
+
+    public int delta(int i) {
+        return deltas[i];
+    }
+
+    public void limpiar() {
+        Arrays.fill(codigos, 0, cantidad, null);
+        cantidad = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import inventario.dto.MetricasOperacion;
+import inventario.dto.ReporteMetricas;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+
+/**
+ * Contadores e histogramas de latencia por {@link Operacion}. Registrar no toma locks:
+ * solo LongAdder y un incremento atomico en el bucket del histograma.
+ */
+class MetricasInventario {
+    private final Estadistica[] porOperacion = new Estadistica[Operacion.values().length];
+
+    MetricasInventario() {
+        for (int i = 0; i < porOperacion.length; i++) {
+            porOperacion[i] = new Estadistica();
+        }
+    }
+
+    <T> T medir(Operacion op, Supplier<T> accion) {
+        Estadistica e = porOperacion[op.ordinal()];
+        long t0 = System.nanoTime();
+        try {
+            T r = accion.get();
+            e.registrar(System.nanoTime() - t0);
+            return r;
+        } catch (ValidacionException ex) {
+            e.erroresValidacion.increment();
+            e.registrar(System.nanoTime() - t0);
+            throw ex;
+        } catch (ProductoNoEncontradoException ex) {
+            e.erroresNoEncontrado.increment();
+            e.registrar(System.nanoTime() - t0);
+            throw ex;
+        } catch (RuntimeException ex) {
+            e.otrosErrores.increment();
+            e.registrar(System.nanoTime() - t0);
+            throw ex;
+        }
+    }
+
+    void medir(Operacion op, Runnable accion) {
+        medir(op, () -> {
+            accion.run();
+            return null;
+        });
+    }
+
+    ReporteMetricas reporte() {
+        List<MetricasOperacion> res = new ArrayList<>(porOperacion.length);
+        for (Operacion op : Operacion.values()) {
+            Estadistica e = porOperacion[op.ordinal()];
+            long[] c = e.latencias.copiar();
+            long max = e.max.get();
+            // El percentil es el limite superior de su bucket: se recorta al maximo observado
+            res.add(new MetricasOperacion(op.name(), e.llamadas.sum(), e.erroresValidacion.sum(), e.erroresNoEncontrado.sum(),
+                e.otrosErrores.sum(), Math.min(max, HistogramaLatencia.percentil(c, 50)),
+                Math.min(max, HistogramaLatencia.percentil(c, 99)), Math.min(max, HistogramaLatencia.percentil(c, 99.9)), max));
+        }
+        return new ReporteMetricas(res);
+    }
+
+    private static class Estadistica {
+        final LongAdder llamadas = new LongAdder();
+        final LongAdder erroresValidacion = new LongAdder();
+        final LongAdder erroresNoEncontrado = new LongAdder();
+        final LongAdder otrosErrores = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+
+        void registrar(long nanos) {
+            llamadas.increment();
+            latencias.registrar(nanos);
+            max.accumulate(nanos);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package inventario.core;
+
+/**
+ * SECUENCIAL usa un HashMap sin bloqueos (un solo hilo).
+ * CONCURRENTE usa un ConcurrentHashMap y bloqueos por franjas de codigo.
+ */
+public enum ModoInventario {
+    SECUENCIAL,
+    CONCURRENTE
+}
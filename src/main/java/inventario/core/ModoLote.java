@@ -0,0 +1,10 @@
+package inventario.core;
+
+/**
+ * TODO_O_NADA aplica el lote solo si todas las lineas son validas.
+ * MEJOR_ESFUERZO aplica las lineas validas y salta las demas.
+ */
+public enum ModoLote {
+    TODO_O_NADA,
+    MEJOR_ESFUERZO
+}
@@ -0,0 +1,33 @@
+package inventario.core;
+
+import inventario.modelo.ObservadorProducto;
+import inventario.modelo.Producto;
+
+/**
+ * Recibe todas las mutaciones de un {@link Inventario}: altas, bajas, los cambios de campo
+ * de los productos que contiene y las transferencias entre bodegas. Se invoca despues de
+ * aplicar el cambio y, en modo CONCURRENTE, mientras se tiene el bloqueo del codigo afectado.
+ * Los avisos antesDe... se invocan antes de aplicar cada cambio, bajo el mismo bloqueo, y pueden
+ * rechazarlo lanzando: {@link #antesDeAgregar}, {@link #antesDeEliminar}, los de cada campo de
+ * {@link ObservadorProducto} y {@link #antesDeCambiar} antes de una transferencia.
+ */
+public interface ObservadorInventario extends ObservadorProducto {
+
+    default void antesDeAgregar(Producto p) {
+        antesDeCambiar(p);
+    }
+
+    default void antesDeEliminar(Producto p) {
+        antesDeCambiar(p);
+    }
+
+    default void productoAgregado(Producto p) {
+    }
+
+    default void productoEliminado(Producto p) {
+    }
+
+    /** Se movio stock entre bodegas; el stock total del producto no cambio. */
+    default void stockTransferido(Producto p, String origen, String destino, int cantidad) {
+    }
+}
@@ -0,0 +1,24 @@
+package inventario.core;
+
+/** Operaciones de {@link Inventario} que registran metricas. */
+public enum Operacion {
+    AGREGAR_PRODUCTO,
+    AGREGAR_PRODUCTOS,
+    ELIMINAR_PRODUCTO,
+    ACTUALIZAR_PRODUCTO,
+    AUMENTAR_STOCK,
+    DISMINUIR_STOCK,
+    RESERVAR_STOCK,
+    TRANSFERIR_STOCK,
+    APLICAR_MOVIMIENTOS,
+    BUSCAR_POR_ID,
+    BUSCAR_POR_NOMBRE,
+    BUSCAR_POR_TEXTO,
+    AUTOCOMPLETAR,
+    LISTAR_TODOS,
+    LISTAR_ORDENADO,
+    LISTAR_PAGINA,
+    GENERAR_RESUMEN,
+    TOP_POR_STOCK,
+    BAJO_UMBRAL
+}
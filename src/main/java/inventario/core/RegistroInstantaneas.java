@@ -0,0 +1,67 @@
+package inventario.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import inventario.modelo.Producto;
+
+/**
+ * Version vigente del inventario como {@link Instantanea}. Cada cambio arma la version siguiente
+ * (copiando solo el camino tocado de los arboles) y la publica con un compareAndSet, reintentando
+ * si otro hilo publico antes. Leer la vigente es una lectura volatil: los lectores no toman locks
+ * ni frenan a los escritores.
+ */
+class RegistroInstantaneas {
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>(Instantanea.VACIA);
+    // Productos cambiados por el lote en curso de cada hilo; null fuera de un lote
+    private final ThreadLocal<List<Producto>> lote = new ThreadLocal<>();
+
+    Instantanea actual() {
+        return actual.get();
+    }
+
+    void poner(Producto p) {
+        List<Producto> l = lote.get();
+        if (l != null) {
+            l.add(p);
+            return;
+        }
+        Instantanea a;
+        Instantanea b;
+        do {
+            a = actual.get();
+            // Lee los campos de p en cada intento: si se reintenta, publica su estado mas reciente
+            b = a.con(p);
+        } while (!actual.compareAndSet(a, b));
+    }
+
+    void quitar(String codigo) {
+        Instantanea a;
+        Instantanea b;
+        do {
+            a = actual.get();
+            b = a.sin(codigo);
+        } while (a != b && !actual.compareAndSet(a, b));
+    }
+
+    /** Desde aca hasta {@link #terminarLote()}, lo que ponga este hilo sale en una sola version. */
+    void iniciarLote() {
+        lote.set(new ArrayList<>());
+    }
+
+    void terminarLote() {
+        List<Producto> l = lote.get();
+        lote.remove();
+        if (l == null || l.isEmpty()) return;
+        Instantanea a;
+        Instantanea b;
+        do {
+            a = actual.get();
+            b = a;
+            for (Producto p : l) {
+                b = b.con(p);
+            }
+        } while (!actual.compareAndSet(a, b));
+    }
+}
@@ -0,0 +1,13 @@
+package inventario.core;
+
+/**
+ * Resultado de una linea de un lote de movimientos. REVERTIDO indica una linea valida que no
+ * se aplico porque otra linea del mismo lote TODO_O_NADA fallo.
+ */
+public enum ResultadoMovimiento {
+    APLICADO,
+    NO_ENCONTRADO,
+    CANTIDAD_INVALIDA,
+    STOCK_INSUFICIENTE,
+    REVERTIDO
+}
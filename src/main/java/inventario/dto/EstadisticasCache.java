@@ -0,0 +1,50 @@
+package inventario.dto;
+
+public class EstadisticasCache {
+    private final int capacidad;
+    private final int entradas;
+    private final long aciertos;
+    private final long fallos;
+    private final long desalojos;
+
+    public EstadisticasCache(int capacidad, int entradas, long aciertos, long fallos, long desalojos) {
+        this.capacidad = capacidad;
+        this.entradas = entradas;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+    }
+
+    /** Fraccion de consultas servidas desde la cache; 0 si todavia no hubo consultas. */
+    public double tasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    //GETTERS
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public int getEntradas() {
+        return entradas;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    @Override
+    public String toString() {
+        return "Cache[" + entradas + "/" + capacidad + ", aciertos=" + aciertos + ", fallos=" + fallos
+            + ", desalojos=" + desalojos + "]";
+    }
+}
@@ -0,0 +1,63 @@
+package inventario.dto;
+
+public class MetricasOperacion {
+    private final String operacion;
+    private final long llamadas;
+    private final long erroresValidacion;
+    private final long erroresNoEncontrado;
+    private final long otrosErrores;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public MetricasOperacion(String operacion, long llamadas, long erroresValidacion, long erroresNoEncontrado,
+            long otrosErrores, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.operacion = operacion;
+        this.llamadas = llamadas;
+        this.erroresValidacion = erroresValidacion;
+        this.erroresNoEncontrado = erroresNoEncontrado;
+        this.otrosErrores = otrosErrores;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    //GETTERS
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public long getLlamadas() {
+        return llamadas;
+    }
+
+    public long getErroresValidacion() {
+        return erroresValidacion;
+    }
+
+    public long getErroresNoEncontrado() {
+        return erroresNoEncontrado;
+    }
+
+    public long getOtrosErrores() {
+        return otrosErrores;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package inventario.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+import inventario.modelo.Producto;
+
+public class PaginaProductos {
+    private final List<Producto> productos;
+    private final String siguienteCursor;
+
+    public PaginaProductos(List<Producto> productos, String siguienteCursor) {
+        this.productos = productos;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    /** true si despues de esta pagina quedan productos. */
+    public boolean hayMas() {
+        return siguienteCursor != null;
+    }
+
+    //GETTERS
+    public List<Producto> getProductos() {
+        return Collections.unmodifiableList(productos);
+    }
+
+    /** Codigo a pasar como cursor para pedir la pagina siguiente; null en la ultima pagina. */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+}
@@ -0,0 +1,62 @@
+package inventario.dto;
+
+public class ReporteCarga {
+    private final long solicitudes;
+    private final long errores;
+    private final long nanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public ReporteCarga(long solicitudes, long errores, long nanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.solicitudes = solicitudes;
+        this.errores = errores;
+        this.nanos = nanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public double solicitudesPorSegundo() {
+        return nanos == 0 ? 0 : solicitudes * 1e9 / nanos;
+    }
+
+    //GETTERS
+    public long getSolicitudes() {
+        return solicitudes;
+    }
+
+    /** Respuestas 5xx o fallas de conexion; los 4xx esperados no cuentan. */
+    public long getErrores() {
+        return errores;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d solicitudes (%d errores) en %.1f s: %.0f req/s | p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms",
+            solicitudes, errores, nanos / 1e9, solicitudesPorSegundo(), p50Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6,
+            maxNanos / 1e6);
+    }
+}
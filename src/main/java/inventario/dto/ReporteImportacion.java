@@ -0,0 +1,86 @@
+package inventario.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ReporteImportacion {
+    private final long filasLeidas;
+    private final long agregados;
+    private final long sobrescritos;
+    private final long omitidos;
+    private final long cantidadErrores;
+    private final List<ErrorFila> errores;
+    private final long nanos;
+
+    public ReporteImportacion(long filasLeidas, long agregados, long sobrescritos, long omitidos, long cantidadErrores,
+            List<ErrorFila> errores, long nanos) {
+        this.filasLeidas = filasLeidas;
+        this.agregados = agregados;
+        this.sobrescritos = sobrescritos;
+        this.omitidos = omitidos;
+        this.cantidadErrores = cantidadErrores;
+        this.errores = errores;
+        this.nanos = nanos;
+    }
+
+    //GETTERS
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getAgregados() {
+        return agregados;
+    }
+
+    public long getSobrescritos() {
+        return sobrescritos;
+    }
+
+    public long getOmitidos() {
+        return omitidos;
+    }
+
+    /** Total de filas con error; {@link #getErrores()} puede traer solo los primeros. */
+    public long getCantidadErrores() {
+        return cantidadErrores;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getFilasPorSegundo() {
+        return nanos == 0 ? 0 : filasLeidas / (nanos / 1e9);
+    }
+
+    @Override public String toString() {
+        return String.format("%d filas (%d agregadas, %d sobrescritas, %d omitidas, %d con error) en %.1f ms, %.0f filas/s",
+            filasLeidas, agregados, sobrescritos, omitidos, cantidadErrores, nanos / 1e6, getFilasPorSegundo());
+    }
+
+    public static class ErrorFila {
+        private final long linea;
+        private final String mensaje;
+
+        public ErrorFila(long linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        @Override public String toString() {
+            return "linea " + linea + ": " + mensaje;
+        }
+    }
+}
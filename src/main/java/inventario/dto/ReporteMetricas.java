@@ -0,0 +1,35 @@
+package inventario.dto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class ReporteMetricas {
+    private final List<MetricasOperacion> operaciones;
+
+    public ReporteMetricas(List<MetricasOperacion> operaciones) {
+        this.operaciones = operaciones;
+    }
+
+    public List<MetricasOperacion> getOperaciones() {
+        return Collections.unmodifiableList(operaciones);
+    }
+
+    public Optional<MetricasOperacion> de(String operacion) {
+        return operaciones.stream().filter(m -> m.getOperacion().equals(operacion)).findFirst();
+    }
+
+    /** Una linea por operacion con llamadas; latencias en microsegundos. */
+    public String aTexto() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-22s %10s %8s %8s %8s %10s %10s %10s %10s%n",
+            "operacion", "llamadas", "err_val", "err_nf", "err_otro", "p50_us", "p99_us", "p999_us", "max_us"));
+        for (MetricasOperacion m : operaciones) {
+            if (m.getLlamadas() == 0) continue;
+            sb.append(String.format("%-22s %10d %8d %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                m.getOperacion(), m.getLlamadas(), m.getErroresValidacion(), m.getErroresNoEncontrado(), m.getOtrosErrores(),
+                m.getP50Nanos() / 1e3, m.getP99Nanos() / 1e3, m.getP999Nanos() / 1e3, m.getMaxNanos() / 1e3));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package inventario.dto;
+
+import java.time.Instant;
+
+/** Unidades que entraron y salieron del stock en [desde, hasta). */
+public class ResumenMovimientos {
+    private final Instant desde;
+    private final Instant hasta;
+    private final long entradas;
+    private final long salidas;
+    private final long movimientos;
+
+    public ResumenMovimientos(Instant desde, Instant hasta, long entradas, long salidas, long movimientos) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.entradas = entradas;
+        this.salidas = salidas;
+        this.movimientos = movimientos;
+    }
+
+    /** Entradas menos salidas: cuanto cambio el stock en el intervalo. */
+    public long getNeto() {
+        return entradas - salidas;
+    }
+
+    /** Entradas mas salidas. */
+    public long getUnidadesMovidas() {
+        return entradas + salidas;
+    }
+
+    //GETTERS
+    public Instant getDesde() {
+        return desde;
+    }
+
+    public Instant getHasta() {
+        return hasta;
+    }
+
+    public long getEntradas() {
+        return entradas;
+    }
+
+    public long getSalidas() {
+        return salidas;
+    }
+
+    /** Cantidad de cambios de stock registrados en el intervalo. */
+    public long getMovimientos() {
+        return movimientos;
+    }
+
+    @Override
+    public String toString() {
+        return "Movimientos[" + desde + ", " + hasta + "): entradas=" + entradas + ", salidas=" + salidas
+            + ", neto=" + getNeto() + ", cambios=" + movimientos;
+    }
+}
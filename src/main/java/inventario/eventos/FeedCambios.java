@@ -0,0 +1,270 @@
+package inventario.eventos;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import inventario.core.Inventario;
+import inventario.core.ObservadorInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Feed en memoria de las mutaciones de un {@link Inventario}: cada alta, baja, cambio de campo
+ * y transferencia entre bodegas se publica como un evento con numero de secuencia en un buffer
+ * circular preasignado (en columnas, sin objetos por evento). Cada {@link Suscripcion} lee por
+ * lotes a su propio ritmo.
+ *
+ * Publicar no crea objetos: los textos y codigos son los mismos String del producto o de la
+ * transferencia. Las publicaciones se serializan con un lock corto; las lecturas no lo toman,
+ * sino que validan cada casillero con su secuencia (escrita al final por quien publica), asi
+ * detectan si fue pisado mientras lo copiaban.
+ *
+ * Con BLOQUEAR, una escritura sobre el inventario puede esperar al suscriptor mas lento mientras
+ * tiene tomado el bloqueo de su codigo: un suscriptor no debe escribir en el mismo inventario
+ * desde el hilo con el que consume.
+ */
+public class FeedCambios implements Closeable {
+    private static final VarHandle SECUENCIA = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final Suscripcion[] SIN_SUSCRIPCIONES = new Suscripcion[0];
+    private static final int MAX_CAPACIDAD = 1 << 30;
+
+    final int capacidad;
+    private final int mascara;
+    private final PoliticaContrapresion politica;
+    private final Inventario inventario;
+    private final ObservadorInventario observador = new Publicador();
+
+    // Un casillero por evento; secuencias[i] vale -1 mientras se escribe
+    private final long[] secuencias;
+    private final byte[] tipos;
+    private final String[] codigos;
+    private final String[] textos;
+    private final String[] destinos;
+    private final long[] anteriores;
+    private final long[] nuevos;
+
+    final ReentrantLock lock = new ReentrantLock();
+    final Condition datos = lock.newCondition();
+    private final Condition espacio = lock.newCondition();
+    volatile long publicado;
+    volatile boolean cerrado;
+    private volatile Suscripcion[] suscripciones = SIN_SUSCRIPCIONES;
+    private volatile int publicadoresEsperando;
+    int lectoresEsperando;
+
+    private FeedCambios(Inventario inventario, int capacidad, PoliticaContrapresion politica) {
+        this.inventario = inventario;
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.politica = politica;
+        secuencias = new long[capacidad];
+        Arrays.fill(secuencias, -1);
+        tipos = new byte[capacidad];
+        codigos = new String[capacidad];
+        textos = new String[capacidad];
+        destinos = new String[capacidad];
+        anteriores = new long[capacidad];
+        nuevos = new long[capacidad];
+    }
+
+    /** Crea el feed y empieza a publicar las mutaciones de {@code inventario}. La capacidad se redondea a potencia de 2. */
+    public static FeedCambios conectar(Inventario inventario, int capacidad, PoliticaContrapresion politica) {
+        if (inventario == null || politica == null) {
+            throw new ValidacionException("Inventario y politica son obligatorios.");
+        }
+        if (capacidad < 1 || capacidad > MAX_CAPACIDAD) {
+            throw new ValidacionException("La capacidad debe estar entre 1 y " + MAX_CAPACIDAD + ".");
+        }
+        int potencia = 1;
+        while (potencia < capacidad) {
+            potencia <<= 1;
+        }
+        FeedCambios feed = new FeedCambios(inventario, potencia, politica);
+        inventario.agregarObservador(feed.observador);
+        return feed;
+    }
+
+    /** Suscripcion que recibe los eventos publicados desde ahora. */
+    public Suscripcion suscribir() {
+        lock.lock();
+        try {
+            if (cerrado) throw new IllegalStateException("El feed esta cerrado.");
+            Suscripcion s = new Suscripcion(this, publicado + 1);
+            Suscripcion[] nuevas = Arrays.copyOf(suscripciones, suscripciones.length + 1);
+            nuevas[suscripciones.length] = s;
+            suscripciones = nuevas;
+            return s;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /** Secuencia del ultimo evento publicado (0 si todavia no hubo ninguno). */
+    public long getPublicado() {
+        return publicado;
+    }
+
+    @Override
+    public void close() {
+        inventario.quitarObservador(observador);
+        lock.lock();
+        try {
+            cerrado = true;
+            espacio.signalAll();
+            datos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void quitar(Suscripcion s) {
+        lock.lock();
+        try {
+            Suscripcion[] actuales = suscripciones;
+            for (int i = 0; i < actuales.length; i++) {
+                if (actuales[i] == s) {
+                    Suscripcion[] nuevas = new Suscripcion[actuales.length - 1];
+                    System.arraycopy(actuales, 0, nuevas, 0, i);
+                    System.arraycopy(actuales, i + 1, nuevas, i, actuales.length - i - 1);
+                    suscripciones = nuevas.length == 0 ? SIN_SUSCRIPCIONES : nuevas;
+                    break;
+                }
+            }
+            espacio.signalAll();
+            datos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void publicar(TipoCambio tipo, String codigo, String texto, long anterior, long nuevo) {
+        publicar(tipo, codigo, texto, null, anterior, nuevo);
+    }
+
+    void publicar(TipoCambio tipo, String codigo, String texto, String destino, long anterior, long nuevo) {
+        lock.lock();
+        try {
+            if (cerrado) return;
+            long s;
+            if (politica == PoliticaContrapresion.BLOQUEAR) {
+                // Se anuncia la espera antes de mirar los cursores: un lector que avanza despues
+                // ve el anuncio y despierta a este hilo (ver liberoEspacio). Mientras se espera
+                // pueden publicar otros hilos, asi que la secuencia se vuelve a tomar en cada vuelta
+                while (true) {
+                    s = publicado + 1;
+                    publicadoresEsperando++;
+                    if (cerrado || s - minimoCursor(s) < capacidad) {
+                        publicadoresEsperando--;
+                        break;
+                    }
+                    espacio.awaitUninterruptibly();
+                    publicadoresEsperando--;
+                }
+                if (cerrado) return;
+            } else {
+                s = publicado + 1;
+            }
+            int i = (int) s & mascara;
+            SECUENCIA.setOpaque(secuencias, i, -1L);
+            VarHandle.storeStoreFence();
+            tipos[i] = (byte) tipo.ordinal();
+            codigos[i] = codigo;
+            textos[i] = texto;
+            destinos[i] = destino;
+            anteriores[i] = anterior;
+            nuevos[i] = nuevo;
+            SECUENCIA.setRelease(secuencias, i, s);
+            publicado = s;
+            if (lectoresEsperando > 0) datos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long minimoCursor(long porDefecto) {
+        long min = porDefecto;
+        for (Suscripcion sub : suscripciones) {
+            min = Math.min(min, sub.cursor);
+        }
+        return min;
+    }
+
+    /**
+     * Copia hasta n eventos desde la secuencia {@code desde} y devuelve cuantos copio. Se detiene
+     * en el primer casillero que ya no tiene esa secuencia (fue pisado o se esta escribiendo).
+     */
+    int copiar(long desde, int n, LoteCambios destino) {
+        int copiados = 0;
+        for (; copiados < n; copiados++) {
+            long s = desde + copiados;
+            int i = (int) s & mascara;
+            if ((long) SECUENCIA.getAcquire(secuencias, i) != s) break;
+            destino.secuencias[copiados] = s;
+            destino.tipos[copiados] = TipoCambio.VALORES[tipos[i]];
+            destino.codigos[copiados] = codigos[i];
+            destino.textos[copiados] = textos[i];
+            destino.destinos[copiados] = destinos[i];
+            destino.anteriores[copiados] = anteriores[i];
+            destino.nuevos[copiados] = nuevos[i];
+            VarHandle.loadLoadFence();
+            if ((long) SECUENCIA.getAcquire(secuencias, i) != s) break;
+        }
+        return copiados;
+    }
+
+    // Lo llama un lector despues de mover su cursor
+    void liberoEspacio() {
+        if (publicadoresEsperando == 0) return;
+        lock.lock();
+        try {
+            espacio.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class Publicador implements ObservadorInventario {
+        @Override
+        public void productoAgregado(Producto p) {
+            publicar(TipoCambio.AGREGADO, p.getCodigo(), p.getNombre(), 0, p.getStock());
+        }
+
+        @Override
+        public void productoEliminado(Producto p) {
+            publicar(TipoCambio.ELIMINADO, p.getCodigo(), null, p.getStock(), 0);
+        }
+
+        @Override
+        public void nombreCambiado(Producto p, String anterior) {
+            publicar(TipoCambio.NOMBRE, p.getCodigo(), p.getNombre(), 0, 0);
+        }
+
+        @Override
+        public void descripcionCambiada(Producto p, String anterior) {
+            publicar(TipoCambio.DESCRIPCION, p.getCodigo(), p.getDescripcion(), 0, 0);
+        }
+
+        @Override
+        public void precioCambiado(Producto p, long anteriorCentavos) {
+            publicar(TipoCambio.PRECIO, p.getCodigo(), null, anteriorCentavos, p.getPrecioCentavos());
+        }
+
+        @Override
+        public void stockCambiado(Producto p, int anterior, int nuevo) {
+            publicar(TipoCambio.STOCK, p.getCodigo(), null, anterior, nuevo);
+        }
+
+        @Override
+        public void stockTransferido(Producto p, String origen, String destino, int cantidad) {
+            publicar(TipoCambio.TRANSFERENCIA, p.getCodigo(), origen, destino, 0, cantidad);
+        }
+    }
+}
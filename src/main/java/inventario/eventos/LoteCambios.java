@@ -0,0 +1,77 @@
+package inventario.eventos;
+
+import java.util.Arrays;
+
+import inventario.excepciones.ValidacionException;
+
+/**
+ * Destino reutilizable de una lectura del feed, en columnas (como LoteMovimientos): el
+ * suscriptor lo crea una vez y lo vuelve a llenar en cada lectura sin crear objetos.
+ */
+public final class LoteCambios {
+    final long[] secuencias;
+    final TipoCambio[] tipos;
+    final String[] codigos;
+    final String[] textos;
+    final String[] destinos;
+    final long[] anteriores;
+    final long[] nuevos;
+    int cantidad;
+
+    public LoteCambios(int capacidad) {
+        if (capacidad < 1) {
+            throw new ValidacionException("La capacidad del lote debe ser > 0.");
+        }
+        secuencias = new long[capacidad];
+        tipos = new TipoCambio[capacidad];
+        codigos = new String[capacidad];
+        textos = new String[capacidad];
+        destinos = new String[capacidad];
+        anteriores = new long[capacidad];
+        nuevos = new long[capacidad];
+    }
+
+    public int size() {
+        return cantidad;
+    }
+
+    public int capacidad() {
+        return secuencias.length;
+    }
+
+    public long secuencia(int i) {
+        return secuencias[i];
+    }
+
+    public TipoCambio tipo(int i) {
+        return tipos[i];
+    }
+
+    public String codigo(int i) {
+        return codigos[i];
+    }
+
+    public String texto(int i) {
+        return textos[i];
+    }
+
+    /** Bodega de destino de una TRANSFERENCIA; null en los demas eventos. */
+    public String destino(int i) {
+        return destinos[i];
+    }
+
+    public long anterior(int i) {
+        return anteriores[i];
+    }
+
+    public long nuevo(int i) {
+        return nuevos[i];
+    }
+
+    void limpiar() {
+        Arrays.fill(codigos, 0, cantidad, null);
+        Arrays.fill(textos, 0, cantidad, null);
+        Arrays.fill(destinos, 0, cantidad, null);
+        cantidad = 0;
+    }
+}
@@ -0,0 +1,12 @@
+package inventario.eventos;
+
+/**
+ * Que hace el feed cuando el buffer esta lleno porque algun suscriptor no alcanzo a leer.
+ * BLOQUEAR: quien publica (la escritura sobre el inventario) espera a que el mas lento libere lugar.
+ * DESCARTAR_ANTIGUOS: se pisan los eventos mas viejos; el suscriptor atrasado los salta y
+ * los cuenta como perdidos.
+ */
+public enum PoliticaContrapresion {
+    BLOQUEAR,
+    DESCARTAR_ANTIGUOS
+}
@@ -0,0 +1,89 @@
+package inventario.eventos;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cursor de un consumidor sobre un {@link FeedCambios}. La usa un solo hilo: cada lectura llena
+ * un {@link LoteCambios} con los eventos siguientes, en orden de secuencia y sin repetir.
+ */
+public class Suscripcion implements Closeable {
+    private final FeedCambios feed;
+    // Proxima secuencia a leer; quien publica la mira para aplicar contrapresion
+    volatile long cursor;
+    private volatile long perdidos;
+    private volatile boolean cerrada;
+
+    Suscripcion(FeedCambios feed, long cursor) {
+        this.feed = feed;
+        this.cursor = cursor;
+    }
+
+    /** Lee los eventos disponibles (hasta la capacidad del lote) sin esperar. Devuelve cuantos leyo. */
+    public int leer(LoteCambios destino) {
+        destino.limpiar();
+        if (cerrada) return 0;
+        while (true) {
+            long hasta = feed.publicado;
+            long desde = cursor;
+            if (hasta < desde) return 0;
+            if (hasta - desde >= feed.capacidad) {
+                // Solo pasa con DESCARTAR_ANTIGUOS: lo que quedo fuera del buffer se perdio
+                long primero = hasta - feed.capacidad + 1;
+                perdidos += primero - desde;
+                desde = primero;
+            }
+            int n = (int) Math.min(hasta - desde + 1, destino.capacidad());
+            int leidos = feed.copiar(desde, n, destino);
+            cursor = desde + leidos;
+            if (leidos > 0) {
+                destino.cantidad = leidos;
+                feed.liberoEspacio();
+                return leidos;
+            }
+            // El primer casillero ya fue pisado: se vuelve a mirar hasta donde se publico
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Como {@link #leer(LoteCambios)} pero, si no hay eventos, espera hasta que se publique
+     * alguno o venza el tiempo. Devuelve 0 si vencio o si el feed o la suscripcion se cerraron.
+     */
+    public int leer(LoteCambios destino, long tiempo, TimeUnit unidad) throws InterruptedException {
+        int n = leer(destino);
+        if (n > 0) return n;
+        long restante = unidad.toNanos(tiempo);
+        feed.lock.lock();
+        try {
+            feed.lectoresEsperando++;
+            try {
+                while (feed.publicado < cursor && !feed.cerrado && !cerrada && restante > 0) {
+                    restante = feed.datos.awaitNanos(restante);
+                }
+            } finally {
+                feed.lectoresEsperando--;
+            }
+        } finally {
+            feed.lock.unlock();
+        }
+        return leer(destino);
+    }
+
+    /** Eventos publicados que esta suscripcion todavia no leyo. */
+    public long pendientes() {
+        return Math.max(0, feed.publicado - cursor + 1);
+    }
+
+    /** Eventos que se pisaron antes de que esta suscripcion los leyera (solo con DESCARTAR_ANTIGUOS). */
+    public long getPerdidos() {
+        return perdidos;
+    }
+
+    /** Deja de recibir eventos y de frenar a quien publica. */
+    @Override
+    public void close() {
+        cerrada = true;
+        feed.quitar(this);
+    }
+}
@@ -0,0 +1,22 @@
+package inventario.eventos;
+
+/**
+ * Que representa cada evento del feed y como se usan sus campos:
+ * AGREGADO: texto = nombre, nuevo = stock inicial.
+ * ELIMINADO: anterior = stock al eliminarse.
+ * NOMBRE / DESCRIPCION: texto = valor nuevo.
+ * PRECIO: anterior y nuevo en centavos.
+ * STOCK: anterior y nuevo.
+ * TRANSFERENCIA: texto = bodega de origen, destino = bodega de destino, nuevo = cantidad.
+ */
+public enum TipoCambio {
+    AGREGADO,
+    ELIMINADO,
+    NOMBRE,
+    DESCRIPCION,
+    PRECIO,
+    STOCK,
+    TRANSFERENCIA;
+
+    static final TipoCambio[] VALORES = values();
+}
@@ -0,0 +1,187 @@
+package inventario.historial;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+import inventario.core.Inventario;
+import inventario.core.ObservadorInventario;
+import inventario.dto.ResumenMovimientos;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Historia de los cambios de stock de un {@link Inventario}, por producto, para preguntar el
+ * stock en un instante pasado o cuanto entro y salio en un intervalo. Cada producto tiene una
+ * {@link SerieStock} compacta (unos pocos bytes por cambio). Las altas y bajas de productos
+ * quedan registradas pero no cuentan como movimientos. Las transferencias entre bodegas no
+ * cambian el stock del producto y no se registran.
+ *
+ * Con retencion, al cerrar cada bloque de una serie se sueltan sus bloques mas viejos que la
+ * retencion; {@link #compactar()} hace lo mismo con todas las series y borra las de productos
+ * eliminados hace mas que la retencion. Las consultas anteriores a lo retenido no tienen respuesta.
+ */
+public class HistorialStock implements Closeable {
+    private final Inventario inventario;
+    private final Clock reloj;
+    // Long.MAX_VALUE: sin retencion
+    private final long retencionMs;
+    private final Map<String, SerieStock> series = new ConcurrentHashMap<>();
+    private final ObservadorInventario observador = new Registrador();
+
+    private HistorialStock(Inventario inventario, Clock reloj, long retencionMs) {
+        this.inventario = inventario;
+        this.reloj = reloj;
+        this.retencionMs = retencionMs;
+    }
+
+    /** Empieza a registrar los cambios de stock de {@code inventario}, sin descartar nada. */
+    public static HistorialStock conectar(Inventario inventario) {
+        return conectar(inventario, null, Clock.systemUTC());
+    }
+
+    /**
+     * @param retencion cuanto tiempo hacia atras se conserva; null para conservar todo
+     * @param reloj de donde salen los instantes de cada cambio
+     */
+    public static HistorialStock conectar(Inventario inventario, Duration retencion, Clock reloj) {
+        if (inventario == null || reloj == null) {
+            throw new ValidacionException("Inventario y reloj son obligatorios.");
+        }
+        if (retencion != null && (retencion.isNegative() || retencion.isZero())) {
+            throw new ValidacionException("La retencion debe ser positiva.");
+        }
+        HistorialStock h = new HistorialStock(inventario, reloj, retencion == null ? Long.MAX_VALUE : retencion.toMillis());
+        // Primero el observador: un cambio que llegue mientras se recorre crea su serie con el
+        // stock anterior, y el recorrido ya no la pisa
+        inventario.agregarObservador(h.observador);
+        long ahora = reloj.millis();
+        for (Producto p : inventario.listarTodos()) {
+            SerieStock nueva = new SerieStock(ahora, p.getStock());
+            // Si el producto se elimino despues del listado su baja no encontro serie: la que se
+            // acaba de crear no corresponde a nada y se quita. Una baja posterior a esta
+            // verificacion ya la encuentra y la registra
+            if (h.series.putIfAbsent(p.getCodigo(), nueva) == null && !inventario.contiene(p.getCodigo())) {
+                h.series.remove(p.getCodigo(), nueva);
+            }
+        }
+        return h;
+    }
+
+    /** Stock del producto en el instante; vacio si no existia o la historia retenida no llega hasta ahi. */
+    public OptionalInt stockEn(String codigo, Instant instante) {
+        if (codigo == null || instante == null) {
+            throw new ValidacionException("Codigo e instante son obligatorios.");
+        }
+        SerieStock s = series.get(codigo);
+        int stock = s == null ? SerieStock.AUSENTE : s.stockEn(instante.toEpochMilli());
+        return stock == SerieStock.AUSENTE ? OptionalInt.empty() : OptionalInt.of(stock);
+    }
+
+    /** Entradas y salidas del producto en [desde, hasta). */
+    public ResumenMovimientos movimientos(String codigo, Instant desde, Instant hasta) {
+        if (codigo == null) {
+            throw new ValidacionException("El codigo es obligatorio.");
+        }
+        validarIntervalo(desde, hasta);
+        long[] acumulado = new long[3];
+        SerieStock s = series.get(codigo);
+        if (s != null) s.sumarMovimientos(desde.toEpochMilli(), hasta.toEpochMilli(), acumulado);
+        return new ResumenMovimientos(desde, hasta, acumulado[0], acumulado[1], acumulado[2]);
+    }
+
+    /** Entradas y salidas de todos los productos en [desde, hasta). */
+    public ResumenMovimientos movimientos(Instant desde, Instant hasta) {
+        validarIntervalo(desde, hasta);
+        long[] acumulado = new long[3];
+        for (SerieStock s : series.values()) {
+            s.sumarMovimientos(desde.toEpochMilli(), hasta.toEpochMilli(), acumulado);
+        }
+        return new ResumenMovimientos(desde, hasta, acumulado[0], acumulado[1], acumulado[2]);
+    }
+
+    private static void validarIntervalo(Instant desde, Instant hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new ValidacionException("Intervalo invalido.");
+        }
+    }
+
+    /** Aplica la retencion a todas las series ahora. No hace nada sin retencion. */
+    public void compactar() {
+        if (retencionMs != Long.MAX_VALUE) descartarAntesDe(Instant.ofEpochMilli(reloj.millis() - retencionMs));
+    }
+
+    /**
+     * Descarta la historia anterior a {@code limite}: las consultas desde {@code limite} en
+     * adelante siguen dando lo mismo.
+     */
+    public void descartarAntesDe(Instant limite) {
+        if (limite == null) {
+            throw new ValidacionException("El limite es obligatorio.");
+        }
+        long l = limite.toEpochMilli();
+        for (String codigo : series.keySet()) {
+            // compute es atomico por clave: no borra una serie a la que justo le llega una alta
+            series.computeIfPresent(codigo, (c, s) -> {
+                s.descartarAntesDe(l);
+                return s.vencida(l) ? null : s;
+            });
+        }
+    }
+
+    /** Cambios de stock retenidos, sumando todos los productos. */
+    public long getEventos() {
+        long n = 0;
+        for (SerieStock s : series.values()) {
+            n += s.eventos();
+        }
+        return n;
+    }
+
+    /** Productos con historia retenida, incluidos los eliminados que aun no vencieron. */
+    public int getProductos() {
+        return series.size();
+    }
+
+    /** Deja de registrar. Lo ya registrado sigue consultable. */
+    @Override
+    public void close() {
+        inventario.quitarObservador(observador);
+    }
+
+    private long limite(long ahora) {
+        return retencionMs == Long.MAX_VALUE ? Long.MIN_VALUE : ahora - retencionMs;
+    }
+
+    // Se invoca bajo el bloqueo del codigo: los eventos de un mismo producto llegan en orden
+    private class Registrador implements ObservadorInventario {
+        @Override
+        public void productoAgregado(Producto p) {
+            long ahora = reloj.millis();
+            series.compute(p.getCodigo(), (c, s) -> {
+                if (s == null) return new SerieStock(ahora, p.getStock());
+                s.alta(ahora, p.getStock(), limite(ahora));
+                return s;
+            });
+        }
+
+        @Override
+        public void productoEliminado(Producto p) {
+            SerieStock s = series.get(p.getCodigo());
+            if (s != null) {
+                long ahora = reloj.millis();
+                s.baja(ahora, limite(ahora));
+            }
+        }
+
+        @Override
+        public void stockCambiado(Producto p, int anterior, int nuevo) {
+            long ahora = reloj.millis();
+            series.computeIfAbsent(p.getCodigo(), c -> new SerieStock(ahora, anterior)).cambio(ahora, nuevo, limite(ahora));
+        }
+    }
+}
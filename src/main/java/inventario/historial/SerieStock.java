@@ -0,0 +1,237 @@
+package inventario.historial;
+
+import java.util.Arrays;
+
+/**
+ * Historia del stock de un producto, en bloques de hasta {@link #BLOQUE} bytes donde solo se
+ * agrega al final. Cada evento se guarda como dos varints: el tiempo desde el evento anterior en
+ * milisegundos (con un bit que marca altas y bajas del producto) y el cambio de stock en zigzag.
+ *
+ * Cada bloque empieza con un punto de control sin codificar (instante y stock antes de su primer
+ * evento), asi que el stock en un instante se obtiene decodificando un solo bloque, y descartar
+ * la historia vieja es soltar bloques enteros del principio. Cada bloque guarda ademas sus
+ * entradas y salidas, para sumar intervalos sin decodificar los bloques que caen completos.
+ *
+ * El bloque abierto crece de a poco y al cerrarse se recorta a su largo exacto.
+ */
+final class SerieStock {
+    static final int BLOQUE = 256;
+    static final int AUSENTE = -1;
+    // Dos varints de hasta 10 bytes
+    private static final int MAX_EVENTO = 20;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    // Por bloque. stocksBase vale AUSENTE si al empezar el bloque el producto no estaba en el inventario
+    private long[] inicios = new long[1];
+    private int[] stocksBase = new int[1];
+    private byte[][] datos = new byte[1][];
+    private int[] largos = new int[1];
+    private long[] entradas = new long[1];
+    private long[] salidas = new long[1];
+    private int[] movimientos = new int[1];
+    private int bloques;
+
+    private long ultimoInstante;
+    private int stock;
+
+    SerieStock(long instante, int stock) {
+        this.ultimoInstante = instante;
+        this.stock = stock;
+        abrirBloque(instante);
+    }
+
+    synchronized void cambio(long instante, int nuevo, long limite) {
+        if (stock == AUSENTE || nuevo == stock) return;
+        agregar(instante, (long) nuevo - stock, false, limite);
+        stock = nuevo;
+    }
+
+    synchronized void alta(long instante, int nuevo, long limite) {
+        if (stock != AUSENTE) {
+            cambio(instante, nuevo, limite);
+            return;
+        }
+        agregar(instante, nuevo, true, limite);
+        stock = nuevo;
+    }
+
+    synchronized void baja(long instante, long limite) {
+        if (stock == AUSENTE) return;
+        agregar(instante, -stock, true, limite);
+        stock = AUSENTE;
+    }
+
+    private void agregar(long instante, long delta, boolean marca, long limite) {
+        long t = Math.max(instante, ultimoInstante);
+        int b = bloques - 1;
+        if (largos[b] + MAX_EVENTO > BLOQUE) {
+            datos[b] = Arrays.copyOf(datos[b], largos[b]);
+            abrirBloque(t);
+            descartarAntesDe(limite);
+            b = bloques - 1;
+        }
+        if (largos[b] + MAX_EVENTO > datos[b].length) {
+            datos[b] = Arrays.copyOf(datos[b], Math.min(BLOQUE, datos[b].length * 2));
+        }
+        int pos = escribirVarint(datos[b], largos[b], ((t - ultimoInstante) << 1) | (marca ? 1 : 0));
+        largos[b] = escribirVarint(datos[b], pos, (delta << 1) ^ (delta >> 63));
+        if (!marca) {
+            if (delta > 0) entradas[b] += delta;
+            else salidas[b] -= delta;
+            movimientos[b]++;
+        }
+        ultimoInstante = t;
+    }
+
+    private void abrirBloque(long instante) {
+        if (bloques == inicios.length) {
+            int n = bloques + (bloques >> 1) + 1;
+            inicios = Arrays.copyOf(inicios, n);
+            stocksBase = Arrays.copyOf(stocksBase, n);
+            datos = Arrays.copyOf(datos, n);
+            largos = Arrays.copyOf(largos, n);
+            entradas = Arrays.copyOf(entradas, n);
+            salidas = Arrays.copyOf(salidas, n);
+            movimientos = Arrays.copyOf(movimientos, n);
+        }
+        inicios[bloques] = instante;
+        stocksBase[bloques] = stock;
+        datos[bloques] = new byte[CAPACIDAD_INICIAL];
+        largos[bloques] = 0;
+        entradas[bloques] = 0;
+        salidas[bloques] = 0;
+        movimientos[bloques] = 0;
+        bloques++;
+        ultimoInstante = instante;
+    }
+
+    /**
+     * Suelta los bloques que terminan antes de {@code limite}: el stock sigue siendo exacto desde
+     * el inicio del primer bloque que queda, que es a lo sumo {@code limite}.
+     */
+    synchronized void descartarAntesDe(long limite) {
+        int k = 0;
+        while (k + 1 < bloques && inicios[k + 1] <= limite) {
+            k++;
+        }
+        if (k == 0) return;
+        int quedan = bloques - k;
+        System.arraycopy(inicios, k, inicios, 0, quedan);
+        System.arraycopy(stocksBase, k, stocksBase, 0, quedan);
+        System.arraycopy(datos, k, datos, 0, quedan);
+        System.arraycopy(largos, k, largos, 0, quedan);
+        System.arraycopy(entradas, k, entradas, 0, quedan);
+        System.arraycopy(salidas, k, salidas, 0, quedan);
+        System.arraycopy(movimientos, k, movimientos, 0, quedan);
+        Arrays.fill(datos, quedan, bloques, null);
+        bloques = quedan;
+    }
+
+    /** True si el producto ya no esta y su ultimo evento es anterior a {@code limite}: la serie no aporta nada. */
+    synchronized boolean vencida(long limite) {
+        return stock == AUSENTE && ultimoInstante < limite;
+    }
+
+    /** Stock en el instante, o AUSENTE si el producto no estaba o la historia no llega hasta ahi. */
+    synchronized int stockEn(long instante) {
+        int b = ultimoBloqueHasta(instante);
+        if (b < 0) return AUSENTE;
+        int s = stocksBase[b];
+        boolean presente = s != AUSENTE;
+        if (!presente) s = 0;
+        byte[] d = datos[b];
+        long t = inicios[b];
+        int pos = 0;
+        long[] v = new long[1];
+        while (pos < largos[b]) {
+            pos = leerVarint(d, pos, v);
+            t += v[0] >>> 1;
+            if (t > instante) break;
+            boolean marca = (v[0] & 1) != 0;
+            pos = leerVarint(d, pos, v);
+            s += (int) ((v[0] >>> 1) ^ -(v[0] & 1));
+            if (marca) presente = !presente;
+        }
+        return presente ? s : AUSENTE;
+    }
+
+    /** Suma en {@code acumulado} (entradas, salidas, movimientos) los cambios de stock en [desde, hasta). */
+    synchronized void sumarMovimientos(long desde, long hasta, long[] acumulado) {
+        // Desde el bloque anterior a desde: eventos del mismo milisegundo pueden quedar a ambos lados del corte
+        int b = Math.max(0, ultimoBloqueHasta(desde - 1));
+        for (; b < bloques && inicios[b] < hasta; b++) {
+            // Los eventos del bloque caen en [inicio, inicio del siguiente]
+            long fin = b + 1 < bloques ? inicios[b + 1] : ultimoInstante;
+            if (fin < desde) continue;
+            if (inicios[b] >= desde && fin < hasta) {
+                acumulado[0] += entradas[b];
+                acumulado[1] += salidas[b];
+                acumulado[2] += movimientos[b];
+                continue;
+            }
+            byte[] d = datos[b];
+            long t = inicios[b];
+            int pos = 0;
+            long[] v = new long[1];
+            while (pos < largos[b]) {
+                pos = leerVarint(d, pos, v);
+                t += v[0] >>> 1;
+                boolean marca = (v[0] & 1) != 0;
+                pos = leerVarint(d, pos, v);
+                if (t >= hasta) break;
+                if (marca || t < desde) continue;
+                long delta = (v[0] >>> 1) ^ -(v[0] & 1);
+                if (delta > 0) acumulado[0] += delta;
+                else acumulado[1] -= delta;
+                acumulado[2]++;
+            }
+        }
+    }
+
+    synchronized long eventos() {
+        long n = 0;
+        for (int b = 0; b < bloques; b++) {
+            n += movimientos[b];
+        }
+        return n;
+    }
+
+    // Ultimo bloque que empieza en o antes del instante; -1 si todos empiezan despues
+    private int ultimoBloqueHasta(long instante) {
+        int lo = 0;
+        int hi = bloques - 1;
+        int res = -1;
+        while (lo <= hi) {
+            int m = (lo + hi) >>> 1;
+            if (inicios[m] <= instante) {
+                res = m;
+                lo = m + 1;
+            } else {
+                hi = m - 1;
+            }
+        }
+        return res;
+    }
+
+    private static int escribirVarint(byte[] d, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            d[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        d[pos++] = (byte) v;
+        return pos;
+    }
+
+    private static int leerVarint(byte[] d, int pos, long[] v) {
+        long res = 0;
+        int corrimiento = 0;
+        byte b;
+        do {
+            b = d[pos++];
+            res |= (long) (b & 0x7F) << corrimiento;
+            corrimiento += 7;
+        } while (b < 0);
+        v[0] = res;
+        return pos;
+    }
+}
@@ -0,0 +1,159 @@
+package inventario.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import inventario.dto.ReporteCarga;
+import inventario.excepciones.ValidacionException;
+
+/**
+ * Cliente de carga para {@link ServidorHttp}: {@code clientes} hilos virtuales envian solicitudes
+ * sin pausa durante {@code duracion}. La mezcla es 80% GET /productos/{codigo}, 10% busquedas y
+ * 10% PUT de stock, sobre los codigos de la primera pagina del listado.
+ *
+ * Uso: java -cp target/classes inventario.http.ClienteCarga http://localhost:8080 64 10
+ */
+public class ClienteCarga {
+    private static final Pattern CODIGO = Pattern.compile("\"codigo\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final URI base;
+    private final int clientes;
+    private final Duration duracion;
+
+    public ClienteCarga(URI base, int clientes, Duration duracion) {
+        if (base == null || clientes < 1 || duracion == null || duracion.isNegative() || duracion.isZero()) {
+            throw new ValidacionException("Se necesita una URI, clientes > 0 y una duracion positiva.");
+        }
+        this.base = base;
+        this.clientes = clientes;
+        this.duracion = duracion;
+    }
+
+    public ReporteCarga ejecutar() throws IOException, InterruptedException {
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(hilos).connectTimeout(Duration.ofSeconds(5)).build();
+            List<String> codigos = codigos(http);
+
+            long t0 = System.nanoTime();
+            long fin = t0 + duracion.toNanos();
+            List<Future<Medicion>> futuros = new ArrayList<>(clientes);
+            for (int i = 0; i < clientes; i++) {
+                futuros.add(hilos.submit(() -> cliente(http, codigos, fin)));
+            }
+            List<Medicion> mediciones = new ArrayList<>(clientes);
+            int total = 0;
+            long errores = 0;
+            for (Future<Medicion> f : futuros) {
+                Medicion m = esperar(f);
+                mediciones.add(m);
+                total += m.cantidad;
+                errores += m.errores;
+            }
+            long nanos = System.nanoTime() - t0;
+            long[] latencias = new long[total];
+            int pos = 0;
+            for (Medicion m : mediciones) {
+                System.arraycopy(m.latencias, 0, latencias, pos, m.cantidad);
+                pos += m.cantidad;
+            }
+            Arrays.sort(latencias);
+            return new ReporteCarga(total, errores, nanos, percentil(latencias, 50), percentil(latencias, 99),
+                percentil(latencias, 99.9), total == 0 ? 0 : latencias[total - 1]);
+        }
+    }
+
+    private List<String> codigos(HttpClient http) throws IOException, InterruptedException {
+        HttpResponse<String> r = http.send(HttpRequest.newBuilder(base.resolve("/productos?limite=1000")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        List<String> res = new ArrayList<>();
+        Matcher m = CODIGO.matcher(r.body());
+        while (m.find()) {
+            res.add(m.group(1));
+        }
+        if (res.isEmpty()) {
+            throw new ValidacionException("El inventario del servidor esta vacio: no hay codigos para consultar.");
+        }
+        return res;
+    }
+
+    private Medicion cliente(HttpClient http, List<String> codigos, long fin) {
+        Medicion m = new Medicion();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            String codigo = URLEncoder.encode(codigos.get(rnd.nextInt(codigos.size())), StandardCharsets.UTF_8);
+            int tipo = rnd.nextInt(10);
+            HttpRequest req;
+            if (tipo < 8) {
+                req = HttpRequest.newBuilder(base.resolve("/productos/" + codigo)).build();
+            } else if (tipo == 8) {
+                req = HttpRequest.newBuilder(base.resolve("/buscar?q=" + codigo)).build();
+            } else {
+                String cuerpo = "{\"stock\":" + rnd.nextInt(1_000) + "}";
+                req = HttpRequest.newBuilder(base.resolve("/productos/" + codigo))
+                    .PUT(HttpRequest.BodyPublishers.ofString(cuerpo)).build();
+            }
+            long t0 = System.nanoTime();
+            boolean error;
+            try {
+                error = http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500;
+            } catch (IOException e) {
+                error = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            m.registrar(System.nanoTime() - t0, error);
+        }
+        return m;
+    }
+
+    private static Medicion esperar(Future<Medicion> f) throws InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo un cliente de carga.", e.getCause());
+        }
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.ceil(ordenadas.length * p / 100.0) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))];
+    }
+
+    // Latencias de un cliente; solo la usa su hilo hasta que termina
+    private static class Medicion {
+        long[] latencias = new long[1_024];
+        int cantidad;
+        long errores;
+
+        void registrar(long nanos, boolean error) {
+            if (cantidad == latencias.length) latencias = Arrays.copyOf(latencias, cantidad * 2);
+            latencias[cantidad++] = nanos;
+            if (error) errores++;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI base = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        System.out.println(new ClienteCarga(base, clientes, Duration.ofSeconds(segundos)).ejecutar());
+    }
+}
@@ -0,0 +1,209 @@
+package inventario.http;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import inventario.dto.PaginaProductos;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * JSON minimo para la API: escribe los DTO del inventario y lee objetos planos
+ * (sin anidar) cuyos valores son textos, numeros, booleanos o null. El escape de textos
+ * tambien lo usa la exportacion JSON lines.
+ */
+public final class Json {
+
+    private Json() {
+
+    }
+
+    static String producto(Producto p) {
+        return producto(new StringBuilder(128), p).toString();
+    }
+
+    static String productos(List<Producto> ps) {
+        return lista(new StringBuilder(ps.size() * 96 + 2), ps).toString();
+    }
+
+    static String pagina(PaginaProductos p) {
+        StringBuilder sb = new StringBuilder(p.getProductos().size() * 96 + 48);
+        sb.append("{\"productos\":");
+        lista(sb, p.getProductos());
+        sb.append(",\"siguiente\":");
+        texto(sb, p.getSiguienteCursor());
+        return sb.append('}').toString();
+    }
+
+    static String resumen(ResumenInventario r) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"cantidadProductos\":").append(r.getCantidadProductos())
+            .append(",\"totalItems\":").append(r.getTotalItems())
+            .append(",\"valorTotal\":").append(r.getValorTotal().toPlainString())
+            .append(",\"topPorStock\":");
+        lista(sb, r.getTopPorStock());
+        sb.append(",\"stockBajo\":");
+        lista(sb, r.getStockBajo());
+        return sb.append('}').toString();
+    }
+
+    static String error(String mensaje) {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        texto(sb, mensaje);
+        return sb.append('}').toString();
+    }
+
+    private static StringBuilder lista(StringBuilder sb, List<Producto> ps) {
+        sb.append('[');
+        for (int i = 0; i < ps.size(); i++) {
+            if (i > 0) sb.append(',');
+            producto(sb, ps.get(i));
+        }
+        return sb.append(']');
+    }
+
+    private static StringBuilder producto(StringBuilder sb, Producto p) {
+        sb.append("{\"codigo\":");
+        texto(sb, p.getCodigo());
+        sb.append(",\"nombre\":");
+        texto(sb, p.getNombre());
+        sb.append(",\"descripcion\":");
+        texto(sb, p.getDescripcion());
+        sb.append(",\"precio\":").append(p.getPrecio().toPlainString());
+        sb.append(",\"stock\":").append(p.getStock());
+        return sb.append('}');
+    }
+
+    /** Agrega s como texto JSON entre comillas y escapado, o null si s es null. */
+    public static void texto(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Lee un objeto plano. Los textos se devuelven sin comillas ni escapes; numeros y booleanos
+     * como aparecen; null como null.
+     */
+    static Map<String, String> leerObjeto(String json) {
+        Lector l = new Lector(json);
+        Map<String, String> res = new HashMap<>();
+        l.saltarEspacios();
+        l.esperar('{');
+        l.saltarEspacios();
+        if (l.mirar() == '}') {
+            l.pos++;
+        } else {
+            while (true) {
+                l.saltarEspacios();
+                String clave = l.leerTexto();
+                l.saltarEspacios();
+                l.esperar(':');
+                l.saltarEspacios();
+                res.put(clave, l.leerValor());
+                l.saltarEspacios();
+                char c = l.siguiente();
+                if (c == '}') break;
+                if (c != ',') throw new ValidacionException("JSON invalido: se esperaba ',' o '}' en " + (l.pos - 1));
+            }
+        }
+        l.saltarEspacios();
+        if (l.pos != json.length()) {
+            throw new ValidacionException("JSON invalido: contenido despues del objeto.");
+        }
+        return res;
+    }
+
+    private static class Lector {
+        final String s;
+        int pos;
+
+        Lector(String s) {
+            this.s = s;
+        }
+
+        char mirar() {
+            if (pos >= s.length()) throw new ValidacionException("JSON invalido: fin inesperado.");
+            return s.charAt(pos);
+        }
+
+        char siguiente() {
+            char c = mirar();
+            pos++;
+            return c;
+        }
+
+        void esperar(char c) {
+            if (siguiente() != c) throw new ValidacionException("JSON invalido: se esperaba '" + c + "' en " + (pos - 1));
+        }
+
+        void saltarEspacios() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        String leerValor() {
+            char c = mirar();
+            if (c == '"') return leerTexto();
+            if (c == '{' || c == '[') throw new ValidacionException("JSON invalido: no se aceptan valores anidados.");
+            int inicio = pos;
+            while (pos < s.length() && ",} \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String crudo = s.substring(inicio, pos);
+            if (crudo.isEmpty()) throw new ValidacionException("JSON invalido: valor vacio en " + inicio);
+            return crudo.equals("null") ? null : crudo;
+        }
+
+        String leerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = siguiente();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = siguiente();
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) throw new ValidacionException("JSON invalido: escape \\u incompleto.");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new ValidacionException("JSON invalido: escape \\u" + s.substring(pos, pos + 4));
+                        }
+                        pos += 4;
+                    }
+                    default -> throw new ValidacionException("JSON invalido: escape \\" + e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package inventario.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * API HTTP/JSON sobre un {@link Inventario} CONCURRENTE, con un hilo virtual por solicitud.
+ *
+ * <pre>
+ * POST   /productos                      alta; cuerpo {codigo, nombre, descripcion?, precio, stock?}
+ * GET    /productos?despues=X&amp;limite=N   pagina en orden de codigo (limite por defecto 50, maximo 1000)
+ * GET    /productos/{codigo}             un producto
+ * PUT    /productos/{codigo}             cambia los campos presentes: nombre, descripcion, precio, stock
+ * DELETE /productos/{codigo}             baja
+ * GET    /buscar?q=texto                 busqueda por nombre o descripcion
+ * GET    /autocompletar?q=prefijo&amp;k=N   hasta N nombres que empiezan con el prefijo (por defecto 10)
+ * GET    /resumen?top=N&amp;umbral=U         resumen del inventario
+ * </pre>
+ *
+ * Los errores de validacion responden 400, los codigos inexistentes 404 y cualquier otro error 500,
+ * siempre con {"error": mensaje}.
+ *
+ * La JVM debe lanzarse con {@code -Dsun.net.httpserver.nodelay=true} (App lo fija al arrancar):
+ * sin TCP_NODELAY la respuesta, que sale en dos escrituras, choca con el ACK retardado del cliente
+ * y cada solicitud espera ~40 ms. El servidor del JDK lee la propiedad una sola vez, al cargarse.
+ */
+public class ServidorHttp implements Closeable {
+    private static final int MAX_CUERPO = 64 * 1024;
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_MAXIMO = 1_000;
+
+    private final Inventario inventario;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    /** Abre el puerto (0 elige uno libre) y empieza a atender. */
+    public ServidorHttp(Inventario inventario, int puerto) throws IOException {
+        if (inventario == null || inventario.getModo() != ModoInventario.CONCURRENTE) {
+            throw new ValidacionException("El servidor necesita un inventario en modo CONCURRENTE.");
+        }
+        this.inventario = inventario;
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        servidor.setExecutor(hilos);
+        servidor.createContext("/productos", this::productos);
+        servidor.createContext("/buscar", this::buscar);
+        servidor.createContext("/autocompletar", this::autocompletar);
+        servidor.createContext("/resumen", this::resumen);
+        servidor.start();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /** Deja de aceptar conexiones y espera hasta 1 segundo a las solicitudes en curso. */
+    @Override
+    public void close() {
+        servidor.stop(1);
+        hilos.close();
+    }
+
+    private void productos(HttpExchange ex) {
+        responder(ex, () -> {
+            String ruta = ex.getRequestURI().getRawPath();
+            String metodo = ex.getRequestMethod();
+            if (ruta.equals("/productos") || ruta.equals("/productos/")) {
+                return switch (metodo) {
+                    case "GET" -> listar(consulta(ex));
+                    case "POST" -> agregar(leerCuerpo(ex));
+                    default -> noPermitido(ex);
+                };
+            }
+            String codigo = URLDecoder.decode(ruta.substring("/productos/".length()), StandardCharsets.UTF_8);
+            return switch (metodo) {
+                case "GET" -> inventario.buscarPorId(codigo)
+                    .map(p -> new Respuesta(200, Json.producto(p)))
+                    .orElseThrow(() -> new ProductoNoEncontradoException(codigo));
+                case "PUT" -> actualizar(codigo, leerCuerpo(ex));
+                case "DELETE" -> {
+                    if (!inventario.eliminarProducto(codigo)) throw new ProductoNoEncontradoException(codigo);
+                    yield new Respuesta(204, null);
+                }
+                default -> noPermitido(ex);
+            };
+        });
+    }
+
+    private Respuesta listar(Map<String, String> q) {
+        int limite = entero(q.get("limite"), LIMITE_POR_DEFECTO, "limite");
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidacionException("El limite debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        return new Respuesta(200, Json.pagina(inventario.listarPagina(q.get("despues"), limite)));
+    }
+
+    private Respuesta agregar(Map<String, String> cuerpo) {
+        Producto p = new Producto(cuerpo.get("codigo"), cuerpo.get("nombre"), cuerpo.get("descripcion"),
+            decimal(cuerpo.get("precio"), "precio"), entero(cuerpo.get("stock"), 0, "stock"));
+        inventario.agregarProducto(p);
+        return new Respuesta(201, Json.producto(p));
+    }
+
+    private Respuesta actualizar(String codigo, Map<String, String> cuerpo) {
+        AtomicReference<String> json = new AtomicReference<>();
+        inventario.actualizarProducto(codigo, p -> {
+            // Valida todos los campos con una copia antes de tocar el original, asi no queda a medias
+            Producto nuevo = new Producto(p.getCodigo(),
+                cuerpo.containsKey("nombre") ? cuerpo.get("nombre") : p.getNombre(),
+                cuerpo.containsKey("descripcion") ? cuerpo.get("descripcion") : p.getDescripcion(),
+                cuerpo.containsKey("precio") ? decimal(cuerpo.get("precio"), "precio") : p.getPrecio(),
+                cuerpo.containsKey("stock") ? entero(cuerpo.get("stock"), 0, "stock") : p.getStock());
+            if (!nuevo.getNombre().equals(p.getNombre())) p.setNombre(nuevo.getNombre());
+            if (!nuevo.getDescripcion().equals(p.getDescripcion())) p.setDescripcion(nuevo.getDescripcion());
+            if (nuevo.getPrecioCentavos() != p.getPrecioCentavos()) p.setPrecioCentavos(nuevo.getPrecioCentavos());
+            if (nuevo.getStock() != p.getStock()) p.setStock(nuevo.getStock());
+            json.set(Json.producto(p));
+        });
+        return new Respuesta(200, json.get());
+    }
+
+    private void buscar(HttpExchange ex) {
+        responder(ex, () -> {
+            if (!ex.getRequestMethod().equals("GET")) return noPermitido(ex);
+            return new Respuesta(200, Json.productos(inventario.buscarPorTexto(consulta(ex).get("q"))));
+        });
+    }
+
+    private void autocompletar(HttpExchange ex) {
+        responder(ex, () -> {
+            if (!ex.getRequestMethod().equals("GET")) return noPermitido(ex);
+            Map<String, String> q = consulta(ex);
+            int k = entero(q.get("k"), 10, "k");
+            if (k > LIMITE_MAXIMO) {
+                throw new ValidacionException("k no puede superar " + LIMITE_MAXIMO + ".");
+            }
+            return new Respuesta(200, Json.productos(inventario.autocompletar(q.get("q"), k)));
+        });
+    }
+
+    private void resumen(HttpExchange ex) {
+        responder(ex, () -> {
+            if (!ex.getRequestMethod().equals("GET")) return noPermitido(ex);
+            Map<String, String> q = consulta(ex);
+            return new Respuesta(200, Json.resumen(inventario.generarResumen(entero(q.get("top"), 3, "top"),
+                entero(q.get("umbral"), 0, "umbral"))));
+        });
+    }
+
+    private record Respuesta(int estado, String cuerpo) {
+    }
+
+    private interface Accion {
+        Respuesta ejecutar() throws IOException;
+    }
+
+    private static void responder(HttpExchange ex, Accion accion) {
+        try (ex) {
+            Respuesta r;
+            try {
+                r = accion.ejecutar();
+            } catch (ValidacionException e) {
+                r = new Respuesta(400, Json.error(e.getMessage()));
+            } catch (ProductoNoEncontradoException e) {
+                r = new Respuesta(404, Json.error(e.getMessage()));
+            } catch (RuntimeException e) {
+                r = new Respuesta(500, Json.error("Error interno: " + e.getMessage()));
+            }
+            if (r.cuerpo() == null) {
+                ex.sendResponseHeaders(r.estado(), -1);
+                return;
+            }
+            byte[] bytes = r.cuerpo().getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(r.estado(), bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // El cliente corto la conexion: no hay a quien responder
+        }
+    }
+
+    private static Respuesta noPermitido(HttpExchange ex) {
+        return new Respuesta(405, Json.error("Metodo no permitido: " + ex.getRequestMethod()));
+    }
+
+    private static Map<String, String> leerCuerpo(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_CUERPO + 1);
+            if (bytes.length > MAX_CUERPO) {
+                throw new ValidacionException("El cuerpo supera " + MAX_CUERPO + " bytes.");
+            }
+            return Json.leerObjeto(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> consulta(HttpExchange ex) {
+        Map<String, String> res = new HashMap<>();
+        String crudo = ex.getRequestURI().getRawQuery();
+        if (crudo == null || crudo.isEmpty()) return res;
+        for (String par : crudo.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            res.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return res;
+    }
+
+    private static int entero(String s, int porDefecto, String campo) {
+        if (s == null || s.isEmpty()) return porDefecto;
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidacionException("Valor invalido para " + campo + ": " + s);
+        }
+    }
+
+    private static BigDecimal decimal(String s, String campo) {
+        if (s == null) throw new ValidacionException("Falta el campo " + campo + ".");
+        BigDecimal bd;
+        try {
+            bd = new BigDecimal(s.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidacionException("Valor invalido para " + campo + ": " + s);
+        }
+        // Parsear "1e50000000" es barato; operar con el no: se rechaza antes de que llegue al modelo
+        if (bd.precision() - bd.scale() > 18 || bd.scale() > 18) {
+            throw new ValidacionException("Valor fuera de rango para " + campo + ": " + s);
+        }
+        return bd;
+    }
+}
@@ -0,0 +1,319 @@
+package inventario.importacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import inventario.core.Inventario;
+import inventario.dto.ReporteImportacion;
+import inventario.dto.ReporteImportacion.ErrorFila;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Importacion masiva desde CSV con columnas codigo;nombre;descripcion;precio;stock.
+ *
+ * El hilo que llama lee el archivo por lotes de lineas; el parseo y la construccion de cada
+ * Producto se reparten entre hilos de trabajo. Los lotes se insertan en el orden del archivo
+ * (con la carga masiva del inventario), y como nunca hay mas de 2 lotes por hilo en vuelo la
+ * memoria queda acotada. Las filas invalidas se anotan en el reporte en vez de cortar la importacion.
+ *
+ * Acepta una cabecera opcional (primera linea que empiece con "codigo"), campos entre comillas
+ * dobles y coma como separador decimal en el precio. Cada fila ocupa una sola linea.
+ */
+public class ImportadorCsv {
+    private static final char SEPARADOR = ';';
+    private static final int COLUMNAS = 5;
+    private static final int MAX_ERRORES_DETALLADOS = 1_000;
+
+    private final int hilos;
+    private final int tamanoLote;
+    private final PoliticaDuplicados enArchivo;
+    private final PoliticaDuplicados existentes;
+
+    public ImportadorCsv() {
+        this(Runtime.getRuntime().availableProcessors(), 1_000, PoliticaDuplicados.RECHAZAR, PoliticaDuplicados.RECHAZAR);
+    }
+
+    /**
+     * @param enArchivo politica para un codigo repetido dentro del mismo archivo
+     * @param existentes politica para un codigo que ya estaba en el inventario
+     */
+    public ImportadorCsv(int hilos, int tamanoLote, PoliticaDuplicados enArchivo, PoliticaDuplicados existentes) {
+        if (hilos < 1 || tamanoLote < 1) {
+            throw new ValidacionException("Hilos y tamano de lote deben ser > 0.");
+        }
+        if (enArchivo == null || existentes == null) {
+            throw new ValidacionException("Las politicas de duplicados son obligatorias.");
+        }
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+        this.enArchivo = enArchivo;
+        this.existentes = existentes;
+    }
+
+    public ReporteImportacion importar(Path archivo, Inventario inventario) throws IOException {
+        try (Reader r = new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8)) {
+            return importar(r, inventario);
+        }
+    }
+
+    public ReporteImportacion importar(Reader origen, Inventario inventario) throws IOException {
+        long t0 = System.nanoTime();
+        Acumulador acc = new Acumulador(inventario);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread t = new Thread(r, "importador-csv");
+            t.setDaemon(true);
+            return t;
+        });
+        try (BufferedReader in = new BufferedReader(origen, 1 << 20)) {
+            ArrayDeque<Future<Lote>> enVuelo = new ArrayDeque<>();
+            long numero = 0;
+            List<String> lineas = new ArrayList<>(tamanoLote);
+            long primera = 1;
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                numero++;
+                if (numero == 1 && esCabecera(linea)) {
+                    primera = 2;
+                    continue;
+                }
+                lineas.add(linea);
+                if (lineas.size() == tamanoLote) {
+                    enVuelo.add(enviar(pool, lineas, primera));
+                    primera = numero + 1;
+                    lineas = new ArrayList<>(tamanoLote);
+                    // Limita los lotes en memoria: antes de leer mas se inserta el mas antiguo
+                    while (enVuelo.size() >= hilos * 2) {
+                        acc.insertar(esperar(enVuelo.poll()));
+                    }
+                }
+            }
+            if (!lineas.isEmpty()) {
+                enVuelo.add(enviar(pool, lineas, primera));
+            }
+            while (!enVuelo.isEmpty()) {
+                acc.insertar(esperar(enVuelo.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return acc.reporte(System.nanoTime() - t0);
+    }
+
+    private static boolean esCabecera(String linea) {
+        return linea.stripLeading().toLowerCase(Locale.ROOT).startsWith("codigo");
+    }
+
+    private static Future<Lote> enviar(ExecutorService pool, List<String> lineas, long primera) {
+        return pool.submit(() -> parsear(lineas, primera));
+    }
+
+    private static Lote esperar(Future<Lote> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importacion interrumpida.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Fallo al procesar un lote.", e.getCause());
+        }
+    }
+
+    // Se ejecuta en los hilos de trabajo: no toca el inventario
+    private static Lote parsear(List<String> lineas, long primera) {
+        Lote lote = new Lote(lineas.size());
+        long numero = primera;
+        for (String linea : lineas) {
+            try {
+                if (!linea.isBlank()) {
+                    lote.productos.add(crear(campos(linea)));
+                    lote.lineas.add(numero);
+                }
+            } catch (ValidacionException e) {
+                lote.errores.add(new ErrorFila(numero, e.getMessage()));
+            }
+            numero++;
+        }
+        return lote;
+    }
+
+    private static Producto crear(List<String> c) {
+        if (c.size() != COLUMNAS) {
+            throw new ValidacionException("Se esperaban " + COLUMNAS + " columnas y hay " + c.size() + ".");
+        }
+        BigDecimal precio;
+        try {
+            precio = new BigDecimal(c.get(3).trim().replace(",", "."));
+        } catch (NumberFormatException e) {
+            throw new ValidacionException("Precio invalido: " + c.get(3));
+        }
+        int stock;
+        try {
+            stock = Integer.parseInt(c.get(4).trim());
+        } catch (NumberFormatException e) {
+            throw new ValidacionException("Stock invalido: " + c.get(4));
+        }
+        return new Producto(c.get(0), c.get(1), c.get(2), precio, stock);
+    }
+
+    static List<String> campos(String linea) {
+        List<String> res = new ArrayList<>(COLUMNAS);
+        StringBuilder actual = new StringBuilder();
+        boolean comillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char ch = linea.charAt(i);
+            if (comillas) {
+                if (ch == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        comillas = false;
+                    }
+                } else {
+                    actual.append(ch);
+                }
+            } else if (ch == '"') {
+                comillas = true;
+            } else if (ch == SEPARADOR) {
+                res.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(ch);
+            }
+        }
+        if (comillas) {
+            throw new ValidacionException("Comillas sin cerrar.");
+        }
+        res.add(actual.toString());
+        return res;
+    }
+
+    private static class Lote {
+        final List<Producto> productos;
+        final List<Long> lineas;
+        final List<ErrorFila> errores = new ArrayList<>();
+
+        Lote(int capacidad) {
+            productos = new ArrayList<>(capacidad);
+            lineas = new ArrayList<>(capacidad);
+        }
+    }
+
+    // Aplica los lotes al inventario en orden de archivo; solo lo usa el hilo que importa
+    private class Acumulador {
+        private final Inventario inventario;
+        private final Set<String> vistos = new HashSet<>();
+        private final List<ErrorFila> errores = new ArrayList<>();
+        private long filas;
+        private long agregados;
+        private long sobrescritos;
+        private long omitidos;
+        private long cantidadErrores;
+
+        Acumulador(Inventario inventario) {
+            this.inventario = inventario;
+        }
+
+        void insertar(Lote lote) {
+            filas += lote.productos.size() + lote.errores.size();
+            for (ErrorFila e : lote.errores) {
+                error(e);
+            }
+            List<Producto> nuevos = new ArrayList<>(lote.productos.size());
+            List<Long> lineasNuevos = new ArrayList<>(lote.productos.size());
+            Set<String> enEsteLote = new HashSet<>();
+            for (int i = 0; i < lote.productos.size(); i++) {
+                Producto p = lote.productos.get(i);
+                long linea = lote.lineas.get(i);
+                boolean repetidoEnArchivo = !vistos.add(p.getCodigo());
+                if (!repetidoEnArchivo && !inventario.contiene(p.getCodigo())) {
+                    nuevos.add(p);
+                    lineasNuevos.add(linea);
+                    enEsteLote.add(p.getCodigo());
+                    continue;
+                }
+                PoliticaDuplicados politica = repetidoEnArchivo ? enArchivo : existentes;
+                if (politica == PoliticaDuplicados.SOBRESCRIBIR && enEsteLote.remove(p.getCodigo())) {
+                    // El original sigue pendiente en este lote: se inserta antes de pisarlo
+                    agregarLote(nuevos, lineasNuevos);
+                    nuevos = new ArrayList<>();
+                    lineasNuevos = new ArrayList<>();
+                }
+                aplicarPolitica(politica, p, linea, repetidoEnArchivo
+                    ? "Codigo repetido en el archivo: " + p.getCodigo()
+                    : "Ya esiste un producto con el codigo " + p.getCodigo());
+            }
+            agregarLote(nuevos, lineasNuevos);
+        }
+
+        private void aplicarPolitica(PoliticaDuplicados politica, Producto p, long linea, String mensaje) {
+            switch (politica) {
+                case RECHAZAR -> error(new ErrorFila(linea, mensaje));
+                case OMITIR -> omitidos++;
+                case SOBRESCRIBIR -> sobrescribir(p, linea);
+            }
+        }
+
+        private void agregarLote(List<Producto> nuevos, List<Long> lineas) {
+            if (nuevos.isEmpty()) return;
+            try {
+                inventario.agregarProductos(nuevos);
+                agregados += nuevos.size();
+                return;
+            } catch (ValidacionException e) {
+                // Otro hilo inserto alguno de estos codigos despues de revisarlos: el lote no entro
+                // entero, asi que se inserta de a uno aplicando la politica a los que ya estan
+            }
+            for (int i = 0; i < nuevos.size(); i++) {
+                Producto p = nuevos.get(i);
+                try {
+                    inventario.agregarProducto(p);
+                    agregados++;
+                } catch (ValidacionException e) {
+                    aplicarPolitica(existentes, p, lineas.get(i), e.getMessage());
+                }
+            }
+        }
+
+        private void sobrescribir(Producto p, long linea) {
+            try {
+                inventario.actualizarProducto(p.getCodigo(), actual -> {
+                    actual.setNombre(p.getNombre());
+                    actual.setDescripcion(p.getDescripcion());
+                    actual.setPrecioCentavos(p.getPrecioCentavos());
+                    actual.setStock(p.getStock());
+                });
+                sobrescritos++;
+            } catch (RuntimeException e) {
+                error(new ErrorFila(linea, e.getMessage()));
+            }
+        }
+
+        private void error(ErrorFila e) {
+            cantidadErrores++;
+            if (errores.size() < MAX_ERRORES_DETALLADOS) errores.add(e);
+        }
+
+        ReporteImportacion reporte(long nanos) {
+            errores.sort((a, b) -> Long.compare(a.getLinea(), b.getLinea()));
+            return new ReporteImportacion(filas, agregados, sobrescritos, omitidos, cantidadErrores, errores, nanos);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package inventario.importacion;
+
+/**
+ * Que hacer con una fila cuyo codigo ya aparecio (antes en el mismo archivo o en el inventario).
+ * RECHAZAR la anota como error, OMITIR la descarta sin error y SOBRESCRIBIR reemplaza
+ * nombre, descripcion, precio y stock del producto existente.
+ */
+public enum PoliticaDuplicados {
+    RECHAZAR,
+    OMITIR,
+    SOBRESCRIBIR
+}
@@ -0,0 +1,92 @@
+package inventario.modelo;
+
+import java.lang.ref.WeakReference;
+import java.util.Locale;
+import java.util.WeakHashMap;
+
+/**
+ * Diccionario compartido de los nombres y descripciones de los productos: los textos iguales
+ * quedan en una sola instancia de String, y de cada texto distinto se guarda una vez su forma
+ * plegada a minusculas para las busquedas. Las entradas son debiles: cuando ningun producto usa
+ * un texto, el recolector lo libera y la entrada desaparece en el siguiente acceso al segmento.
+ *
+ * Esta repartido en segmentos con su propio lock para que las altas concurrentes no se frenen
+ * entre si.
+ */
+public final class DiccionarioTextos {
+    private static final int SEGMENTOS = 16;
+    private static final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    static {
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+    }
+
+    private DiccionarioTextos() {
+
+    }
+
+    // El valor no puede apuntar fuerte a la clave (si no, nunca se liberaria): guarda el texto
+    // canonico por referencia debil y la forma plegada solo si difiere del texto
+    private static class Entrada extends WeakReference<String> {
+        final String plegado;
+
+        Entrada(String texto, String plegado) {
+            super(texto);
+            this.plegado = plegado.equals(texto) ? null : plegado;
+        }
+
+        String plegado() {
+            String p = plegado;
+            return p != null ? p : get();
+        }
+    }
+
+    private static class Segmento {
+        final WeakHashMap<String, Entrada> entradas = new WeakHashMap<>();
+    }
+
+    private static Segmento segmento(String s) {
+        int h = s.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    /** La instancia compartida con el mismo contenido que {@code s}; la agrega si no estaba. */
+    public static String internar(String s) {
+        if (s == null) return null;
+        Segmento seg = segmento(s);
+        synchronized (seg) {
+            Entrada e = seg.entradas.get(s);
+            String canonico = e == null ? null : e.get();
+            if (canonico != null) return canonico;
+            seg.entradas.put(s, new Entrada(s, s.toLowerCase(Locale.ROOT)));
+            return s;
+        }
+    }
+
+    /**
+     * Forma plegada (minusculas, Locale.ROOT) de {@code s}. Para textos internados sale del
+     * diccionario sin calcular nada; para el resto (por ejemplo lo que se busca) se calcula y no se guarda.
+     */
+    public static String plegar(String s) {
+        Segmento seg = segmento(s);
+        String p;
+        synchronized (seg) {
+            Entrada e = seg.entradas.get(s);
+            p = e == null ? null : e.plegado();
+        }
+        return p != null ? p : s.toLowerCase(Locale.ROOT);
+    }
+
+    /** Cantidad de textos distintos vivos; de paso descarta las entradas ya liberadas. */
+    public static int tamano() {
+        int total = 0;
+        for (Segmento seg : segmentos) {
+            synchronized (seg) {
+                total += seg.entradas.size();
+            }
+        }
+        return total;
+    }
+}
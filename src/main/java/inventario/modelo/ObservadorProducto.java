@@ -0,0 +1,49 @@
+package inventario.modelo;
+
+/**
+ * Recibe los cambios de un {@link Producto} ya validados y aplicados.
+ * Lo usan las estructuras del inventario que dependen de sus campos.
+ */
+public interface ObservadorProducto {
+
+    /**
+     * Se invoca antes de aplicar cualquier cambio al producto. Si lanza, el cambio no se aplica
+     * y la excepcion le llega a quien lo pidio. Los avisos antesDeCambiar de cada campo traen
+     * ademas el valor que se va a aplicar; por defecto solo llaman a este.
+     */
+    default void antesDeCambiar(Producto p) {
+    }
+
+    default void antesDeCambiarNombre(Producto p, String nuevo) {
+        antesDeCambiar(p);
+    }
+
+    default void antesDeCambiarDescripcion(Producto p, String nueva) {
+        antesDeCambiar(p);
+    }
+
+    default void antesDeCambiarPrecio(Producto p, long nuevoCentavos) {
+        antesDeCambiar(p);
+    }
+
+    /** Se invoca con el monitor del producto tomado: el cambio que sigue es exactamente ese. */
+    default void antesDeCambiarStock(Producto p, int anterior, int nuevo) {
+        antesDeCambiar(p);
+    }
+
+    default void nombreCambiado(Producto p, String anterior) {
+    }
+
+    default void descripcionCambiada(Producto p, String anterior) {
+    }
+
+    default void precioCambiado(Producto p, long anteriorCentavos) {
+    }
+
+    /**
+     * {@code nuevo} es el stock que dejo este cambio, que puede no ser el actual si ya hubo otro:
+     * quien lleve cuentas debe usar {@code nuevo - anterior} y no volver a leer el producto.
+     */
+    default void stockCambiado(Producto p, int anterior, int nuevo) {
+    }
+}
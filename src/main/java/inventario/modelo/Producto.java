@@ -1,17 +1,36 @@
 package inventario.modelo;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 import inventario.excepciones.ValidacionException;
 
 public class Producto {
+    private static final ObservadorProducto[] SIN_OBSERVADORES = new ObservadorProducto[0];
+    private static final VarHandle STOCK;
+
+    static {
+        try {
+            STOCK = MethodHandles.lookup().findVarHandle(Producto.class, "stock", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String codigo;
+    // Nombre y descripcion pasan por DiccionarioTextos: los textos repetidos se comparten entre productos
     private String nombre;
     private String descripcion;
-    private BigDecimal precio;
-    private int stock;
+    // Precio en centavos (escala 2); getPrecio() lo expone como BigDecimal
+    private long precioCentavos;
+    // Se modifica por CAS o bajo el monitor (ver cambiarStock): dos ventas concurrentes no pueden dejarlo negativo
+    private volatile int stock;
+    private volatile ObservadorProducto[] observadores = SIN_OBSERVADORES;
 
     public Producto(String codigo, String nombre, BigDecimal precio) {
         this(codigo, nombre, null, precio, 0);
@@ -19,13 +38,46 @@ public class Producto {
 
     public Producto(String codigo, String nombre, String descripcion, BigDecimal precio, int stock) {
         this.codigo = norm(codigo);
-        this.nombre = norm(nombre);
-        this.descripcion = descripcion == null ? "" : descripcion.trim();
-        this.precio = normalizarPrecio(precio);
+        this.nombre = DiccionarioTextos.internar(norm(nombre));
+        this.descripcion = DiccionarioTextos.internar(norm(descripcion));
+        this.precioCentavos = normalizarPrecio(precio);
         this.stock = validarStock(stock);
         validarInvariantes();
     }
 
+    private Producto(String codigo, String nombre, String descripcion, long precioCentavos, int stock) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precioCentavos = precioCentavos;
+        this.stock = stock;
+        validarInvariantes();
+    }
+
+    /**
+     * Reconstruye un producto a partir de datos que ya pasaron por un Producto (por ejemplo al leer
+     * una instantanea): no recorta textos ni redondea el precio, solo revisa las invariantes.
+     */
+    public static Producto restaurar(String codigo, String nombre, String descripcion, long precioCentavos, int stock) {
+        if (codigo == null || nombre == null || descripcion == null) {
+            throw new ValidacionException("Codigo, nombre y descripcion no pueden ser null.");
+        }
+        return new Producto(codigo, DiccionarioTextos.internar(nombre), DiccionarioTextos.internar(descripcion),
+            precioCentavos, stock);
+    }
+
+    /**
+     * Como {@link #restaurar}, para textos que ya son la instancia de DiccionarioTextos (los que
+     * devuelven getNombre y getDescripcion de otro producto): no los vuelve a buscar en el diccionario.
+     */
+    public static Producto restaurarInternado(String codigo, String nombre, String descripcion, long precioCentavos,
+            int stock) {
+        if (codigo == null || nombre == null || descripcion == null) {
+            throw new ValidacionException("Codigo, nombre y descripcion no pueden ser null.");
+        }
+        return new Producto(codigo, nombre, descripcion, precioCentavos, stock);
+    }
+
     private void validarInvariantes() {
         if (codigo.isEmpty()) {
             throw new ValidacionException("Codigo no puede estar vacio.");
@@ -33,7 +85,7 @@ public class Producto {
         if (nombre.isEmpty()) {
             throw new ValidacionException("Nombre no puede estar vacio.");
         }
-        if (precio.signum() < 0) {
+        if (precioCentavos < 0) {
             throw new ValidacionException("Precio no puede ser negativo.");
         }
         if (stock < 0) {
@@ -45,10 +97,20 @@ public class Producto {
         return (s == null) ? "" : s.trim();
     }
 
-    private static BigDecimal normalizarPrecio(BigDecimal nuevoPrecio) {
+    private static long normalizarPrecio(BigDecimal nuevoPrecio) {
         if (nuevoPrecio == null) throw new ValidacionException("El precio no puede ser null.");
         if (nuevoPrecio.signum() < 0) throw new ValidacionException("El precio no puede ser negativo.");
-        return nuevoPrecio.setScale(2, RoundingMode.HALF_UP);
+        if (nuevoPrecio.signum() == 0) return 0;
+        // La magnitud se mira antes de redondear: con un exponente enorme (1e50000000 o
+        // 1e-50000000) setScale expande o divide un numero de millones de digitos
+        int digitosEnteros = nuevoPrecio.precision() - nuevoPrecio.scale();
+        if (digitosEnteros > 17) throw new ValidacionException("El precio es demasiado grande.");
+        if (digitosEnteros < -2) return 0;
+        try {
+            return nuevoPrecio.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new ValidacionException("El precio es demasiado grande.");
+        }
     }
 
     private static int validarStock(int s) {
@@ -64,21 +126,76 @@ public class Producto {
         if (cantidad <= 0) {
             throw new ValidacionException("Cantidad a aumentar debe ser > 0.");
         }
-        setStock(this.stock + cantidad);
+        // Si la suma desborda el resultado es negativo y el cambio se rechaza
+        if (!cambiarStock(actual -> actual + cantidad)) {
+            throw new ValidacionException("El stock no puede ser negativo.");
+        }
     }
 
     public void disminuirStock(int cantidad) {
         if (cantidad <= 0) {
             throw new ValidacionException("Cantidad a disminuir debe ser > 0.");
         }
-        if (this.stock - cantidad < 0) {
+        if (!cambiarStock(actual -> actual - cantidad)) {
             throw new ValidacionException("No puede dejar el stock negativo.");
         }
-        setStock(this.stock - cantidad);
+    }
+
+    /**
+     * Descuenta {@code cantidad} si hay stock suficiente, de forma atomica (ver cambiarStock para
+     * cuando toma locks). Devuelve false (sin lanzar) cuando no alcanza.
+     */
+    public boolean tryReservar(int cantidad) {
+        if (cantidad <= 0) {
+            throw new ValidacionException("Cantidad a reservar debe ser > 0.");
+        }
+        return cambiarStock(actual -> actual - cantidad);
+    }
+
+    /**
+     * Aplica el cambio y avisa a los observadores con el stock que reemplazo y el que dejo.
+     * Devuelve false sin tocar nada si el nuevo stock seria negativo. Solo un producto sin
+     * observadores queda sin locks: el cambio se aplica con un ciclo CAS. Con observadores, el
+     * aviso previo (que puede rechazar el cambio), el cambio y su aviso se hacen bajo el monitor
+     * del producto, asi los avisos llegan en el orden de los cambios aunque se llame a tryReservar
+     * desde varios hilos sin pasar por el inventario. Todo producto dentro de un Inventario tiene
+     * observadores (sus indices), asi que ahi los cambios de stock se serializan por producto.
+     */
+    private boolean cambiarStock(IntUnaryOperator cambio) {
+        if (observadores.length == 0) return cambiarStockCas(cambio);
+        synchronized (this) {
+            // Con observadores todo cambio de stock pasa por este monitor: el valor no cambia
+            // entre el aviso previo y la escritura
+            int anterior = stock;
+            int nuevo = cambio.applyAsInt(anterior);
+            if (nuevo < 0) return false;
+            for (ObservadorProducto o : observadores) {
+                o.antesDeCambiarStock(this, anterior, nuevo);
+            }
+            stock = nuevo;
+            for (ObservadorProducto o : observadores) {
+                o.stockCambiado(this, anterior, nuevo);
+            }
+            return true;
+        }
+    }
+
+    private boolean cambiarStockCas(IntUnaryOperator cambio) {
+        int anterior;
+        int nuevo;
+        do {
+            anterior = stock;
+            nuevo = cambio.applyAsInt(anterior);
+            if (nuevo < 0) return false;
+        } while (!STOCK.compareAndSet(this, anterior, nuevo));
+        for (ObservadorProducto o : observadores) {
+            o.stockCambiado(this, anterior, nuevo);
+        }
+        return true;
     }
 
     public String descripcionDetallada() {
-        return "Producto[codigo = " + codigo + ", nombre = " + nombre + ", precio = " + precio + ", stock = " + stock + ", desc = " + (descripcion == null ?
+        return "Producto[codigo = " + codigo + ", nombre = " + nombre + ", precio = " + getPrecio() + ", stock = " + stock + ", desc = " + (descripcion == null ?
         "" : descripcion) +  "]";
     }
 
@@ -96,7 +213,16 @@ public class Producto {
     }
 
     public BigDecimal getPrecio() {
-        return precio;
+        return BigDecimal.valueOf(precioCentavos, 2);
+    }
+
+    public long getPrecioCentavos() {
+        return precioCentavos;
+    }
+
+    /** Precio por stock en centavos; lanza ArithmeticException si no cabe en un long. */
+    public long valorCentavos() {
+        return Math.multiplyExact(precioCentavos, (long) stock);
     }
 
     public String getCodigo() {
@@ -105,31 +231,94 @@ public class Producto {
 
     //SETTERS
     public void setPrecio(BigDecimal nuevoPrecio) {
-        if (nuevoPrecio == null) {
-            throw new ValidacionException("El precio no puede ser null.");
-        }
-        if (nuevoPrecio.signum() < 0) {
+        setPrecioCentavos(normalizarPrecio(nuevoPrecio));
+    }
+
+    public void setPrecioCentavos(long nuevoPrecioCentavos) {
+        if (nuevoPrecioCentavos < 0) {
             throw new ValidacionException("El precio no puede ser negativo.");
         }
-        this.precio = nuevoPrecio.setScale(2, RoundingMode.HALF_UP);
+        for (ObservadorProducto o : observadores) {
+            o.antesDeCambiarPrecio(this, nuevoPrecioCentavos);
+        }
+        long anterior = this.precioCentavos;
+        this.precioCentavos = nuevoPrecioCentavos;
+        for (ObservadorProducto o : observadores) {
+            o.precioCambiado(this, anterior);
+        }
     }
 
     public void setNombre(String nombre) {
-        this.nombre = norm(nombre);
-        if (this.nombre.isEmpty()) {
+        String nuevo = norm(nombre);
+        if (nuevo.isEmpty()) {
             throw new ValidacionException("El nombre no puede estar vacio.");
         }
+        for (ObservadorProducto o : observadores) {
+            o.antesDeCambiarNombre(this, nuevo);
+        }
+        String anterior = this.nombre;
+        this.nombre = DiccionarioTextos.internar(nuevo);
+        for (ObservadorProducto o : observadores) {
+            o.nombreCambiado(this, anterior);
+        }
     }
 
     public void setStock(int nuevoStock) {
         if (nuevoStock < 0) {
             throw new ValidacionException("El stock no puede ser negativo.");
         }
-        this.stock = nuevoStock;
+        if (observadores.length == 0) {
+            reemplazarStock(nuevoStock);
+            return;
+        }
+        synchronized (this) {
+            int anterior = stock;
+            for (ObservadorProducto o : observadores) {
+                o.antesDeCambiarStock(this, anterior, nuevoStock);
+            }
+            reemplazarStock(nuevoStock);
+        }
+    }
+
+    private void reemplazarStock(int nuevoStock) {
+        int anterior = (int) STOCK.getAndSet(this, nuevoStock);
+        for (ObservadorProducto o : observadores) {
+            o.stockCambiado(this, anterior, nuevoStock);
+        }
     }
 
     public void setDescripcion(String descripcion) {
-        this.descripcion = descripcion == null ? "" : descripcion.trim();
+        String nueva = norm(descripcion);
+        for (ObservadorProducto o : observadores) {
+            o.antesDeCambiarDescripcion(this, nueva);
+        }
+        String anterior = this.descripcion;
+        this.descripcion = DiccionarioTextos.internar(nueva);
+        for (ObservadorProducto o : observadores) {
+            o.descripcionCambiada(this, anterior);
+        }
+    }
+
+    //OBSERVADORES
+    public synchronized void agregarObservador(ObservadorProducto o) {
+        if (o == null) {
+            throw new ValidacionException("El observador no puede ser null.");
+        }
+        ObservadorProducto[] nuevos = Arrays.copyOf(observadores, observadores.length + 1);
+        nuevos[observadores.length] = o;
+        observadores = nuevos;
+    }
+
+    public synchronized void quitarObservador(ObservadorProducto o) {
+        for (int i = 0; i < observadores.length; i++) {
+            if (observadores[i] == o) {
+                ObservadorProducto[] nuevos = new ObservadorProducto[observadores.length - 1];
+                System.arraycopy(observadores, 0, nuevos, 0, i);
+                System.arraycopy(observadores, i + 1, nuevos, i, observadores.length - i - 1);
+                observadores = nuevos.length == 0 ? SIN_OBSERVADORES : nuevos;
+                return;
+            }
+        }
     }
 
     @Override public boolean equals(Object o) {
@@ -144,6 +333,6 @@ public class Producto {
     }
     
     @Override public String toString() {
-        return codigo + " - " + nombre + " ($" + precio + ", stock=" + stock + ")";
+        return codigo + " - " + nombre + " ($" + getPrecio() + ", stock=" + stock + ")";
     }
 }
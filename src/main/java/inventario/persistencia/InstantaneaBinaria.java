@@ -0,0 +1,169 @@
+package inventario.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import inventario.core.Inventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Instantanea binaria del inventario completo, pensada para cargarse con un MappedByteBuffer.
+ *
+ * Formato (little endian):
+ * - cabecera de 40 bytes: magia "INVS", version, cantidad de productos, un int reservado, offset y largo de la
+ *   tabla de textos, offset de los registros y CRC32C de todo lo que sigue a la cabecera;
+ * - tabla de textos: UTF-8 concatenado, cada texto distinto aparece una sola vez;
+ * - registros de ancho fijo (36 bytes): offset y largo de codigo, nombre y descripcion,
+ *   precio en centavos y stock.
+ *
+ * Se escribe a un archivo temporal y se renombra atomicamente sobre el destino.
+ */
+public final class InstantaneaBinaria {
+    public static final int VERSION = 1;
+
+    private static final int MAGIA = 0x534E5649; // "INVS" en little endian
+    private static final int CABECERA = 40;
+    private static final int REGISTRO = 36;
+
+    private InstantaneaBinaria() {
+
+    }
+
+    public static void escribir(Inventario inventario, Path destino) throws IOException {
+        List<Producto> todos = inventario.listarTodos();
+        Map<String, Integer> offsets = new HashMap<>();
+        ByteBuffer textos = ByteBuffer.allocate(1 << 16);
+        ByteBuffer registros = ByteBuffer.allocate(Math.multiplyExact(todos.size(), REGISTRO)).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (Producto p : todos) {
+            for (String s : new String[] {p.getCodigo(), p.getNombre(), p.getDescripcion()}) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                Integer off = offsets.get(s);
+                if (off == null) {
+                    if (textos.remaining() < bytes.length) textos = crecer(textos, bytes.length);
+                    off = textos.position();
+                    textos.put(bytes);
+                    offsets.put(s, off);
+                }
+                registros.putInt(off).putInt(bytes.length);
+            }
+            registros.putLong(p.getPrecioCentavos()).putInt(p.getStock());
+        }
+        textos.flip();
+        registros.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(textos.duplicate());
+        crc.update(registros.duplicate());
+
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putInt(MAGIA).putInt(VERSION).putInt(todos.size()).putInt(0)
+            .putLong(CABECERA).putLong(textos.remaining()).putInt(CABECERA + textos.remaining())
+            .putInt((int) crc.getValue());
+        cabecera.flip();
+
+        Path dir = destino.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, destino.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer[] partes = {cabecera, textos, registros};
+                while (cabecera.hasRemaining() || textos.hasRemaining() || registros.hasRemaining()) {
+                    ch.write(partes);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Carga la instantanea en {@code inventario} con una sola carga masiva. Verifica magia,
+     * version, tamanos y checksum antes de crear ningun producto. Devuelve cuantos cargo.
+     */
+    public static int cargar(Path origen, Inventario inventario) throws IOException {
+        try (FileChannel ch = FileChannel.open(origen, StandardOpenOption.READ)) {
+            long tamano = ch.size();
+            if (tamano < CABECERA || tamano > Integer.MAX_VALUE) {
+                throw new ValidacionException("Instantanea con tamano invalido: " + tamano);
+            }
+            MappedByteBuffer mapa = ch.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapa.getInt(0) != MAGIA) {
+                throw new ValidacionException("El archivo no es una instantanea de inventario.");
+            }
+            int version = mapa.getInt(4);
+            if (version != VERSION) {
+                throw new ValidacionException("Version de instantanea no soportada: " + version);
+            }
+            int cantidad = mapa.getInt(8);
+            long offTextos = mapa.getLong(16);
+            long largoTextos = mapa.getLong(24);
+            int offRegistros = mapa.getInt(32);
+            int suma = mapa.getInt(36);
+            if (cantidad < 0 || offTextos != CABECERA || offRegistros != CABECERA + largoTextos
+                    || offRegistros + (long) cantidad * REGISTRO != tamano) {
+                throw new ValidacionException("Cabecera de instantanea inconsistente.");
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(mapa.duplicate().position(CABECERA));
+            if ((int) crc.getValue() != suma) {
+                throw new ValidacionException("Checksum de instantanea invalido.");
+            }
+
+            // Nombres y descripciones se decodifican una vez por texto distinto y se comparten
+            Map<Long, String> cache = new HashMap<>();
+            List<Producto> productos = new ArrayList<>(cantidad);
+            int pos = offRegistros;
+            for (int i = 0; i < cantidad; i++, pos += REGISTRO) {
+                String codigo = decodificar(mapa, CABECERA + mapa.getInt(pos), mapa.getInt(pos + 4));
+                String nombre = texto(mapa, cache, CABECERA + mapa.getInt(pos + 8), mapa.getInt(pos + 12));
+                String descripcion = texto(mapa, cache, CABECERA + mapa.getInt(pos + 16), mapa.getInt(pos + 20));
+                productos.add(Producto.restaurar(codigo, nombre, descripcion, mapa.getLong(pos + 24), mapa.getInt(pos + 32)));
+            }
+            inventario.agregarProductos(productos);
+            return cantidad;
+        }
+    }
+
+    private static String texto(MappedByteBuffer mapa, Map<Long, String> cache, int offset, int largo) {
+        // El texto vacio comparte offset con el siguiente, por eso la clave incluye el largo
+        long clave = ((long) offset << 32) | largo;
+        String s = cache.get(clave);
+        if (s == null) {
+            s = decodificar(mapa, offset, largo);
+            cache.put(clave, s);
+        }
+        return s;
+    }
+
+    private static String decodificar(MappedByteBuffer mapa, int offset, int largo) {
+        byte[] bytes = new byte[largo];
+        mapa.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer crecer(ByteBuffer b, int extra) {
+        ByteBuffer mayor = ByteBuffer.allocate(Math.max(b.capacity() * 2, b.position() + extra));
+        b.flip();
+        mayor.put(b);
+        return mayor;
+    }
+}
@@ -0,0 +1,13 @@
+package inventario.persistencia;
+
+/**
+ * Cuando se fuerza a disco el registro de mutaciones.
+ * CADA_ESCRITURA: cada mutacion espera su fsync (agrupado con las de otros hilos).
+ * PERIODICA: un hilo de fondo hace fsync cada cierto intervalo.
+ * SISTEMA_OPERATIVO: se escribe al archivo pero el fsync queda en manos del SO.
+ */
+public enum PoliticaFsync {
+    CADA_ESCRITURA,
+    PERIODICA,
+    SISTEMA_OPERATIVO
+}
@@ -0,0 +1,390 @@
+package inventario.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import inventario.core.Inventario;
+import inventario.core.ObservadorInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+/**
+ * Registro de mutaciones (write-ahead log) de un {@link Inventario}, solo de agregado.
+ *
+ * Cada registro es: [int largo][int crc32c][byte tipo][codigo][datos], con los textos en
+ * UTF-8 precedidos de su largo. Los hilos encolan registros en un buffer compartido; el
+ * primero que necesita durabilidad escribe y hace fsync del lote completo y los demas
+ * esperan ese mismo fsync (group commit).
+ *
+ * Al abrir se reproduce el archivo sobre el inventario; si termina en un registro
+ * incompleto o corrupto (caida a mitad de escritura) se trunca en el ultimo registro valido.
+ *
+ * Cada registro se encola (y, segun la politica, se escribe y se fuerza) desde los avisos previos
+ * del inventario, con el valor que se va a aplicar, antes de que el cambio se vea en memoria. Si
+ * la escritura o el fsync fallan, quien pidio el cambio recibe la excepcion y el cambio no se
+ * aplica; desde ese error el registro rechaza todos los cambios siguientes. Un registro que llego
+ * al archivo antes del fallo (escrito pero sin fsync) puede reaparecer al reabrir aunque su
+ * llamada haya fallado, como en cualquier write-ahead log. Con PERIODICA el fallo de un volcado
+ * en segundo plano se informa al siguiente cambio.
+ */
+public class RegistroMutaciones implements Closeable {
+    private static final byte AGREGAR = 1;
+    private static final byte ELIMINAR = 2;
+    private static final byte NOMBRE = 3;
+    private static final byte DESCRIPCION = 4;
+    private static final byte PRECIO = 5;
+    private static final byte STOCK = 6;
+
+    private static final int CAMPO_LONG = 1;
+    private static final int CAMPO_INT = 2;
+
+    private static final int CABECERA = 8;
+    private static final int MAX_REGISTRO = 16 * 1024 * 1024;
+    private static final long INTERVALO_POR_DEFECTO_MS = 10;
+
+    private final FileChannel canal;
+    private final Inventario inventario;
+    private final PoliticaFsync politica;
+    private final ObservadorInventario observador = new Escritor();
+    private final ScheduledExecutorService programador;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition volcado = lock.newCondition();
+    private ByteBuffer pendiente = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer repuesto = ByteBuffer.allocate(64 * 1024);
+    private long secuencia;
+    private long escrita;
+    private long durable;
+    private boolean volcando;
+    private boolean cerrado;
+    private IOException error;
+
+    private RegistroMutaciones(FileChannel canal, Inventario inventario, PoliticaFsync politica, long intervaloMs) {
+        this.canal = canal;
+        this.inventario = inventario;
+        this.politica = politica;
+        if (politica == PoliticaFsync.PERIODICA) {
+            programador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "registro-mutaciones-fsync");
+                t.setDaemon(true);
+                return t;
+            });
+            programador.scheduleWithFixedDelay(this::volcarPeriodico, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        } else {
+            programador = null;
+        }
+    }
+
+    public static RegistroMutaciones abrir(Path archivo, Inventario inventario, PoliticaFsync politica) throws IOException {
+        return abrir(archivo, inventario, politica, INTERVALO_POR_DEFECTO_MS);
+    }
+
+    /**
+     * Reproduce el archivo sobre {@code inventario} (que deberia estar vacio) y a partir de ahi
+     * registra cada mutacion del inventario en el archivo.
+     */
+    public static RegistroMutaciones abrir(Path archivo, Inventario inventario, PoliticaFsync politica, long intervaloMs)
+            throws IOException {
+        if (inventario == null || politica == null) {
+            throw new ValidacionException("Inventario y politica son obligatorios.");
+        }
+        if (intervaloMs <= 0) {
+            throw new ValidacionException("El intervalo de fsync debe ser > 0.");
+        }
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            long valido = reproducir(canal, inventario);
+            if (valido < canal.size()) {
+                canal.truncate(valido);
+                canal.force(true);
+            }
+            canal.position(valido);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        RegistroMutaciones registro = new RegistroMutaciones(canal, inventario, politica, intervaloMs);
+        inventario.agregarObservador(registro.observador);
+        return registro;
+    }
+
+    // Devuelve la posicion donde termina el ultimo registro valido
+    private static long reproducir(FileChannel canal, Inventario inventario) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        long posicion = 0;
+        long tamano = canal.size();
+        CRC32C crc = new CRC32C();
+        while (posicion + CABECERA <= tamano) {
+            buf.clear().limit(CABECERA);
+            leerCompleto(canal, buf, posicion);
+            buf.flip();
+            int largo = buf.getInt();
+            int suma = buf.getInt();
+            if (largo <= 0 || largo > MAX_REGISTRO || posicion + CABECERA + largo > tamano) break;
+
+            if (buf.capacity() < largo) buf = ByteBuffer.allocate(largo);
+            buf.clear().limit(largo);
+            leerCompleto(canal, buf, posicion + CABECERA);
+            buf.flip();
+            crc.reset();
+            crc.update(buf.duplicate());
+            if ((int) crc.getValue() != suma) break;
+
+            aplicar(buf, inventario);
+            posicion += CABECERA + largo;
+        }
+        return posicion;
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer buf, long posicion) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = canal.read(buf, posicion);
+            if (n < 0) throw new IOException("Fin de archivo inesperado en el registro de mutaciones.");
+            posicion += n;
+        }
+    }
+
+    private static void aplicar(ByteBuffer buf, Inventario inventario) {
+        byte tipo = buf.get();
+        String codigo = leerTexto(buf);
+        switch (tipo) {
+            case AGREGAR -> {
+                String nombre = leerTexto(buf);
+                String descripcion = leerTexto(buf);
+                long precio = buf.getLong();
+                int stock = buf.getInt();
+                inventario.agregarProducto(new Producto(codigo, nombre, descripcion, BigDecimal.valueOf(precio, 2), stock));
+            }
+            case ELIMINAR -> inventario.eliminarProducto(codigo);
+            case NOMBRE -> {
+                String nombre = leerTexto(buf);
+                inventario.actualizarProducto(codigo, p -> p.setNombre(nombre));
+            }
+            case DESCRIPCION -> {
+                String descripcion = leerTexto(buf);
+                inventario.actualizarProducto(codigo, p -> p.setDescripcion(descripcion));
+            }
+            case PRECIO -> {
+                long precio = buf.getLong();
+                inventario.actualizarProducto(codigo, p -> p.setPrecioCentavos(precio));
+            }
+            case STOCK -> {
+                int delta = buf.getInt();
+                inventario.actualizarProducto(codigo, p -> p.setStock(p.getStock() + delta));
+            }
+            default -> throw new IllegalStateException("Tipo de registro desconocido: " + tipo);
+        }
+    }
+
+    private static String leerTexto(ByteBuffer buf) {
+        int largo = buf.getInt();
+        byte[] bytes = new byte[largo];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Fuerza a disco todo lo registrado hasta ahora. */
+    public void sincronizar() {
+        long hasta;
+        lock.lock();
+        try {
+            hasta = secuencia;
+        } finally {
+            lock.unlock();
+        }
+        volcarHasta(hasta, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inventario.quitarObservador(observador);
+        if (programador != null) {
+            // shutdownNow interrumpiria un volcado en curso, y una interrupcion durante write/force
+            // cierra el FileChannel: se deja terminar el volcado y se cancelan los siguientes
+            programador.shutdown();
+            try {
+                programador.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            sincronizar();
+        } finally {
+            lock.lock();
+            try {
+                cerrado = true;
+            } finally {
+                lock.unlock();
+            }
+            canal.close();
+        }
+    }
+
+    private void registrar(byte tipo, String codigo, String texto1, String texto2, long largo, int entero, int campos) {
+        byte[] bCodigo = codigo.getBytes(StandardCharsets.UTF_8);
+        byte[] b1 = texto1 == null ? null : texto1.getBytes(StandardCharsets.UTF_8);
+        byte[] b2 = texto2 == null ? null : texto2.getBytes(StandardCharsets.UTF_8);
+        int tamano = 1 + 4 + bCodigo.length + (b1 == null ? 0 : 4 + b1.length) + (b2 == null ? 0 : 4 + b2.length)
+            + ((campos & CAMPO_LONG) != 0 ? 8 : 0) + ((campos & CAMPO_INT) != 0 ? 4 : 0);
+
+        long mia;
+        boolean medioLleno;
+        lock.lock();
+        try {
+            verificarAbierto();
+            asegurarEspacio(CABECERA + tamano);
+            int inicio = pendiente.position();
+            pendiente.putInt(tamano).putInt(0).put(tipo);
+            pendiente.putInt(bCodigo.length).put(bCodigo);
+            if (b1 != null) pendiente.putInt(b1.length).put(b1);
+            if (b2 != null) pendiente.putInt(b2.length).put(b2);
+            if ((campos & CAMPO_LONG) != 0) pendiente.putLong(largo);
+            if ((campos & CAMPO_INT) != 0) pendiente.putInt(entero);
+
+            CRC32C crc = new CRC32C();
+            crc.update(pendiente.duplicate().position(inicio + CABECERA).limit(pendiente.position()));
+            pendiente.putInt(inicio + 4, (int) crc.getValue());
+            mia = ++secuencia;
+            medioLleno = pendiente.position() > pendiente.capacity() / 2;
+        } finally {
+            lock.unlock();
+        }
+
+        switch (politica) {
+            case CADA_ESCRITURA -> volcarHasta(mia, true);
+            case SISTEMA_OPERATIVO -> volcarHasta(mia, false);
+            case PERIODICA -> {
+                if (medioLleno) volcarHasta(mia, false);
+            }
+        }
+    }
+
+    // Se llama con el lock tomado
+    private void verificarAbierto() {
+        if (cerrado) throw new IllegalStateException("El registro de mutaciones esta cerrado.");
+        if (error != null) throw new UncheckedIOException("El registro de mutaciones fallo; no se aceptan mas cambios.", error);
+    }
+
+    private void asegurarEspacio(int bytes) {
+        if (pendiente.remaining() >= bytes) return;
+        ByteBuffer mayor = ByteBuffer.allocate(Math.max(pendiente.capacity() * 2, pendiente.position() + bytes));
+        pendiente.flip();
+        mayor.put(pendiente);
+        pendiente = mayor;
+    }
+
+    private void volcarPeriodico() {
+        try {
+            sincronizar();
+        } catch (RuntimeException e) {
+            // el error queda guardado y se informa a la siguiente escritura que espere durabilidad
+        }
+    }
+
+    /**
+     * Garantiza que los registros hasta {@code hasta} esten escritos (y forzados si se pide).
+     * Solo un hilo vuelca a la vez; el lote que escribe incluye todo lo encolado hasta ese momento,
+     * asi que los hilos que esperaban quedan cubiertos por el mismo fsync.
+     */
+    private void volcarHasta(long hasta, boolean forzar) {
+        lock.lock();
+        try {
+            while ((forzar ? durable : escrita) < hasta) {
+                if (error != null) throw new UncheckedIOException(error);
+                if (volcando) {
+                    volcado.awaitUninterruptibly();
+                    continue;
+                }
+                volcando = true;
+                ByteBuffer lote = pendiente;
+                pendiente = repuesto;
+                repuesto = null;
+                long loteHasta = secuencia;
+                lock.unlock();
+                IOException fallo = null;
+                try {
+                    lote.flip();
+                    while (lote.hasRemaining()) {
+                        canal.write(lote);
+                    }
+                    if (forzar) canal.force(false);
+                } catch (IOException e) {
+                    fallo = e;
+                } finally {
+                    lock.lock();
+                    lote.clear();
+                    repuesto = lote;
+                    volcando = false;
+                    if (fallo == null) {
+                        escrita = loteHasta;
+                        if (forzar) durable = loteHasta;
+                    } else {
+                        error = fallo;
+                    }
+                    volcado.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Registra desde los avisos previos: si registrar lanza, el cambio no se aplica
+    private class Escritor implements ObservadorInventario {
+        @Override
+        public void antesDeCambiar(Producto p) {
+            lock.lock();
+            try {
+                verificarAbierto();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void antesDeAgregar(Producto p) {
+            registrar(AGREGAR, p.getCodigo(), p.getNombre(), p.getDescripcion(), p.getPrecioCentavos(), p.getStock(),
+                CAMPO_LONG | CAMPO_INT);
+        }
+
+        @Override
+        public void antesDeEliminar(Producto p) {
+            registrar(ELIMINAR, p.getCodigo(), null, null, 0, 0, 0);
+        }
+
+        @Override
+        public void antesDeCambiarNombre(Producto p, String nuevo) {
+            registrar(NOMBRE, p.getCodigo(), nuevo, null, 0, 0, 0);
+        }
+
+        @Override
+        public void antesDeCambiarDescripcion(Producto p, String nueva) {
+            registrar(DESCRIPCION, p.getCodigo(), nueva, null, 0, 0, 0);
+        }
+
+        @Override
+        public void antesDeCambiarPrecio(Producto p, long nuevoCentavos) {
+            registrar(PRECIO, p.getCodigo(), null, null, nuevoCentavos, 0, CAMPO_LONG);
+        }
+
+        @Override
+        public void antesDeCambiarStock(Producto p, int anterior, int nuevo) {
+            registrar(STOCK, p.getCodigo(), null, null, 0, nuevo - anterior, CAMPO_INT);
+        }
+    }
+}
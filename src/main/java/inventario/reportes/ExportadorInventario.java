@@ -0,0 +1,246 @@
+package inventario.reportes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.http.Json;
+import inventario.modelo.Producto;
+
+/**
+ * Exporta el resumen o el listado de productos en CSV, JSON lines o texto. Los productos se
+ * recorren de a uno (por ejemplo con {@code inventario.recorrerPorCodigo(null).iterator()}),
+ * asi que exportar el catalogo completo no lo copia a una lista.
+ *
+ * Cada linea se arma en un StringBuilder reutilizado y se escribe al destino en bloques de 64K
+ * caracteres. Con destinos de bytes se escribe UTF-8, comprimido con gzip si se pidio. El
+ * destino no se cierra: queda escrito por completo (y el gzip terminado) al volver.
+ */
+public class ExportadorInventario {
+    private static final int BLOQUE = 1 << 16;
+    private static final String CABECERA_CSV = "codigo;nombre;descripcion;precio;stock\n";
+    private static final NumberFormat MONEDA = NumberFormat.getCurrencyInstance(Locale.of("es", "CL"));
+
+    private final FormatoExportacion formato;
+    private final boolean gzip;
+
+    public ExportadorInventario(FormatoExportacion formato) {
+        this(formato, false);
+    }
+
+    /** @param gzip comprimir la salida; solo aplica a destinos de bytes */
+    public ExportadorInventario(FormatoExportacion formato, boolean gzip) {
+        if (formato == null) {
+            throw new ValidacionException("El formato es obligatorio.");
+        }
+        this.formato = formato;
+        this.gzip = gzip;
+    }
+
+    /** Escribe los productos y devuelve cuantos escribio. */
+    public long exportarProductos(Iterator<Producto> productos, Writer destino) throws IOException {
+        if (gzip) {
+            throw new ValidacionException("La compresion gzip necesita un destino de bytes.");
+        }
+        Salida s = new Salida(destino);
+        long n = escribirProductos(productos, s);
+        s.terminar();
+        return n;
+    }
+
+    public long exportarProductos(Iterator<Producto> productos, OutputStream destino) throws IOException {
+        GZIPOutputStream comprimido = gzip ? new GZIPOutputStream(destino, BLOQUE) : null;
+        Salida s = new Salida(new OutputStreamWriter(comprimido != null ? comprimido : destino, StandardCharsets.UTF_8));
+        long n = escribirProductos(productos, s);
+        s.terminar();
+        if (comprimido != null) comprimido.finish();
+        return n;
+    }
+
+    public long exportarProductos(Iterator<Producto> productos, WritableByteChannel destino) throws IOException {
+        return exportarProductos(productos, Channels.newOutputStream(destino));
+    }
+
+    public void exportarResumen(ResumenInventario r, Writer destino) throws IOException {
+        if (gzip) {
+            throw new ValidacionException("La compresion gzip necesita un destino de bytes.");
+        }
+        Salida s = new Salida(destino);
+        escribirResumen(r, s);
+        s.terminar();
+    }
+
+    public void exportarResumen(ResumenInventario r, OutputStream destino) throws IOException {
+        GZIPOutputStream comprimido = gzip ? new GZIPOutputStream(destino, BLOQUE) : null;
+        Salida s = new Salida(new OutputStreamWriter(comprimido != null ? comprimido : destino, StandardCharsets.UTF_8));
+        escribirResumen(r, s);
+        s.terminar();
+        if (comprimido != null) comprimido.finish();
+    }
+
+    public void exportarResumen(ResumenInventario r, WritableByteChannel destino) throws IOException {
+        exportarResumen(r, Channels.newOutputStream(destino));
+    }
+
+    private long escribirProductos(Iterator<Producto> productos, Salida s) throws IOException {
+        if (formato == FormatoExportacion.CSV) s.sb.append(CABECERA_CSV);
+        long n = 0;
+        while (productos.hasNext()) {
+            producto(s.sb, productos.next(), null);
+            s.sb.append('\n');
+            s.talVezVaciar();
+            n++;
+        }
+        return n;
+    }
+
+    private void escribirResumen(ResumenInventario r, Salida s) throws IOException {
+        StringBuilder sb = s.sb;
+        switch (formato) {
+            case TEXTO -> {
+                // NumberFormat no es seguro entre hilos: cada exportacion usa su copia
+                NumberFormat moneda = (NumberFormat) MONEDA.clone();
+                sb.append("\n=== RESUMEN DE INVENTARIO ===\n");
+                sb.append("Productos distintos: ").append(r.getCantidadProductos()).append('\n');
+                sb.append("Total de items: ").append(r.getTotalItems()).append('\n');
+                sb.append("Valor total: ").append(moneda.format(r.getValorTotal())).append('\n');
+                sb.append("\nTop por stock:\n");
+                seccion(r.getTopPorStock(), null, s);
+                sb.append("\nStock bajo umbral:\n");
+                if (r.getStockBajo().isEmpty()) sb.append(" - (ninguno)\n");
+                seccion(r.getStockBajo(), null, s);
+                sb.append("==============================\n\n");
+            }
+            case CSV -> {
+                sb.append("cantidad_productos;total_items;valor_total\n");
+                sb.append(r.getCantidadProductos()).append(';').append(r.getTotalItems()).append(';')
+                    .append(r.getValorTotal().toPlainString()).append('\n');
+                sb.append("seccion;").append(CABECERA_CSV);
+                seccion(r.getTopPorStock(), "top", s);
+                seccion(r.getStockBajo(), "bajo", s);
+            }
+            case JSONL -> {
+                sb.append("{\"tipo\":\"resumen\",\"cantidadProductos\":").append(r.getCantidadProductos())
+                    .append(",\"totalItems\":").append(r.getTotalItems())
+                    .append(",\"valorTotal\":").append(r.getValorTotal().toPlainString()).append("}\n");
+                seccion(r.getTopPorStock(), "top", s);
+                seccion(r.getStockBajo(), "bajo", s);
+            }
+        }
+    }
+
+    private void seccion(List<Producto> ps, String nombre, Salida s) throws IOException {
+        for (Producto p : ps) {
+            if (formato == FormatoExportacion.TEXTO) s.sb.append(" - ");
+            producto(s.sb, p, nombre);
+            s.sb.append('\n');
+            s.talVezVaciar();
+        }
+    }
+
+    // Una linea sin el salto; con seccion != null (resumen) se antepone la columna o campo "tipo"
+    private void producto(StringBuilder sb, Producto p, String seccion) {
+        switch (formato) {
+            case CSV -> {
+                if (seccion != null) sb.append(seccion).append(';');
+                campoCsv(sb, p.getCodigo());
+                sb.append(';');
+                campoCsv(sb, p.getNombre());
+                sb.append(';');
+                campoCsv(sb, p.getDescripcion());
+                sb.append(';');
+                precio(sb, p.getPrecioCentavos());
+                sb.append(';').append(p.getStock());
+            }
+            case JSONL -> {
+                sb.append('{');
+                if (seccion != null) sb.append("\"tipo\":\"").append(seccion).append("\",");
+                sb.append("\"codigo\":");
+                Json.texto(sb, p.getCodigo());
+                sb.append(",\"nombre\":");
+                Json.texto(sb, p.getNombre());
+                sb.append(",\"descripcion\":");
+                Json.texto(sb, p.getDescripcion());
+                sb.append(",\"precio\":");
+                precio(sb, p.getPrecioCentavos());
+                sb.append(",\"stock\":").append(p.getStock()).append('}');
+            }
+            // Igual que Producto.toString
+            case TEXTO -> {
+                sb.append(p.getCodigo()).append(" - ").append(p.getNombre()).append(" ($");
+                precio(sb, p.getPrecioCentavos());
+                sb.append(", stock=").append(p.getStock()).append(')');
+            }
+        }
+    }
+
+    // Los centavos como "123.45", sin pasar por BigDecimal
+    private static void precio(StringBuilder sb, long centavos) {
+        long resto = centavos % 100;
+        sb.append(centavos / 100).append('.');
+        if (resto < 10) sb.append('0');
+        sb.append(resto);
+    }
+
+    private static void campoCsv(StringBuilder sb, String s) {
+        boolean comillas = false;
+        for (int i = 0; i < s.length() && !comillas; i++) {
+            char c = s.charAt(i);
+            comillas = c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            sb.append(s);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    // Acumula las lineas y las pasa al Writer en bloques, sin un String intermedio por linea
+    private static class Salida {
+        final StringBuilder sb = new StringBuilder(BLOQUE + 1_024);
+        private final char[] bloque = new char[BLOQUE + 1_024];
+        private final Writer destino;
+
+        Salida(Writer destino) {
+            this.destino = destino;
+        }
+
+        void talVezVaciar() throws IOException {
+            if (sb.length() >= BLOQUE) vaciar();
+        }
+
+        private void vaciar() throws IOException {
+            int n = sb.length();
+            if (n > bloque.length) {
+                // Una linea mas larga que el bloque: se escribe tal cual
+                destino.write(sb.toString());
+            } else {
+                sb.getChars(0, n, bloque, 0);
+                destino.write(bloque, 0, n);
+            }
+            sb.setLength(0);
+        }
+
+        void terminar() throws IOException {
+            vaciar();
+            destino.flush();
+        }
+    }
+}
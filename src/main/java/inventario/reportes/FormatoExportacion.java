@@ -0,0 +1,10 @@
+package inventario.reportes;
+
+public enum FormatoExportacion {
+    /** Separado por ';' con cabecera, el mismo formato que lee ImportadorCsv. */
+    CSV,
+    /** Un objeto JSON por linea. */
+    JSONL,
+    /** Texto legible, como el informe de consola. */
+    TEXTO
+}
@@ -1,34 +1,26 @@
 package inventario.reportes;
 
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 
 import inventario.dto.ResumenInventario;
-import inventario.modelo.Producto;
 
 public class ReporteInventario {
 
     private ReporteInventario() {
 
     }
-    private static final NumberFormat MONEDA = NumberFormat.getCurrencyInstance(Locale.of("es","CL"));
+    private static final ExportadorInventario TEXTO = new ExportadorInventario(FormatoExportacion.TEXTO);
 
+    // Arma el informe completo y lo pasa a System.out en una sola escritura, no un println por linea
     public static void imprimirResumen(ResumenInventario r) {
-        System.out.println("\n=== RESUMEN DE INVENTARIO ===");
-        System.out.println("Productos distintos: " + r.getCantidadProductos());
-        System.out.println("Total de items: " + r.getTotalItems());
-        System.out.println("Valor total: " + MONEDA.format(r.getValorTotal()));
-
-        System.out.println("\nTop por stock:");
-        for (Producto p : r.getTopPorStock()) {
-            System.out.println(" - " + p);
-        }
-
-        System.out.println("\nStock bajo umbral:");
-        if (r.getStockBajo().isEmpty()) System.out.println(" - (ninguno)");
-        for (Producto p : r.getStockBajo()) {
-            System.out.println(" - " + p);
+        PrintStream out = System.out;
+        try {
+            TEXTO.exportarResumen(r, new OutputStreamWriter(out, out.charset()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        System.out.println("==============================\n");
     }
 }
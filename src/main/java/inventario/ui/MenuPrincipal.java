@@ -1,27 +1,60 @@
 package inventario.ui;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Scanner;
 
 import inventario.core.Inventario;
+import inventario.dto.PaginaProductos;
 import inventario.dto.ResumenInventario;
 import inventario.excepciones.ValidacionException;
 import inventario.modelo.Producto;
+import inventario.persistencia.PoliticaFsync;
+import inventario.persistencia.RegistroMutaciones;
+import inventario.reportes.ExportadorInventario;
+import inventario.reportes.FormatoExportacion;
 import inventario.reportes.ReporteInventario;
 
 public class MenuPrincipal {
     private static final Scanner input = new Scanner(System.in).useLocale(Locale.US);
     private static final Inventario inventario = new Inventario();
+    private static final int TAMANO_PAGINA = 20;
 
     public static void mostrar() {
+        Path archivo = Path.of(System.getProperty("inventario.registro", "inventario.wal"));
+        RegistroMutaciones registro;
+        try {
+            registro = RegistroMutaciones.abrir(archivo, inventario, PoliticaFsync.CADA_ESCRITURA);
+        } catch (IOException e) {
+            System.out.println("No se pudo abrir el registro " + archivo + ": " + e.getMessage());
+            System.out.println("Los cambios no se guardaran.");
+            menu();
+            return;
+        }
+        System.out.println("Inventario recuperado: " + inventario.size() + " productos.");
+        try {
+            menu();
+        } finally {
+            try {
+                registro.close();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("No se pudo cerrar el registro " + archivo + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void menu() {
         int op;
 
         do {
             imprimirMenu();
-            op = leerEntero("Opción: ", 0, 7);
+            op = leerEntero("Opción: ", 0, 8);
             try {
                 switch (op) {
                     case 1 -> agregar();
@@ -31,6 +64,7 @@ public class MenuPrincipal {
                     case 5 -> buscarPorTexto();
                     case 6 -> listar();
                     case 7 -> informe();
+                    case 8 -> exportar();
                     case 0 -> System.out.println("Saliendo...");
                     default -> System.out.println("Opción inválida.");
                 }
@@ -51,6 +85,7 @@ public class MenuPrincipal {
         System.out.println("5) Buscar por nombre/descripcion.");
         System.out.println("6) Listar todos.");
         System.out.println("7) Informe (resumen).");
+        System.out.println("8) Exportar productos.");
         System.out.println("0) Salir.");
     }
 
@@ -116,9 +151,15 @@ public class MenuPrincipal {
 
     private static void listar() {
         System.out.println("\n--- Listado ---");
-        List<Producto> todos = inventario.listarTodos();
-        if (todos.isEmpty()) System.out.println("Inventario vacio.");
-        else todos.forEach(System.out::println);
+        PaginaProductos pagina = inventario.listarPagina(null, TAMANO_PAGINA);
+        if (pagina.getProductos().isEmpty()) System.out.println("Inventario vacio.");
+        while (true) {
+            pagina.getProductos().forEach(System.out::println);
+            if (!pagina.hayMas()) break;
+            String s = leerTexto("Enter para ver mas, 'q' para volver: ", false);
+            if (s.equalsIgnoreCase("q")) break;
+            pagina = inventario.listarPagina(pagina.getSiguienteCursor(), TAMANO_PAGINA);
+        }
         System.out.println();
     }
 
@@ -130,6 +171,18 @@ public class MenuPrincipal {
         ReporteInventario.imprimirResumen(r);
     }
 
+    private static void exportar() throws IOException {
+        System.out.println("\n--- Exportar ---");
+        int f = leerEntero("Formato (1 CSV, 2 JSON lines, 3 texto): ", 1, 3);
+        FormatoExportacion formato = FormatoExportacion.values()[f - 1];
+        Path archivo = Path.of(leerTexto("Archivo (terminado en .gz para comprimir): ", true));
+        ExportadorInventario exportador = new ExportadorInventario(formato, archivo.toString().endsWith(".gz"));
+        try (OutputStream out = Files.newOutputStream(archivo)) {
+            long n = exportador.exportarProductos(inventario.recorrerPorCodigo(null).iterator(), out);
+            System.out.println("Exportados " + n + " productos a " + archivo + ".\n");
+        }
+    }
+
     private static int leerEntero(String prompt, int min, int max) {
         while (true) {
             System.out.print(prompt);
@@ -0,0 +1,99 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class AgregadosPropiedadTest {
+
+    private static void assertIgualARecalculo(Inventario inv, String contexto) {
+        List<Producto> todos = inv.listarTodos();
+        long items = todos.stream().mapToLong(Producto::getStock).sum();
+        BigDecimal valor = todos.stream().map(p -> p.getPrecio().multiply(BigDecimal.valueOf(p.getStock())))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        ResumenInventario r = inv.generarResumen(3, 0);
+        assertEquals(todos.size(), r.getCantidadProductos(), contexto);
+        assertEquals(items, r.getTotalItems(), contexto);
+        assertEquals(0, valor.compareTo(r.getValorTotal()), contexto + ": " + valor + " != " + r.getValorTotal());
+    }
+
+    @Test
+    void totales_coincidenConRecalculo_trasOperacionesAleatorias() {
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            Random rnd = new Random(semilla);
+            Inventario inv = new Inventario();
+            List<Producto> sueltos = new ArrayList<>();
+
+            for (int paso = 0; paso < 500; paso++) {
+                String codigo = "K" + rnd.nextInt(40);
+                String precio = rnd.nextInt(100_000) + "." + rnd.nextInt(1000);
+                try {
+                    switch (rnd.nextInt(8)) {
+                        case 0, 1 -> inv.agregarProducto(new Producto(codigo, "N" + codigo, "", new BigDecimal(precio), rnd.nextInt(50)));
+                        case 2 -> inv.buscarPorId(codigo).ifPresent(p -> {
+                            inv.eliminarProducto(codigo);
+                            sueltos.add(p);
+                        });
+                        case 3 -> inv.aumentarStock(codigo, 1 + rnd.nextInt(20));
+                        case 4 -> inv.disminuirStock(codigo, 1 + rnd.nextInt(20));
+                        case 5 -> inv.actualizarProducto(codigo, p -> p.actualizarPrecio(new BigDecimal(precio)));
+                        case 6 -> inv.buscarPorId(codigo).ifPresent(p -> p.setStock(rnd.nextInt(100)));
+                        default -> {
+                            // Un producto ya eliminado no debe afectar los totales
+                            if (!sueltos.isEmpty()) sueltos.get(rnd.nextInt(sueltos.size())).setStock(rnd.nextInt(100));
+                        }
+                    }
+                } catch (ValidacionException | ProductoNoEncontradoException e) {
+                    // operacion rechazada: los totales no deben cambiar
+                }
+                assertIgualARecalculo(inv, "semilla " + semilla + ", paso " + paso);
+            }
+        }
+    }
+
+    @Test
+    void sumaQueDesbordaElLong_esExacta_yVuelveAlLongCuandoCabe() {
+        Inventario inv = new Inventario();
+        // Cada aporte cabe en un long, la suma de los dos no
+        inv.agregarProducto(new Producto("A", "A", "", new BigDecimal("50000000000000000.00"), 1));
+        inv.agregarProducto(new Producto("B", "B", "", new BigDecimal("50000000000000000.00"), 1));
+        assertEquals(new BigDecimal("100000000000000000.00"), inv.generarResumen(3, 0).getValorTotal());
+        assertIgualARecalculo(inv, "desbordado");
+
+        inv.eliminarProducto("B");
+        assertEquals(new BigDecimal("50000000000000000.00"), inv.generarResumen(3, 0).getValorTotal());
+        inv.aumentarStock("A", 1);
+        assertIgualARecalculo(inv, "de nuevo en long");
+    }
+
+    @Test
+    void excedente_seDevuelveAlAcumulado() {
+        Agregados a = new Agregados();
+        Producto grande = new Producto("G", "G", "", new BigDecimal("90000000000000000.00"), 1_000);
+        Producto otro = new Producto("O", "O", "", new BigDecimal("50000000000000000.00"), 1);
+        a.agregar(grande);
+        a.agregar(otro);
+        a.agregar(otro);
+        assertTrue(a.isDesbordado());
+        assertEquals(new BigDecimal("90100000000000000000.00"), a.getValorTotal());
+
+        a.quitar(grande);
+        a.quitar(otro);
+        assertEquals(new BigDecimal("50000000000000000.00"), a.getValorTotal());
+        assertFalse(a.isDesbordado());
+        a.stockCambiado(otro, 1, 2);
+        assertEquals(new BigDecimal("100000000000000000.00"), a.getValorTotal());
+    }
+}
@@ -0,0 +1,108 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.EstadisticasCache;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class CacheVistasTest {
+    private static final Comparator<Producto> POR_PRECIO = Comparator.comparing(Producto::getPrecio);
+    private static final Comparator<Producto> POR_NOMBRE = Comparator.comparing(Producto::getNombre);
+
+    private Inventario inv;
+
+    @BeforeEach
+    void setUp() {
+        inv = new Inventario();
+        inv.agregarProducto(new Producto("A1", "Zapatilla running", "roja", new BigDecimal("30"), 5));
+        inv.agregarProducto(new Producto("A2", "Camiseta", "running dry", new BigDecimal("10"), 2));
+        inv.agregarProducto(new Producto("A3", "Gorra", "", new BigDecimal("20"), 9));
+        inv.habilitarCache(8);
+    }
+
+    private static List<String> codigos(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).toList();
+    }
+
+    @Test
+    void consultaRepetida_seSirveDesdeLaCache() {
+        List<Producto> primera = inv.listarOrdenado(POR_PRECIO);
+        assertSame(primera, inv.listarOrdenado(POR_PRECIO));
+        assertSame(inv.buscarPorTexto("running"), inv.buscarPorTexto("RUNNING"));
+
+        EstadisticasCache e = inv.estadisticasCache();
+        assertEquals(2, e.getAciertos());
+        assertEquals(2, e.getFallos());
+        assertEquals(2, e.getEntradas());
+    }
+
+    @Test
+    void cambioPorConsumer_invalidaResultados() {
+        assertEquals(List.of("A2", "A3", "A1"), codigos(inv.listarOrdenado(POR_PRECIO)));
+        inv.actualizarProducto("A1", p -> p.setPrecio(new BigDecimal("1")));
+        assertEquals(List.of("A1", "A2", "A3"), codigos(inv.listarOrdenado(POR_PRECIO)));
+
+        assertEquals(2, inv.buscarPorTexto("running").size());
+        inv.actualizarProducto("A2", p -> p.setDescripcion("algodon"));
+        assertEquals(List.of("A1"), codigos(inv.buscarPorTexto("running")));
+    }
+
+    @Test
+    void todasLasEscrituras_incrementanLaVersion() {
+        long v = inv.getVersion();
+        inv.agregarProducto(new Producto("A4", "Media", BigDecimal.ONE));
+        assertTrue(inv.getVersion() > v);
+        v = inv.getVersion();
+        inv.aumentarStock("A4", 3);
+        assertTrue(inv.getVersion() > v);
+        v = inv.getVersion();
+        inv.aplicarMovimientos(new LoteMovimientos().agregar("A1", -1), ModoLote.TODO_O_NADA);
+        assertTrue(inv.getVersion() > v);
+        v = inv.getVersion();
+        inv.actualizarProducto("A4", p -> p.setNombre("Calcetin"));
+        assertTrue(inv.getVersion() > v);
+        v = inv.getVersion();
+        inv.eliminarProducto("A4");
+        assertTrue(inv.getVersion() > v);
+        v = inv.getVersion();
+        inv.listarTodos();
+        inv.buscarPorNombre("gor");
+        assertEquals(v, inv.getVersion());
+    }
+
+    @Test
+    void lruDesalojaLaMenosUsada() {
+        inv.habilitarCache(2);
+        inv.listarOrdenado(POR_PRECIO);
+        inv.listarOrdenado(POR_NOMBRE);
+        inv.listarOrdenado(POR_PRECIO);
+        inv.listarTodos(); // desaloja POR_NOMBRE
+        inv.listarOrdenado(POR_PRECIO);
+        inv.listarOrdenado(POR_NOMBRE);
+
+        EstadisticasCache e = inv.estadisticasCache();
+        assertEquals(2, e.getAciertos());
+        assertEquals(4, e.getFallos());
+        assertEquals(2, e.getDesalojos());
+        assertEquals(2, e.getEntradas());
+    }
+
+    @Test
+    void deshabilitada_noGuardaNada() {
+        inv.deshabilitarCache();
+        inv.listarTodos();
+        inv.listarTodos();
+        assertEquals(0, inv.estadisticasCache().getAciertos());
+        assertThrows(ValidacionException.class, () -> inv.habilitarCache(0));
+    }
+}
@@ -0,0 +1,305 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.PaginaProductos;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InstantaneaTest {
+
+    private static Producto p(String codigo, String precio, int stock) {
+        return new Producto(codigo, "Nombre " + codigo, "desc " + codigo, new BigDecimal(precio), stock);
+    }
+
+    private static List<String> codigos(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).toList();
+    }
+
+    private static void mismoResumen(ResumenInventario esperado, ResumenInventario r) {
+        assertEquals(esperado.getCantidadProductos(), r.getCantidadProductos());
+        assertEquals(esperado.getTotalItems(), r.getTotalItems());
+        assertEquals(0, esperado.getValorTotal().compareTo(r.getValorTotal()));
+        assertEquals(codigos(esperado.getTopPorStock()), codigos(r.getTopPorStock()));
+        assertEquals(codigos(esperado.getStockBajo()), codigos(r.getStockBajo()));
+    }
+
+    @Test
+    void snapshot_sinHabilitar_lanza() {
+        Inventario inv = new Inventario();
+        assertFalse(inv.instantaneasHabilitadas());
+        assertThrows(ValidacionException.class, inv::snapshot);
+    }
+
+    @Test
+    void habilitar_incluyeLoQueYaHabia() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(p("A", "10.00", 5));
+        inv.agregarProducto(p("B", "2.50", 0));
+        inv.habilitarInstantaneas();
+
+        Instantanea s = inv.snapshot();
+        assertEquals(2, s.size());
+        assertEquals(List.of("A", "B"), codigos(s.listarTodos()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(s.getValorTotal()));
+        assertSame(s, inv.snapshot());
+    }
+
+    @Test
+    void instantaneaVieja_noVeLosCambiosPosteriores() {
+        Inventario inv = new Inventario();
+        inv.habilitarInstantaneas();
+        inv.agregarProducto(p("A", "10.00", 5));
+        inv.agregarProducto(p("B", "1.00", 7));
+        Instantanea antes = inv.snapshot();
+
+        inv.aumentarStock("A", 10);
+        inv.buscarPorId("B").orElseThrow().setNombre("Otro");
+        inv.eliminarProducto("B");
+        inv.agregarProducto(p("C", "3.00", 1));
+
+        assertEquals(List.of("A", "B"), codigos(antes.listarTodos()));
+        assertEquals(5, antes.buscarPorId("A").orElseThrow().getStock());
+        assertEquals("Nombre B", antes.buscarPorId("B").orElseThrow().getNombre());
+        assertEquals(12, antes.getTotalItems());
+
+        Instantanea despues = inv.snapshot();
+        assertTrue(despues.getNumero() > antes.getNumero());
+        assertEquals(List.of("A", "C"), codigos(despues.listarTodos()));
+        assertEquals(15, despues.buscarPorId("A").orElseThrow().getStock());
+        assertTrue(despues.buscarPorId("B").isEmpty());
+    }
+
+    @Test
+    void productosDevueltos_sonCopias() {
+        Inventario inv = new Inventario();
+        inv.habilitarInstantaneas();
+        inv.agregarProducto(p("A", "10.00", 5));
+        Producto copia = inv.snapshot().buscarPorId("A").orElseThrow();
+        copia.setStock(99);
+        assertEquals(5, inv.buscarPorId("A").orElseThrow().getStock());
+        assertEquals(5, inv.snapshot().buscarPorId("A").orElseThrow().getStock());
+    }
+
+    @Test
+    void resumen_igualAlDelInventarioSinInstantaneas() {
+        Inventario con = new Inventario();
+        Inventario sin = new Inventario();
+        con.habilitarInstantaneas();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 2_000; i++) {
+            String precio = rnd.nextInt(500) + "." + (10 + rnd.nextInt(90));
+            int stock = rnd.nextInt(30);
+            con.agregarProducto(p("P" + i, precio, stock));
+            sin.agregarProducto(p("P" + i, precio, stock));
+        }
+        for (int i = 0; i < 3_000; i++) {
+            String codigo = "P" + rnd.nextInt(2_000);
+            if (!sin.contiene(codigo)) continue;
+            switch (rnd.nextInt(4)) {
+                case 0 -> {
+                    con.eliminarProducto(codigo);
+                    sin.eliminarProducto(codigo);
+                }
+                case 1 -> {
+                    con.aumentarStock(codigo, 3);
+                    sin.aumentarStock(codigo, 3);
+                }
+                default -> {
+                    int stock = rnd.nextInt(30);
+                    con.buscarPorId(codigo).orElseThrow().setStock(stock);
+                    sin.buscarPorId(codigo).orElseThrow().setStock(stock);
+                }
+            }
+        }
+        for (int[] caso : new int[][] {{3, 5}, {10, 0}, {50, 12}, {0, 1}}) {
+            mismoResumen(sin.generarResumen(caso[0], caso[1]), con.generarResumen(caso[0], caso[1]));
+            mismoResumen(sin.generarResumen(caso[0], caso[1]), con.snapshot().generarResumen(caso[0], caso[1]));
+        }
+        assertEquals(codigos(sin.topPorStock(40)), codigos(con.snapshot().topPorStock(40)));
+        assertEquals(codigos(sin.bajoUmbral(4)), codigos(con.snapshot().bajoUmbral(4)));
+    }
+
+    @Test
+    void valorTotal_desbordado_serecalcula() {
+        Inventario inv = new Inventario();
+        inv.habilitarInstantaneas();
+        BigDecimal caro = new BigDecimal("90000000000000.00");
+        inv.agregarProducto(new Producto("A", "a", "a", caro, 2_000));
+        inv.agregarProducto(new Producto("B", "b", "b", new BigDecimal("1.00"), 2));
+        BigDecimal esperado = caro.multiply(BigDecimal.valueOf(2_000)).add(new BigDecimal("2.00"));
+        assertEquals(0, esperado.compareTo(inv.snapshot().getValorTotal()));
+        assertEquals(0, esperado.compareTo(inv.generarResumen(3, 0).getValorTotal()));
+        assertTrue(inv.snapshot().isDesbordado());
+
+        // Cuando el total vuelve a caber, las versiones siguientes dejan de estar desbordadas
+        inv.disminuirStock("A", 1_999);
+        assertFalse(inv.snapshot().isDesbordado());
+        assertEquals(0, caro.add(new BigDecimal("2.00")).compareTo(inv.snapshot().getValorTotal()));
+        inv.eliminarProducto("A");
+        assertEquals(0, new BigDecimal("2.00").compareTo(inv.snapshot().getValorTotal()));
+    }
+
+    @Test
+    void listarPagina_recorreUnaMismaVersion() {
+        Inventario inv = new Inventario();
+        inv.habilitarInstantaneas();
+        for (int i = 0; i < 25; i++) {
+            inv.agregarProducto(p(String.format("C%02d", i), "1.00", i));
+        }
+        Instantanea s = inv.snapshot();
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaProductos pag = s.listarPagina(cursor, 10);
+            vistos.addAll(codigos(pag.getProductos()));
+            cursor = pag.getSiguienteCursor();
+            // Cambios entre paginas no afectan a la instantanea
+            inv.eliminarProducto("C24");
+            inv.agregarProducto(p("C00a" + vistos.size(), "1.00", 1));
+        } while (cursor != null);
+        assertEquals(25, vistos.size());
+        assertEquals("C00", vistos.get(0));
+        assertEquals("C24", vistos.get(24));
+        assertThrows(ValidacionException.class, () -> s.listarPagina(null, 0));
+    }
+
+    @Test
+    void deshabilitar_conservaLasYaTomadas() {
+        Inventario inv = new Inventario();
+        inv.habilitarInstantaneas();
+        inv.agregarProducto(p("A", "1.00", 1));
+        Instantanea s = inv.snapshot();
+        inv.deshabilitarInstantaneas();
+        inv.eliminarProducto("A");
+        assertEquals(1, s.size());
+        assertThrows(ValidacionException.class, inv::snapshot);
+    }
+
+    @Test
+    void concurrente_cadaInstantaneaEsConsistente() throws Exception {
+        // Transferencias entre pares de productos: el total de items nunca cambia en una version
+        // completa, aunque cada transferencia sean dos escrituras (en el medio vale total - 1)
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        inv.habilitarInstantaneas();
+        int productos = 200;
+        for (int i = 0; i < productos; i++) {
+            inv.agregarProducto(p("P" + i, "1.00", 100));
+        }
+        long total = 100L * productos;
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        CountDownLatch listos = new CountDownLatch(4);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 3; h++) {
+            int semilla = h;
+            hilos.add(new Thread(() -> {
+                Random rnd = new Random(semilla);
+                listos.countDown();
+                for (int i = 0; i < 20_000; i++) {
+                    String c = "P" + rnd.nextInt(productos);
+                    inv.disminuirStock(c, 1);
+                    inv.aumentarStock(c, 1);
+                }
+            }));
+        }
+        hilos.add(new Thread(() -> {
+            listos.countDown();
+            long ultimo = -1;
+            while (!fin.get()) {
+                Instantanea s = inv.snapshot();
+                long suma = 0;
+                for (Producto x : s.listarTodos()) suma += x.getStock();
+                if (suma != s.getTotalItems()) error.compareAndSet(null, "suma " + suma + " != " + s.getTotalItems());
+                if (s.getTotalItems() < total - 3 || s.getTotalItems() > total) error.compareAndSet(null, "total " + s.getTotalItems());
+                if (s.getNumero() < ultimo) error.compareAndSet(null, "version hacia atras");
+                ultimo = s.getNumero();
+            }
+        }));
+        for (Thread t : hilos) t.start();
+        for (int i = 0; i < 3; i++) hilos.get(i).join();
+        fin.set(true);
+        hilos.get(3).join();
+
+        assertNull(error.get());
+        Instantanea s = inv.snapshot();
+        assertEquals(total, s.getTotalItems());
+        assertEquals(productos, s.size());
+        for (Producto x : inv.listarTodos()) {
+            assertEquals(x.getStock(), s.buscarPorId(x.getCodigo()).orElseThrow().getStock());
+        }
+    }
+
+    @Test
+    void loteDeMovimientos_saleEnUnaSolaVersion() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        inv.habilitarInstantaneas();
+        for (int i = 0; i < 10; i++) {
+            inv.agregarProducto(p("P" + i, "1.00", 1_000));
+        }
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread lector = new Thread(() -> {
+            while (!fin.get()) {
+                long total = inv.snapshot().getTotalItems();
+                if (total != 10_000) error.compareAndSet(null, "total " + total);
+            }
+        });
+        lector.start();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            // Un lote que no cambia el total: una version a medias si lo cambiaria
+            LoteMovimientos lote = new LoteMovimientos()
+                .agregar("P" + rnd.nextInt(5), -1)
+                .agregar("P" + (5 + rnd.nextInt(5)), 1);
+            inv.aplicarMovimientos(lote, ModoLote.TODO_O_NADA);
+        }
+        fin.set(true);
+        lector.join();
+        assertNull(error.get());
+    }
+
+    @Test
+    void habilitarMientrasSeConsulta_noPublicaUnaVersionAMedias() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        int productos = 100_000;
+        List<Producto> lote = new ArrayList<>();
+        for (int i = 0; i < productos; i++) {
+            lote.add(p("P" + i, "1.00", 1));
+        }
+        inv.agregarProductos(lote);
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread lector = new Thread(() -> {
+            while (!fin.get()) {
+                ResumenInventario r = inv.generarResumen(1, 0);
+                if (r.getCantidadProductos() != productos) error.compareAndSet(null, "productos " + r.getCantidadProductos());
+                if (inv.instantaneasHabilitadas() && inv.snapshot().size() != productos) {
+                    error.compareAndSet(null, "snapshot " + inv.snapshot().size());
+                }
+            }
+        });
+        lector.start();
+        inv.habilitarInstantaneas();
+        Thread.sleep(20);
+        fin.set(true);
+        lector.join();
+        assertNull(error.get());
+        assertEquals(productos, inv.snapshot().getTotalItems());
+    }
+}
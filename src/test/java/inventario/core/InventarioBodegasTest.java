@@ -0,0 +1,282 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InventarioBodegasTest {
+    private static final String P = Inventario.BODEGA_PRINCIPAL;
+
+    private static Producto p(String codigo, String precio, int stock) {
+        return new Producto(codigo, "Nombre " + codigo, "desc", new BigDecimal(precio), stock);
+    }
+
+    private static Inventario conBodegas(String... nombres) {
+        Inventario inv = new Inventario();
+        inv.habilitarBodegas();
+        for (String n : nombres) inv.registrarBodega(n);
+        return inv;
+    }
+
+    private static List<String> codigos(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).toList();
+    }
+
+    @Test
+    void sinHabilitar_lanza() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(p("A", "1.00", 1));
+        assertFalse(inv.bodegasHabilitadas());
+        assertThrows(ValidacionException.class, () -> inv.stockEnBodega("A", P));
+        assertThrows(ValidacionException.class, () -> inv.transferirStock("A", P, "X", 1));
+    }
+
+    @Test
+    void habilitar_dejaTodoEnLaPrincipal() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(p("A", "1.00", 7));
+        inv.habilitarBodegas();
+        assertEquals(List.of(P), inv.listarBodegas());
+        assertEquals(Map.of(P, 7), inv.stockPorBodega("A"));
+        assertTrue(inv.registrarBodega("Norte"));
+        assertFalse(inv.registrarBodega("Norte"));
+        assertEquals(0, inv.stockEnBodega("A", "Norte"));
+        assertEquals(Map.of(P, 7), inv.stockPorBodega("A"));
+    }
+
+    @Test
+    void operacionesPorBodega_mantienenElTotal() {
+        Inventario inv = conBodegas("Norte", "Sur");
+        inv.agregarProducto(p("A", "2.00", 10));
+        inv.aumentarStock("A", "Norte", 5);
+        inv.transferirStock("A", P, "Sur", 4);
+        inv.disminuirStock("A", "Norte", 2);
+
+        assertEquals(Map.of(P, 6, "Norte", 3, "Sur", 4), inv.stockPorBodega("A"));
+        assertEquals(13, inv.buscarPorId("A").orElseThrow().getStock());
+        assertEquals(13, inv.generarResumen(3, 0).getTotalItems());
+        assertEquals(List.of(P, "Norte", "Sur"), new ArrayList<>(inv.stockPorBodega("A").keySet()));
+    }
+
+    @Test
+    void cambioPorBodegaRechazado_noDejaElRepartoDescuadrado() {
+        Inventario inv = conBodegas("Norte");
+        inv.agregarProducto(p("A", "2.00", 10));
+        inv.aumentarStock("A", "Norte", 3);
+        boolean[] rechazar = {true};
+        inv.agregarObservador(new ObservadorInventario() {
+            @Override
+            public void antesDeCambiar(Producto p) {
+                if (rechazar[0]) throw new IllegalStateException("rechazado");
+            }
+        });
+        inv.registrarBodega("Sur");
+
+        assertThrows(IllegalStateException.class, () -> inv.aumentarStock("A", "Sur", 5));
+        assertThrows(IllegalStateException.class, () -> inv.aumentarStock("A", "Norte", 5));
+        assertThrows(IllegalStateException.class, () -> inv.disminuirStock("A", "Norte", 2));
+        assertEquals(Map.of(P, 10, "Norte", 3), inv.stockPorBodega("A"));
+        assertEquals(13, inv.buscarPorId("A").orElseThrow().getStock());
+        assertEquals(0, inv.generarResumen("Sur", 3, 0).getTotalItems());
+
+        rechazar[0] = false;
+        inv.disminuirStock("A", "Norte", 2);
+        assertEquals(Map.of(P, 10, "Norte", 1), inv.stockPorBodega("A"));
+    }
+
+    @Test
+    void valorDeUnaBodegaQueNoCabeEnUnLong_esExacto() {
+        Inventario inv = conBodegas("Norte");
+        BigDecimal caro = new BigDecimal("90000000000000.00");
+        inv.agregarProducto(new Producto("A", "a", "a", caro, 0));
+        inv.agregarProducto(p("B", "1.50", 2));
+        inv.aumentarStock("A", "Norte", 2_000);
+        inv.aumentarStock("B", "Norte", 1);
+
+        BigDecimal desbordado = caro.multiply(BigDecimal.valueOf(2_000)).add(new BigDecimal("1.50"));
+        assertEquals(0, desbordado.compareTo(inv.generarResumen("Norte", 3, 0).getValorTotal()));
+        inv.disminuirStock("A", "Norte", 1_999);
+        assertEquals(0, caro.add(new BigDecimal("1.50")).compareTo(inv.generarResumen("Norte", 3, 0).getValorTotal()));
+        inv.actualizarProducto("B", x -> x.setPrecio(new BigDecimal("2.00")));
+        assertEquals(0, caro.add(new BigDecimal("2.00")).compareTo(inv.generarResumen("Norte", 3, 0).getValorTotal()));
+        assertEquals(0, new BigDecimal("4.00").compareTo(inv.generarResumen(P, 3, 0).getValorTotal()));
+    }
+
+    @Test
+    void aumentoPorBodegaQueDesborda_seRechaza() {
+        Inventario inv = conBodegas("Norte");
+        inv.agregarProducto(p("A", "1.00", Integer.MAX_VALUE - 1));
+        ValidacionException e = assertThrows(ValidacionException.class, () -> inv.aumentarStock("A", "Norte", 2));
+        assertEquals("El stock excede el maximo permitido.", e.getMessage());
+        assertEquals(Map.of(P, Integer.MAX_VALUE - 1), inv.stockPorBodega("A"));
+    }
+
+    @Test
+    void transferencia_sinStockSuficiente_noCambiaNada() {
+        Inventario inv = conBodegas("Norte");
+        inv.agregarProducto(p("A", "1.00", 3));
+        assertThrows(ValidacionException.class, () -> inv.transferirStock("A", P, "Norte", 4));
+        assertThrows(ValidacionException.class, () -> inv.transferirStock("A", P, P, 1));
+        assertThrows(ValidacionException.class, () -> inv.transferirStock("A", P, "Nada", 1));
+        assertThrows(ValidacionException.class, () -> inv.disminuirStock("A", "Norte", 1));
+        assertThrows(ProductoNoEncontradoException.class, () -> inv.transferirStock("Z", P, "Norte", 1));
+        assertEquals(Map.of(P, 3), inv.stockPorBodega("A"));
+        assertEquals(3, inv.buscarPorId("A").orElseThrow().getStock());
+    }
+
+    @Test
+    void cambiosSinBodega_vanALaPrincipalYLasBajasSiguenEnOrden() {
+        Inventario inv = conBodegas("Norte", "Sur");
+        inv.agregarProducto(p("A", "1.00", 2));
+        inv.aumentarStock("A", "Sur", 5);
+        inv.aumentarStock("A", "Norte", 1);
+        inv.aumentarStock("A", 3);
+        assertEquals(Map.of(P, 5, "Norte", 1, "Sur", 5), inv.stockPorBodega("A"));
+
+        // 5 de la principal, 1 de Norte y 1 de Sur
+        inv.disminuirStock("A", 7);
+        assertEquals(Map.of(P, 0, "Norte", 0, "Sur", 4), inv.stockPorBodega("A"));
+
+        inv.buscarPorId("A").orElseThrow().setStock(10);
+        assertEquals(Map.of(P, 6, "Norte", 0, "Sur", 4), inv.stockPorBodega("A"));
+
+        inv.aplicarMovimientos(new LoteMovimientos().agregar("A", -8), ModoLote.TODO_O_NADA);
+        assertEquals(Map.of(P, 0, "Norte", 0, "Sur", 2), inv.stockPorBodega("A"));
+    }
+
+    @Test
+    void resumenPorBodega_igualAlCalculadoRecorriendo() {
+        Inventario inv = conBodegas("B1", "B2", "B3");
+        List<String> bodegas = inv.listarBodegas();
+        Random rnd = new Random(9);
+        for (int i = 0; i < 500; i++) {
+            inv.agregarProducto(p("P" + i, rnd.nextInt(100) + ".50", rnd.nextInt(20)));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            String c = "P" + rnd.nextInt(500);
+            if (!inv.contiene(c)) continue;
+            String b = bodegas.get(rnd.nextInt(bodegas.size()));
+            switch (rnd.nextInt(5)) {
+                case 0 -> inv.aumentarStock(c, b, 1 + rnd.nextInt(5));
+                case 1 -> {
+                    int hay = inv.stockEnBodega(c, b);
+                    if (hay > 0) inv.disminuirStock(c, b, 1 + rnd.nextInt(hay));
+                }
+                case 2 -> {
+                    int hay = inv.stockEnBodega(c, P);
+                    if (hay > 0) inv.transferirStock(c, P, b.equals(P) ? "B1" : b, hay);
+                }
+                case 3 -> inv.buscarPorId(c).orElseThrow().setPrecio(new BigDecimal(rnd.nextInt(100) + ".25"));
+                default -> {
+                    if (rnd.nextInt(20) == 0) inv.eliminarProducto(c);
+                }
+            }
+            if (i % 50 == 0) inv.agregarProducto(p("N" + i, "3.00", 4));
+        }
+
+        long sumaTotales = 0;
+        for (String b : bodegas) {
+            Map<String, Integer> stock = new HashMap<>();
+            BigDecimal valor = BigDecimal.ZERO;
+            for (Producto x : inv.listarTodos()) {
+                Integer s = inv.stockPorBodega(x.getCodigo()).get(b);
+                if (s == null) continue;
+                stock.put(x.getCodigo(), s);
+                valor = valor.add(x.getPrecio().multiply(BigDecimal.valueOf(s)));
+            }
+            Comparator<String> mayorStock = Comparator.<String>comparingInt(stock::get).reversed()
+                .thenComparing(Comparator.naturalOrder());
+            List<String> top = stock.keySet().stream().sorted(mayorStock).limit(10).toList();
+            List<String> bajos = stock.keySet().stream().filter(c -> stock.get(c) < 3)
+                .sorted(Comparator.<String>comparingInt(stock::get).thenComparing(Comparator.naturalOrder())).toList();
+
+            ResumenInventario r = inv.generarResumen(b, 10, 3);
+            assertEquals(stock.size(), r.getCantidadProductos(), b);
+            assertEquals(stock.values().stream().mapToLong(Integer::longValue).sum(), r.getTotalItems(), b);
+            assertEquals(0, valor.compareTo(r.getValorTotal()), b);
+            assertEquals(top, codigos(r.getTopPorStock()), b);
+            assertEquals(bajos, codigos(r.getStockBajo()), b);
+            for (Producto x : r.getTopPorStock()) {
+                assertEquals(stock.get(x.getCodigo()).intValue(), x.getStock());
+            }
+            assertEquals(top.subList(0, 4), codigos(inv.topPorStock(b, 4)));
+            assertEquals(bajos, codigos(inv.bajoUmbral(b, 3)));
+            sumaTotales += r.getTotalItems();
+        }
+        assertEquals(inv.generarResumen(3, 0).getTotalItems(), sumaTotales);
+    }
+
+    @Test
+    void top_conBloqueGrandeDeEmpates_salePorCodigo() {
+        Inventario inv = conBodegas();
+        for (int i = 0; i < 300; i++) {
+            inv.agregarProducto(p(String.format("C%03d", 299 - i), "1.00", 5));
+        }
+        inv.aumentarStock("C150", P, 1);
+        assertEquals(List.of("C150", "C000", "C001", "C002"), codigos(inv.topPorStock(P, 4)));
+    }
+
+    @Test
+    void concurrente_transferenciasNoPierdenStock() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        inv.habilitarBodegas();
+        List<String> bodegas = new ArrayList<>(List.of(P));
+        for (int i = 0; i < 5; i++) {
+            inv.registrarBodega("B" + i);
+            bodegas.add("B" + i);
+        }
+        for (int i = 0; i < 50; i++) {
+            inv.agregarProducto(p("P" + i, "1.00", 100));
+        }
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            int semilla = h;
+            hilos.add(new Thread(() -> {
+                Random rnd = new Random(semilla);
+                for (int i = 0; i < 20_000; i++) {
+                    String c = "P" + rnd.nextInt(50);
+                    String origen = bodegas.get(rnd.nextInt(bodegas.size()));
+                    String destino = bodegas.get(rnd.nextInt(bodegas.size()));
+                    try {
+                        if (rnd.nextBoolean()) {
+                            inv.transferirStock(c, origen, destino, 1 + rnd.nextInt(3));
+                        } else {
+                            inv.disminuirStock(c, 1);
+                            inv.aumentarStock(c, destino, 1);
+                        }
+                    } catch (ValidacionException e) {
+                        // Sin stock en el origen o misma bodega
+                    }
+                }
+            }));
+        }
+        for (Thread t : hilos) t.start();
+        for (Thread t : hilos) t.join();
+
+        long total = 0;
+        for (int i = 0; i < 50; i++) {
+            int suma = inv.stockPorBodega("P" + i).values().stream().mapToInt(Integer::intValue).sum();
+            assertEquals(inv.buscarPorId("P" + i).orElseThrow().getStock(), suma);
+            total += suma;
+        }
+        long porBodegas = 0;
+        for (String b : bodegas) porBodegas += inv.generarResumen(b, 3, 0).getTotalItems();
+        assertEquals(5_000, total);
+        assertEquals(total, porBodegas);
+    }
+}
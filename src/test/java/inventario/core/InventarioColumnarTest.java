@@ -0,0 +1,150 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InventarioColumnarTest {
+
+    private static List<String> codigos(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).toList();
+    }
+
+    private static List<String> codigosOrdenados(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).sorted().toList();
+    }
+
+    private static Producto prod(int i, Random rnd) {
+        return new Producto("P" + i, "Prod_" + (i % 50), (i % 7 == 0) ? "running " + i : "desc_" + rnd.nextInt(100),
+            BigDecimal.valueOf(rnd.nextInt(1_000_000), 2), rnd.nextInt(30));
+    }
+
+    private static void assertMismosResultados(Inventario a, InventarioColumnar b) {
+        assertEquals(a.size(), b.size());
+        assertEquals(codigos(a.listarTodos()), codigos(b.listarTodos()));
+        for (Producto p : a.listarTodos()) {
+            Producto q = b.buscarPorId(p.getCodigo()).orElseThrow();
+            assertEquals(p.getNombre(), q.getNombre());
+            assertEquals(p.getDescripcion(), q.getDescripcion());
+            assertEquals(p.getPrecio(), q.getPrecio());
+            assertEquals(p.getStock(), q.getStock());
+        }
+
+        ResumenInventario ra = a.generarResumen(5, 4);
+        ResumenInventario rb = b.generarResumen(5, 4);
+        assertEquals(ra.getCantidadProductos(), rb.getCantidadProductos());
+        assertEquals(ra.getTotalItems(), rb.getTotalItems());
+        assertEquals(0, ra.getValorTotal().compareTo(rb.getValorTotal()));
+        assertEquals(codigos(ra.getTopPorStock()), codigos(rb.getTopPorStock()));
+        assertEquals(codigos(ra.getStockBajo()), codigos(rb.getStockBajo()));
+
+        assertEquals(codigosOrdenados(a.buscarPorTexto("running")), codigosOrdenados(b.buscarPorTexto("running")));
+        assertEquals(codigosOrdenados(a.buscarPorNombre("prod_1")), codigosOrdenados(b.buscarPorNombre("prod_1")));
+        Comparator<Producto> porPrecio = Comparator.comparing(Producto::getPrecio).thenComparing(Producto::getCodigo);
+        assertEquals(codigos(a.listarOrdenado(porPrecio)), codigos(b.listarOrdenado(porPrecio)));
+    }
+
+    @Test
+    void resultados_igualesAlBackendHashMap_trasOperacionesAleatorias() {
+        Random rnd = new Random(11);
+        Inventario a = new Inventario();
+        InventarioColumnar b = new InventarioColumnar();
+
+        for (int i = 0; i < 2_000; i++) {
+            a.agregarProducto(prod(i, new Random(i)));
+            b.agregarProducto(prod(i, new Random(i)));
+        }
+        assertMismosResultados(a, b);
+
+        for (int paso = 0; paso < 3_000; paso++) {
+            String codigo = "P" + rnd.nextInt(2_200);
+            int cant = 1 + rnd.nextInt(10);
+            int op = rnd.nextInt(4);
+            boolean okA = intentar(() -> aplicar(a, op, codigo, cant));
+            boolean okB = intentar(() -> aplicar(b, op, codigo, cant));
+            assertEquals(okA, okB, "paso " + paso);
+        }
+        assertMismosResultados(a, b);
+    }
+
+    private static void aplicar(Inventario inv, int op, String codigo, int cant) {
+        switch (op) {
+            case 0 -> inv.aumentarStock(codigo, cant);
+            case 1 -> inv.disminuirStock(codigo, cant);
+            case 2 -> inv.actualizarProducto(codigo, p -> p.setPrecioCentavos(cant * 1_000L));
+            default -> {
+                if (!inv.eliminarProducto(codigo)) {
+                    inv.agregarProducto(new Producto(codigo, "Nuevo", "", BigDecimal.ONE, cant));
+                }
+            }
+        }
+    }
+
+    private static void aplicar(InventarioColumnar inv, int op, String codigo, int cant) {
+        switch (op) {
+            case 0 -> inv.aumentarStock(codigo, cant);
+            case 1 -> inv.disminuirStock(codigo, cant);
+            case 2 -> inv.actualizarProducto(codigo, p -> p.setPrecioCentavos(cant * 1_000L));
+            default -> {
+                if (!inv.eliminarProducto(codigo)) {
+                    inv.agregarProducto(new Producto(codigo, "Nuevo", "", BigDecimal.ONE, cant));
+                }
+            }
+        }
+    }
+
+    private static boolean intentar(Runnable r) {
+        try {
+            r.run();
+            return true;
+        } catch (ValidacionException | ProductoNoEncontradoException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void eliminar_mantieneSlotsDensos_y_validaciones() {
+        InventarioColumnar inv = new InventarioColumnar();
+        inv.agregarProducto(new Producto("A", "Uno", "", BigDecimal.ONE, 1));
+        inv.agregarProducto(new Producto("B", "Dos", "", BigDecimal.ONE, 2));
+        inv.agregarProducto(new Producto("C", "Tres", "", BigDecimal.ONE, 3));
+
+        assertTrue(inv.eliminarProducto("A"));
+        assertFalse(inv.eliminarProducto("A"));
+        assertEquals(List.of("B", "C"), codigos(inv.listarTodos()));
+        assertEquals(3, inv.buscarPorId("C").orElseThrow().getStock());
+
+        assertThrows(ValidacionException.class, () -> inv.agregarProducto(new Producto("B", "X", BigDecimal.ONE)));
+        assertThrows(ProductoNoEncontradoException.class, () -> inv.aumentarStock("Z", 1));
+        assertThrows(ValidacionException.class, () -> inv.disminuirStock("B", 3));
+        assertThrows(ValidacionException.class, () -> inv.actualizarProducto("B", p -> p.setNombre(" ")));
+        assertEquals("Dos", inv.buscarPorId("B").orElseThrow().getNombre());
+    }
+
+    @Test
+    void vistas_compartenLosTextosGuardadosYElPrecioExacto() {
+        InventarioColumnar inv = new InventarioColumnar();
+        Producto p = new Producto("A", " Tornillo ", "Acero M6", new BigDecimal("0.125"), 4);
+        inv.agregarProducto(p);
+
+        Producto v = inv.buscarPorId("A").orElseThrow();
+        assertSame(p.getNombre(), v.getNombre());
+        assertSame(p.getDescripcion(), v.getDescripcion());
+        assertEquals(p.getPrecioCentavos(), v.getPrecioCentavos());
+        assertEquals(new BigDecimal("0.13"), v.getPrecio());
+        assertSame(v.getNombre(), inv.listarTodos().get(0).getNombre());
+    }
+}
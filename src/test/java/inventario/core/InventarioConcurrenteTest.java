@@ -0,0 +1,212 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InventarioConcurrenteTest {
+
+    private static Inventario seed(int n, int stock) {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        for (int i = 0; i < n; i++) {
+            inv.agregarProducto(new Producto("C" + i, "Prod_" + i, "", new BigDecimal("1.00"), stock));
+        }
+        return inv;
+    }
+
+    // Ejecuta la tarea en 'hilos' hilos que arrancan a la vez y devuelve la duracion en nanos
+    private static long correr(int hilos, TareaHilo tarea) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> fs = new ArrayList<>();
+        for (int t = 0; t < hilos; t++) {
+            final int id = t;
+            fs.add(pool.submit(() -> {
+                largada.await();
+                tarea.correr(id);
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        largada.countDown();
+        for (Future<?> f : fs) {
+            f.get();
+        }
+        long dur = System.nanoTime() - t0;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        return dur;
+    }
+
+    @FunctionalInterface
+    private interface TareaHilo {
+        void correr(int id);
+    }
+
+    @Test
+    void mismoProducto_noPierdeDecrementosNiVendeDeMas() throws Exception {
+        Inventario inv = seed(1, 1_000);
+        AtomicInteger rechazos = new AtomicInteger();
+
+        correr(8, id -> {
+            for (int i = 0; i < 200; i++) {
+                try {
+                    inv.disminuirStock("C0", 1);
+                } catch (ValidacionException e) {
+                    rechazos.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, inv.buscarPorId("C0").orElseThrow().getStock());
+        assertEquals(8 * 200 - 1_000, rechazos.get());
+    }
+
+    @Test
+    void aumentosYDisminucionesMezclados_cuadranPorProducto() throws Exception {
+        Inventario inv = seed(16, 10_000);
+
+        correr(8, id -> {
+            for (int i = 0; i < 20_000; i++) {
+                String codigo = "C" + (i % 16);
+                if ((i + id) % 2 == 0) inv.aumentarStock(codigo, 3);
+                else inv.actualizarProducto(codigo, p -> p.disminuirStock(3));
+            }
+        });
+
+        for (Producto p : inv.listarTodos()) {
+            assertEquals(10_000, p.getStock(), "Stock descuadrado en " + p.getCodigo());
+        }
+        assertEquals(16, inv.size());
+    }
+
+    @Test
+    void agregarYEliminarConcurrente_mantieneIndicesConsistentes() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+
+        correr(4, id -> {
+            for (int i = 0; i < 2_000; i++) {
+                String codigo = "H" + id + "_" + i;
+                inv.agregarProducto(new Producto(codigo, "Hilo" + id, "", new BigDecimal("1.00"), 1));
+                if (i % 2 == 0) inv.eliminarProducto(codigo);
+            }
+        });
+
+        assertEquals(4 * 1_000, inv.size());
+        assertEquals(1_000, inv.buscarPorNombre("hilo2").size());
+    }
+
+    @Test
+    void cargaMasivaMientrasSeBusca_noDejaProductosFueraDelIndiceDeTexto() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        final int lotes = 200;
+        final int porLote = 500;
+        CountDownLatch cargado = new CountDownLatch(1);
+
+        correr(2, id -> {
+            if (id == 0) {
+                for (int l = 0; l < lotes; l++) {
+                    List<Producto> lote = new ArrayList<>(porLote);
+                    for (int i = 0; i < porLote; i++) {
+                        lote.add(new Producto("L" + l + "_" + i, "Lote " + l, "", new BigDecimal("1.00"), 1));
+                    }
+                    inv.agregarProductos(lote);
+                }
+                cargado.countDown();
+            } else {
+                while (cargado.getCount() > 0) {
+                    inv.buscarPorTexto("lote");
+                }
+            }
+        });
+
+        assertEquals(lotes * porLote, inv.buscarPorTexto("lote").size());
+        assertEquals(porLote, inv.buscarPorNombre("lote 199").size());
+    }
+
+    @Test
+    void cargasMasivasQueSeCruzan_entranEnterasONoEntran() throws Exception {
+        for (int ronda = 0; ronda < 20; ronda++) {
+            Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+            AtomicInteger rechazadas = new AtomicInteger();
+
+            correr(2, id -> {
+                // Cada lote comparte un solo codigo con el otro, al final
+                List<Producto> lote = new ArrayList<>();
+                for (int i = 0; i < 1_000; i++) {
+                    lote.add(new Producto("H" + id + "_" + i, "Hilo" + id, "", new BigDecimal("1.00"), 1));
+                }
+                lote.add(new Producto("COMUN", "Comun", "", new BigDecimal("1.00"), 1));
+                try {
+                    inv.agregarProductos(lote);
+                } catch (ValidacionException e) {
+                    rechazadas.incrementAndGet();
+                }
+            });
+
+            assertEquals(1, rechazadas.get());
+            assertEquals(1_001, inv.size());
+            assertEquals(1_001, inv.generarResumen(3, 0).getTotalItems());
+            assertEquals(1_000, inv.buscarPorNombre("hilo0").size() + inv.buscarPorNombre("hilo1").size());
+        }
+    }
+
+    @Test
+    void tryReservarDirectoSobreElProducto_mantieneTotalesEIndices() throws Exception {
+        Inventario inv = seed(2, 1_000_000);
+        Producto p = inv.buscarPorId("C0").orElseThrow();
+
+        correr(4, id -> {
+            for (int i = 0; i < 100_000; i++) {
+                p.tryReservar(1);
+            }
+        });
+
+        assertEquals(600_000, p.getStock());
+        ResumenInventario r = inv.generarResumen(1, 700_000);
+        assertEquals(1_600_000, r.getTotalItems());
+        assertEquals(0, new BigDecimal("1600000.00").compareTo(r.getValorTotal()));
+        assertEquals(List.of(p), inv.bajoUmbral(700_000));
+        assertEquals("C1", inv.topPorStock(1).get(0).getCodigo());
+    }
+
+    @Test
+    void throughput_porCantidadDeHilos() throws Exception {
+        final int productos = 1_024;
+        final int opsPorHilo = 200_000;
+        Inventario inv = seed(productos, 1_000_000);
+        int max = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+        for (int hilos = 1; hilos <= max; hilos *= 2) {
+            final int h = hilos;
+            long nanos = correr(hilos, id -> {
+                // Cada hilo trabaja sobre su propia porcion de codigos
+                for (int i = 0; i < opsPorHilo; i += 2) {
+                    String codigo = "C" + ((id + i * h) % productos);
+                    inv.aumentarStock(codigo, 1);
+                    inv.disminuirStock(codigo, 1);
+                }
+            });
+            double opsSeg = (double) hilos * opsPorHilo / (nanos / 1e9);
+            System.out.printf("Inventario CONCURRENTE: %d hilo(s) -> %.0f ops/s%n", hilos, opsSeg);
+        }
+
+        for (Producto p : inv.listarTodos()) {
+            assertEquals(1_000_000, p.getStock());
+        }
+    }
+}
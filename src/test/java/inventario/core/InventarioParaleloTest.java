@@ -0,0 +1,117 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InventarioParaleloTest {
+    // Solo por precio: hay muchos empates y el orden entre ellos tiene que coincidir
+    private static final Comparator<Producto> POR_PRECIO = Comparator.comparingLong(Producto::getPrecioCentavos);
+
+    private static ForkJoinPool pool;
+    private static Inventario inv;
+
+    @BeforeAll
+    static void preparar() {
+        pool = new ForkJoinPool(4);
+        inv = new Inventario();
+        Random rnd = new Random(17);
+        for (int i = 0; i < 20_000; i++) {
+            // Nombres repetidos: buscar por texto tambien tiene empates al ordenar por nombre
+            inv.agregarProducto(new Producto("P" + i, "Item " + rnd.nextInt(300), "lote " + rnd.nextInt(2_000),
+                new BigDecimal(rnd.nextInt(50) + ".00"), rnd.nextInt(100)));
+        }
+    }
+
+    @AfterAll
+    static void cerrar() {
+        inv.deshabilitarParalelismo();
+        pool.shutdown();
+    }
+
+    private static <T> T enAmbos(Supplier<T> consulta, BiConsumer<T, T> comparar) {
+        inv.deshabilitarParalelismo();
+        T secuencial = consulta.get();
+        // Umbral bajo para que tambien se repartan los recorridos chicos
+        inv.habilitarParalelismo(pool, 16);
+        T paralelo = consulta.get();
+        comparar.accept(secuencial, paralelo);
+        return paralelo;
+    }
+
+    private static void mismosProductos(List<Producto> a, List<Producto> b) {
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertSame(a.get(i), b.get(i), "posicion " + i);
+        }
+    }
+
+    @Test
+    void listarOrdenado_mismoOrdenInclusoEnEmpates() {
+        List<Producto> res = enAmbos(() -> inv.listarOrdenado(POR_PRECIO), InventarioParaleloTest::mismosProductos);
+        assertEquals(20_000, res.size());
+    }
+
+    @Test
+    void busquedas_mismosResultadosYOrden() {
+        for (String q : new String[] {"item 1", "lote 19", "te", "7", "no existe"}) {
+            enAmbos(() -> inv.buscarPorTexto(q), InventarioParaleloTest::mismosProductos);
+            enAmbos(() -> inv.buscarPorNombre(q), InventarioParaleloTest::mismosProductos);
+        }
+    }
+
+    @Test
+    void valorTotalRecalculado_esExacto() {
+        Inventario grande = new Inventario();
+        // El aporte no cabe en un long: el valor sale del excedente en BigInteger
+        grande.agregarProducto(new Producto("G1", "Grande", "", new BigDecimal("90000000000000000.00"), 1_000));
+        for (int i = 0; i < 5_000; i++) {
+            grande.agregarProducto(new Producto("C" + i, "Chico", "", new BigDecimal("0.01"), i));
+        }
+        ResumenInventario secuencial = grande.generarResumen(5, 10);
+        grande.habilitarParalelismo(pool, 100);
+        ResumenInventario paralelo = grande.generarResumen(5, 10);
+        assertEquals(secuencial.getValorTotal(), paralelo.getValorTotal());
+        mismosProductos(secuencial.getTopPorStock(), paralelo.getTopPorStock());
+    }
+
+    @Test
+    void configuracion() {
+        Inventario otro = new Inventario();
+        assertFalse(otro.paralelismoHabilitado());
+        assertThrows(ValidacionException.class, () -> otro.habilitarParalelismo(null, 10));
+        assertThrows(ValidacionException.class, () -> otro.habilitarParalelismo(pool, 0));
+        otro.habilitarParalelismo(pool, 10);
+        assertTrue(otro.paralelismoHabilitado());
+        otro.deshabilitarParalelismo();
+        assertFalse(otro.paralelismoHabilitado());
+    }
+
+    @Test
+    void ordenar_mezclaEstableSobreTramosGrandes() {
+        // Mas elementos que el tramo minimo para que haya varias mezclas
+        List<Integer> numeros = new Random(3).ints(50_000, 0, 100).boxed().toList();
+        EjecucionParalela par = new EjecucionParalela(pool, 1);
+        Comparator<Integer> porDecena = Comparator.comparingInt(n -> n / 10);
+        List<Integer> esperado = numeros.stream().sorted(porDecena).toList();
+        assertEquals(esperado, par.ordenar(numeros, porDecena));
+        assertEquals(numeros.stream().filter(n -> n % 7 == 0).toList(), par.filtrar(numeros, n -> n % 7 == 0));
+    }
+}
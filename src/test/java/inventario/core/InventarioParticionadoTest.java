@@ -0,0 +1,135 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.PaginaProductos;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InventarioParticionadoTest {
+    private static final Comparator<Producto> POR_PRECIO = Comparator.comparingLong(Producto::getPrecioCentavos)
+        .thenComparing(Producto::getCodigo);
+
+    private Inventario base;
+    private InventarioParticionado part;
+
+    // Nombres unicos para que el orden por nombre no tenga empates entre implementaciones
+    private static List<Producto> catalogo(int n) {
+        Random rnd = new Random(11);
+        String[] palabras = {"tornillo", "tuerca", "arandela", "clavo", "bisagra"};
+        List<Producto> res = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String nombre = palabras[i % palabras.length] + " " + i;
+            String desc = (i % 13 == 0) ? "acero inoxidable" : "zinc " + rnd.nextInt(50);
+            res.add(new Producto("C" + i, nombre, desc, new BigDecimal(1 + rnd.nextInt(500) + ".50"), rnd.nextInt(40)));
+        }
+        return res;
+    }
+
+    private static List<String> codigos(List<Producto> ps) {
+        return ps.stream().map(Producto::getCodigo).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        base = new Inventario();
+        part = new InventarioParticionado(7);
+        List<Producto> productos = catalogo(3_000);
+        for (Producto p : productos) {
+            base.agregarProducto(p);
+        }
+        // Instancias distintas: cada inventario observa las suyas
+        part.agregarProductos(catalogo(3_000));
+    }
+
+    @Test
+    void consultasGlobales_coincidenConElInventarioSinParticionar() {
+        assertEquals(base.size(), part.size());
+        for (String q : new String[] {"tuerca", "inox", "zinc 7", "clavo 12", "nada"}) {
+            assertEquals(codigos(base.buscarPorTexto(q)), codigos(part.buscarPorTexto(q)), q);
+            assertEquals(codigos(base.buscarPorNombre(q)), codigos(part.buscarPorNombre(q)), q);
+        }
+        assertEquals(codigos(base.listarOrdenado(POR_PRECIO)), codigos(part.listarOrdenado(POR_PRECIO)));
+        assertEquals(codigos(base.listarTodos()), codigos(part.listarTodos()));
+        assertEquals(codigos(base.autocompletar("Bisagra 1", 10)), codigos(part.autocompletar("Bisagra 1", 10)));
+        assertEquals(codigos(base.topPorStock(25)), codigos(part.topPorStock(25)));
+        assertEquals(codigos(base.bajoUmbral(5)), codigos(part.bajoUmbral(5)));
+    }
+
+    @Test
+    void generarResumen_combinaTotalesYTops() {
+        base.disminuirStock("C10", 3);
+        part.disminuirStock("C10", 3);
+        ResumenInventario esperado = base.generarResumen(10, 4);
+        ResumenInventario r = part.generarResumen(10, 4);
+        assertEquals(esperado.getCantidadProductos(), r.getCantidadProductos());
+        assertEquals(esperado.getTotalItems(), r.getTotalItems());
+        assertEquals(0, esperado.getValorTotal().compareTo(r.getValorTotal()));
+        assertEquals(codigos(esperado.getTopPorStock()), codigos(r.getTopPorStock()));
+        assertEquals(codigos(esperado.getStockBajo()), codigos(r.getStockBajo()));
+    }
+
+    @Test
+    void listarPagina_recorreTodoEnOrdenDeCodigo() {
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaProductos p = part.listarPagina(cursor, 128);
+            vistos.addAll(codigos(p.getProductos()));
+            cursor = p.getSiguienteCursor();
+        } while (cursor != null);
+        assertEquals(codigos(base.listarTodos()), vistos);
+
+        PaginaProductos ultima = part.listarPagina(vistos.get(vistos.size() - 3), 3);
+        assertEquals(2, ultima.getProductos().size());
+        assertNull(ultima.getSiguienteCursor());
+    }
+
+    @Test
+    void operacionesPorCodigo_vanASuParticion() {
+        part.aumentarStock("C1", 5);
+        part.actualizarProducto("C2", p -> p.setNombre("Martillo"));
+        assertTrue(part.tryReservar("C3", 1));
+        assertEquals(base.buscarPorId("C1").get().getStock() + 5, part.buscarPorId("C1").get().getStock());
+        assertEquals(List.of("C2"), codigos(part.buscarPorTexto("martillo")));
+        assertTrue(part.eliminarProducto("C4"));
+        assertFalse(part.contiene("C4"));
+        assertEquals(2_999, part.size());
+        assertThrows(ProductoNoEncontradoException.class, () -> part.aumentarStock("NO", 1));
+        assertThrows(ValidacionException.class, () -> part.eliminarProducto(" "));
+    }
+
+    @Test
+    void agregarProductos_validaElLoteAntesDeInsertar() {
+        InventarioParticionado inv = new InventarioParticionado(4, ModoInventario.CONCURRENTE, new ForkJoinPool(2));
+        inv.agregarProducto(new Producto("X1", "Uno", "", BigDecimal.ONE, 1));
+        List<Producto> lote = List.of(new Producto("X2", "Dos", "", BigDecimal.ONE, 1),
+            new Producto("X1", "Repetido", "", BigDecimal.ONE, 1));
+        assertThrows(ValidacionException.class, () -> inv.agregarProductos(lote));
+        assertEquals(1, inv.size());
+        assertThrows(ValidacionException.class, () -> new InventarioParticionado(0));
+    }
+
+    @Test
+    void unaSolaParticion_seComportaComoElInventario() {
+        InventarioParticionado uno = new InventarioParticionado(1);
+        uno.agregarProductos(catalogo(200));
+        assertEquals(codigos(base.buscarPorTexto("arandela 1")).stream().filter(c -> Integer.parseInt(c.substring(1)) < 200).toList(),
+            codigos(uno.buscarPorTexto("arandela 1")));
+    }
+}
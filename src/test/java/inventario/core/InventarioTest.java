@@ -1,6 +1,7 @@
 package inventario.core;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -11,7 +12,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import inventario.dto.PaginaProductos;
 import inventario.dto.ResumenInventario;
+import inventario.excepciones.ProductoNoEncontradoException;
 import inventario.excepciones.ValidacionException;
 import inventario.modelo.Producto;
 
@@ -92,6 +95,48 @@ class InventarioTest {
                 todos.stream().map(Producto::getCodigo).toList());
     }
 
+    @Test
+    void listarPagina_recorreTodoPorCursor() {
+        for (int i = 0; i < 25; i++) {
+            inv.agregarProducto(prod(String.format("C%02d", i), "P" + i, "", "1", 1));
+        }
+        inv.eliminarProducto("C07");
+
+        List<String> vistos = new ArrayList<>();
+        PaginaProductos pagina = inv.listarPagina(null, 10);
+        int paginas = 1;
+        vistos.addAll(pagina.getProductos().stream().map(Producto::getCodigo).toList());
+        while (pagina.hayMas()) {
+            pagina = inv.listarPagina(pagina.getSiguienteCursor(), 10);
+            paginas++;
+            vistos.addAll(pagina.getProductos().stream().map(Producto::getCodigo).toList());
+        }
+        assertEquals(3, paginas);
+        assertEquals(inv.listarTodos().stream().map(Producto::getCodigo).toList(), vistos);
+        assertEquals(24, vistos.size());
+    }
+
+    @Test
+    void listarPagina_ultimaPaginaExactaNoTieneSiguiente() {
+        inv.agregarProducto(prod("A", "A", "", "1", 1));
+        inv.agregarProducto(prod("B", "B", "", "1", 1));
+        PaginaProductos p = inv.listarPagina("", 2);
+        assertEquals(2, p.getProductos().size());
+        assertFalse(p.hayMas());
+        // Un cursor que ya no existe sigue funcionando: se parte del siguiente codigo
+        assertEquals(List.of("B"), inv.listarPagina("AA", 5).getProductos().stream().map(Producto::getCodigo).toList());
+        assertThrows(ValidacionException.class, () -> inv.listarPagina(null, 0));
+    }
+
+    @Test
+    void recorrerPorCodigo_esPerezosoYOrdenado() {
+        inv.agregarProducto(prod("B", "B", "", "1", 1));
+        inv.agregarProducto(prod("A", "A", "", "1", 1));
+        inv.agregarProducto(prod("C", "C", "", "1", 1));
+        assertEquals(List.of("B", "C"), inv.recorrerPorCodigo("A").map(Producto::getCodigo).toList());
+        assertEquals(List.of("A"), inv.recorrerPorCodigo(null).limit(1).map(Producto::getCodigo).toList());
+    }
+
     @Test
     void listarOrdenado_porNombre() {
         inv.agregarProducto(prod("1", "B", "", "1", 1));
@@ -118,4 +163,141 @@ class InventarioTest {
         // Stock bajo (< 2): sólo R3(1)
         assertEquals(List.of("R3"), r.getStockBajo().stream().map(Producto::getCodigo).toList());
     }
+
+    @Test
+    void buscarPorTexto_reflejaCambiosEnSettersYEliminacion() {
+        Producto p = prod("F1", "Teclado", "inalambrico", "20000", 1);
+        inv.agregarProducto(p);
+        inv.agregarProducto(prod("F2", "Mouse", "optico", "5000", 1));
+
+        inv.actualizarProducto("F1", x -> x.setNombre("Parlante"));
+        assertTrue(inv.buscarPorNombre("tecl").isEmpty());
+        assertEquals(List.of("F1"), inv.buscarPorNombre("parl").stream().map(Producto::getCodigo).toList());
+
+        p.setDescripcion("bluetooth");
+        assertTrue(inv.buscarPorTexto("inalam").isEmpty());
+        assertEquals(List.of("F1"), inv.buscarPorTexto("TOOTH").stream().map(Producto::getCodigo).toList());
+
+        inv.eliminarProducto("F1");
+        assertTrue(inv.buscarPorTexto("bluetooth").isEmpty());
+        p.setNombre("Mouse");
+        assertEquals(List.of("F2"), inv.buscarPorNombre("mouse").stream().map(Producto::getCodigo).toList());
+    }
+
+    @Test
+    void buscarPorTexto_agujaCortaYSinCoincidencias() {
+        inv.agregarProducto(prod("G1", "Ola", "x", "1", 1));
+        inv.agregarProducto(prod("G2", "Sol", "yo", "1", 1));
+        assertEquals(List.of("G1"), inv.buscarPorTexto("x").stream().map(Producto::getCodigo).toList());
+        assertEquals(2, inv.buscarPorTexto("o").size());
+        assertTrue(inv.buscarPorTexto("olas").isEmpty());
+    }
+
+    @Test
+    void topPorStock_y_bajoUmbral_siguenCambiosDeStock() {
+        inv.agregarProducto(prod("S1", "A", "", "1", 5));
+        inv.agregarProducto(prod("S2", "B", "", "1", 9));
+        inv.agregarProducto(prod("S3", "C", "", "1", 5));
+        inv.agregarProducto(prod("S4", "D", "", "1", 0));
+
+        assertEquals(List.of("S2", "S1", "S3"), inv.topPorStock(3).stream().map(Producto::getCodigo).toList());
+        assertEquals(List.of("S4", "S1", "S3"), inv.bajoUmbral(6).stream().map(Producto::getCodigo).toList());
+
+        inv.disminuirStock("S2", 9);
+        inv.aumentarStock("S4", 20);
+        inv.buscarPorId("S3").orElseThrow().setStock(7);
+        inv.eliminarProducto("S1");
+
+        assertEquals(List.of("S4", "S3"), inv.topPorStock(2).stream().map(Producto::getCodigo).toList());
+        assertEquals(List.of("S2"), inv.bajoUmbral(1).stream().map(Producto::getCodigo).toList());
+        assertTrue(inv.bajoUmbral(0).isEmpty());
+        assertTrue(inv.topPorStock(0).isEmpty());
+        assertEquals(3, inv.topPorStock(10).size());
+    }
+
+    @Test
+    void agregarProductos_cargaMasiva_todoONada() {
+        inv.agregarProducto(prod("M0", "Existente", "", "1", 1));
+        assertThrows(ValidacionException.class, () -> inv.agregarProductos(List.of(
+            prod("M1", "Uno", "", "1", 1), prod("M0", "Repetido", "", "1", 1))));
+        assertThrows(ValidacionException.class, () -> inv.agregarProductos(List.of(
+            prod("M1", "Uno", "", "1", 1), prod("M1", "Uno bis", "", "1", 1))));
+        assertEquals(1, inv.size());
+
+        inv.agregarProductos(List.of(prod("M1", "Uno", "cargado", "2", 3), prod("M2", "Dos", "", "1", 4)));
+        assertEquals(3, inv.size());
+        assertEquals(8, inv.generarResumen(3, 0).getTotalItems());
+        assertEquals(List.of("M1"), inv.buscarPorTexto("cargad").stream().map(Producto::getCodigo).toList());
+        assertEquals(List.of("M2"), inv.topPorStock(1).stream().map(Producto::getCodigo).toList());
+    }
+
+    @Test
+    void aplicarMovimientos_mejorEsfuerzo_resultadoPorLinea() {
+        inv.agregarProducto(prod("L1", "Uno", "", "10", 5));
+        inv.agregarProducto(prod("L2", "Dos", "", "1", 0));
+        LoteMovimientos lote = new LoteMovimientos()
+            .agregar("L1", -3).agregar("L1", -3).agregar("L2", 4).agregar("ZZ", 1).agregar("L1", 0).agregar("L2", -4);
+
+        ResultadoMovimiento[] r = inv.aplicarMovimientos(lote, ModoLote.MEJOR_ESFUERZO);
+
+        assertEquals(List.of(ResultadoMovimiento.APLICADO, ResultadoMovimiento.STOCK_INSUFICIENTE, ResultadoMovimiento.APLICADO,
+            ResultadoMovimiento.NO_ENCONTRADO, ResultadoMovimiento.CANTIDAD_INVALIDA, ResultadoMovimiento.APLICADO), List.of(r));
+        assertEquals(2, inv.buscarPorId("L1").orElseThrow().getStock());
+        assertEquals(0, inv.buscarPorId("L2").orElseThrow().getStock());
+        assertEquals(2, inv.generarResumen(3, 0).getTotalItems());
+        assertEquals(0, new BigDecimal("20.00").compareTo(inv.generarResumen(3, 0).getValorTotal()));
+        assertEquals(List.of("L2", "L1"), inv.bajoUmbral(3).stream().map(Producto::getCodigo).toList());
+    }
+
+    @Test
+    void aplicarMovimientos_todoONada_noAplicaNadaSiAlgunaLineaFalla() {
+        inv.agregarProducto(prod("L1", "Uno", "", "1", 5));
+        LoteMovimientos malo = new LoteMovimientos().agregar("L1", 2).agregar("L1", -10);
+
+        ResultadoMovimiento[] r = inv.aplicarMovimientos(malo, ModoLote.TODO_O_NADA);
+        assertEquals(List.of(ResultadoMovimiento.REVERTIDO, ResultadoMovimiento.STOCK_INSUFICIENTE), List.of(r));
+        assertEquals(5, inv.buscarPorId("L1").orElseThrow().getStock());
+
+        LoteMovimientos bueno = new LoteMovimientos().agregar("L1", 2).agregar("L1", -7);
+        r = inv.aplicarMovimientos(bueno, ModoLote.TODO_O_NADA);
+        assertEquals(List.of(ResultadoMovimiento.APLICADO, ResultadoMovimiento.APLICADO), List.of(r));
+        assertEquals(0, inv.buscarPorId("L1").orElseThrow().getStock());
+    }
+
+    @Test
+    void tryReservar_actualizaIndicesYNoLanzaSiNoAlcanza() {
+        inv.agregarProducto(prod("R1", "Prod1", "", "10", 5));
+        inv.agregarProducto(prod("R2", "Prod2", "", "10", 3));
+        assertTrue(inv.tryReservar("R1", 4));
+        assertFalse(inv.tryReservar("R2", 4));
+        assertEquals(List.of("R1"), inv.bajoUmbral(2).stream().map(Producto::getCodigo).toList());
+        assertEquals(4, inv.generarResumen(1, 0).getTotalItems());
+        assertThrows(ProductoNoEncontradoException.class, () -> inv.tryReservar("NOPE", 1));
+    }
+
+    @Test
+    void autocompletar_porPrefijo_ordenadoYLimitado() {
+        inv.agregarProducto(prod("M1", "Mouse optico", "", "1", 1));
+        inv.agregarProducto(prod("M2", "mousepad", "", "1", 1));
+        inv.agregarProducto(prod("M3", "Monitor", "", "1", 1));
+        inv.agregarProducto(prod("M4", "Teclado mouse", "", "1", 1));
+
+        assertEquals(List.of("M1", "M2"), inv.autocompletar("MOU", 10).stream().map(Producto::getCodigo).toList());
+        assertEquals(List.of("M3"), inv.autocompletar("mo", 1).stream().map(Producto::getCodigo).toList());
+        assertTrue(inv.autocompletar("", 5).isEmpty());
+        assertTrue(inv.autocompletar("mo", 0).isEmpty());
+    }
+
+    @Test
+    void autocompletar_sigueCambiosDeNombreBajasYCargaMasiva() {
+        inv.agregarProductos(List.of(prod("A1", "Zapato", "", "1", 1), prod("A2", "Zapatilla", "", "1", 1)));
+        assertEquals(2, inv.autocompletar("zap", 5).size());
+
+        inv.actualizarProducto("A1", p -> p.setNombre("Bota"));
+        assertEquals(List.of("A2"), inv.autocompletar("zap", 5).stream().map(Producto::getCodigo).toList());
+        assertEquals(List.of("A1"), inv.autocompletar("bo", 5).stream().map(Producto::getCodigo).toList());
+
+        inv.eliminarProducto("A2");
+        assertTrue(inv.autocompletar("zap", 5).isEmpty());
+    }
 }
@@ -0,0 +1,105 @@
+package inventario.core;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.dto.MetricasOperacion;
+import inventario.dto.ReporteMetricas;
+import inventario.excepciones.ProductoNoEncontradoException;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class MetricasInventarioTest {
+
+    private static MetricasOperacion de(ReporteMetricas r, Operacion op) {
+        return r.de(op.name()).orElseThrow();
+    }
+
+    @Test
+    void deshabilitadas_noRegistranNada() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(new Producto("A1", "Mouse", BigDecimal.TEN));
+        assertFalse(inv.metricasHabilitadas());
+        assertTrue(inv.reporteMetricas().getOperaciones().isEmpty());
+    }
+
+    @Test
+    void cuentaLlamadasYErroresPorTipo() {
+        Inventario inv = new Inventario();
+        inv.habilitarMetricas();
+        inv.agregarProducto(new Producto("A1", "Mouse", "optico", BigDecimal.TEN, 5));
+        inv.agregarProducto(new Producto("A2", "Teclado", BigDecimal.ONE));
+        assertThrows(ValidacionException.class, () -> inv.agregarProducto(new Producto("A1", "Otro", BigDecimal.ONE)));
+        assertThrows(ProductoNoEncontradoException.class, () -> inv.aumentarStock("NOPE", 1));
+        assertThrows(ValidacionException.class, () -> inv.disminuirStock("A1", 100));
+        assertThrows(IllegalStateException.class, () -> inv.actualizarProducto("A1", p -> {
+            throw new IllegalStateException("x");
+        }));
+        for (int i = 0; i < 10; i++) {
+            inv.buscarPorTexto("mou");
+        }
+
+        ReporteMetricas r = inv.reporteMetricas();
+        MetricasOperacion agregar = de(r, Operacion.AGREGAR_PRODUCTO);
+        assertEquals(3, agregar.getLlamadas());
+        assertEquals(1, agregar.getErroresValidacion());
+        assertEquals(1, de(r, Operacion.AUMENTAR_STOCK).getErroresNoEncontrado());
+        assertEquals(1, de(r, Operacion.DISMINUIR_STOCK).getErroresValidacion());
+        assertEquals(1, de(r, Operacion.ACTUALIZAR_PRODUCTO).getOtrosErrores());
+        // aumentarStock no se cuenta ademas como actualizarProducto
+        assertEquals(1, de(r, Operacion.ACTUALIZAR_PRODUCTO).getLlamadas());
+        assertEquals(10, de(r, Operacion.BUSCAR_POR_TEXTO).getLlamadas());
+        assertEquals(0, de(r, Operacion.GENERAR_RESUMEN).getLlamadas());
+
+        String texto = r.aTexto();
+        assertTrue(texto.contains("BUSCAR_POR_TEXTO"));
+        assertFalse(texto.contains("GENERAR_RESUMEN"));
+    }
+
+    @Test
+    void deshabilitarDescartaLoAcumulado() {
+        Inventario inv = new Inventario();
+        inv.habilitarMetricas();
+        inv.listarTodos();
+        inv.deshabilitarMetricas();
+        inv.habilitarMetricas();
+        assertEquals(0, de(inv.reporteMetricas(), Operacion.LISTAR_TODOS).getLlamadas());
+    }
+
+    @Test
+    void percentiles_ordenadosYAcotadosPorElMaximo() {
+        MetricasInventario m = new MetricasInventario();
+        for (int i = 0; i < 1_000; i++) {
+            m.medir(Operacion.BUSCAR_POR_ID, () -> 1);
+        }
+        m.medir(Operacion.BUSCAR_POR_ID, () -> {
+            long fin = System.nanoTime() + 2_000_000;
+            while (System.nanoTime() < fin) {
+                Thread.onSpinWait();
+            }
+        });
+        MetricasOperacion s = de(m.reporte(), Operacion.BUSCAR_POR_ID);
+        assertEquals(1_001, s.getLlamadas());
+        assertTrue(s.getP50Nanos() <= s.getP99Nanos());
+        assertTrue(s.getP99Nanos() <= s.getP999Nanos());
+        assertTrue(s.getP999Nanos() <= s.getMaxNanos());
+        assertTrue(s.getMaxNanos() >= 2_000_000);
+        assertTrue(s.getP50Nanos() < 2_000_000);
+    }
+
+    @Test
+    void histograma_errorRelativoAcotado() {
+        for (long v : new long[] {0, 1, 31, 32, 33, 100, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE}) {
+            int i = HistogramaLatencia.indice(v);
+            long sup = HistogramaLatencia.limiteSuperior(i);
+            assertTrue(sup >= v, "limite de " + v);
+            assertTrue(sup - v <= v / 16, "error de " + v);
+            if (i > 0) assertTrue(HistogramaLatencia.limiteSuperior(i - 1) < v, "bucket previo de " + v);
+        }
+    }
+}
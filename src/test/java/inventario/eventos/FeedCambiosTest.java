@@ -0,0 +1,236 @@
+package inventario.eventos;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.modelo.Producto;
+
+class FeedCambiosTest {
+
+    private static Producto prod(String codigo, int stock) {
+        return new Producto(codigo, "Prod " + codigo, "", new BigDecimal("10.00"), stock);
+    }
+
+    @Test
+    void publicaCadaMutacionConSecuencia() {
+        Inventario inv = new Inventario();
+        try (FeedCambios feed = FeedCambios.conectar(inv, 16, PoliticaContrapresion.BLOQUEAR)) {
+            Suscripcion sub = feed.suscribir();
+            inv.agregarProducto(prod("A1", 5));
+            inv.actualizarProducto("A1", p -> {
+                p.setNombre("Teclado");
+                p.setDescripcion("usb");
+                p.setPrecio(new BigDecimal("12.50"));
+            });
+            inv.disminuirStock("A1", 2);
+            inv.eliminarProducto("A1");
+
+            LoteCambios lote = new LoteCambios(64);
+            assertEquals(6, sub.leer(lote));
+            List<TipoCambio> tipos = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                assertEquals(i + 1, lote.secuencia(i));
+                assertEquals("A1", lote.codigo(i));
+                tipos.add(lote.tipo(i));
+            }
+            assertEquals(List.of(TipoCambio.AGREGADO, TipoCambio.NOMBRE, TipoCambio.DESCRIPCION, TipoCambio.PRECIO,
+                TipoCambio.STOCK, TipoCambio.ELIMINADO), tipos);
+            assertEquals("Teclado", lote.texto(1));
+            assertEquals(1000, lote.anterior(3));
+            assertEquals(1250, lote.nuevo(3));
+            assertEquals(5, lote.anterior(4));
+            assertEquals(3, lote.nuevo(4));
+            assertEquals(0, sub.leer(lote));
+            assertEquals(6, feed.getPublicado());
+        }
+    }
+
+    @Test
+    void publicaLasTransferenciasEntreBodegas() {
+        Inventario inv = new Inventario();
+        inv.habilitarBodegas();
+        inv.registrarBodega("Norte");
+        inv.agregarProducto(prod("A1", 5));
+        try (FeedCambios feed = FeedCambios.conectar(inv, 16, PoliticaContrapresion.BLOQUEAR)) {
+            Suscripcion sub = feed.suscribir();
+            inv.transferirStock("A1", Inventario.BODEGA_PRINCIPAL, "Norte", 3);
+
+            LoteCambios lote = new LoteCambios(4);
+            assertEquals(1, sub.leer(lote));
+            assertEquals(TipoCambio.TRANSFERENCIA, lote.tipo(0));
+            assertEquals("A1", lote.codigo(0));
+            assertEquals(Inventario.BODEGA_PRINCIPAL, lote.texto(0));
+            assertEquals("Norte", lote.destino(0));
+            assertEquals(3, lote.nuevo(0));
+        }
+    }
+
+    @Test
+    void cadaSuscriptorLeeASuRitmo_yEnLotes() {
+        Inventario inv = new Inventario();
+        FeedCambios feed = FeedCambios.conectar(inv, 64, PoliticaContrapresion.BLOQUEAR);
+        Suscripcion a = feed.suscribir();
+        for (int i = 0; i < 10; i++) {
+            inv.agregarProducto(prod("P" + i, i));
+        }
+        Suscripcion tardia = feed.suscribir();
+        inv.aumentarStock("P0", 1);
+
+        LoteCambios lote = new LoteCambios(4);
+        int total = 0;
+        for (int n; (n = a.leer(lote)) > 0; ) {
+            assertTrue(n <= 4);
+            total += n;
+        }
+        assertEquals(11, total);
+        assertEquals(1, tardia.pendientes());
+        assertEquals(1, tardia.leer(lote));
+        assertEquals(11, lote.secuencia(0));
+        feed.close();
+    }
+
+    @Test
+    void descartarAntiguos_elLentoSaltaYCuentaPerdidos() {
+        Inventario inv = new Inventario();
+        FeedCambios feed = FeedCambios.conectar(inv, 6, PoliticaContrapresion.DESCARTAR_ANTIGUOS);
+        assertEquals(8, feed.getCapacidad());
+        Suscripcion sub = feed.suscribir();
+        for (int i = 0; i < 20; i++) {
+            inv.agregarProducto(prod("P" + i, i));
+        }
+        LoteCambios lote = new LoteCambios(32);
+        assertEquals(8, sub.leer(lote));
+        assertEquals(13, lote.secuencia(0));
+        assertEquals("P12", lote.codigo(0));
+        assertEquals(12, sub.getPerdidos());
+        feed.close();
+    }
+
+    @Test
+    void bloquear_frenaAlPublicadorHastaQueElSuscriptorLea() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        FeedCambios feed = FeedCambios.conectar(inv, 4, PoliticaContrapresion.BLOQUEAR);
+        Suscripcion sub = feed.suscribir();
+        AtomicInteger hechas = new AtomicInteger();
+        Thread escritor = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                inv.agregarProducto(prod("P" + i, 1));
+                hechas.incrementAndGet();
+            }
+        });
+        escritor.start();
+        Thread.sleep(100);
+        assertTrue(hechas.get() <= 4, "avanzo " + hechas.get() + " sin que nadie leyera");
+
+        LoteCambios lote = new LoteCambios(3);
+        long esperada = 1;
+        while (esperada <= 100) {
+            int n = sub.leer(lote, 1, TimeUnit.SECONDS);
+            assertTrue(n > 0, "sin eventos en 1s");
+            for (int i = 0; i < n; i++) {
+                assertEquals(esperada++, lote.secuencia(i));
+            }
+        }
+        escritor.join();
+        assertEquals(100, inv.size());
+        feed.close();
+    }
+
+    @Test
+    void escritoresConcurrentes_cadaSuscriptorVeTodoSinHuecos() throws Exception {
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        for (int i = 0; i < 64; i++) {
+            inv.agregarProducto(prod("P" + i, 1_000_000));
+        }
+        FeedCambios feed = FeedCambios.conectar(inv, 256, PoliticaContrapresion.BLOQUEAR);
+        int escritores = 4;
+        int porEscritor = 5_000;
+        long total = (long) escritores * porEscritor;
+
+        List<Thread> lectores = new ArrayList<>();
+        long[] netos = new long[2];
+        for (int l = 0; l < netos.length; l++) {
+            Suscripcion sub = feed.suscribir();
+            int id = l;
+            Thread t = new Thread(() -> {
+                LoteCambios lote = new LoteCambios(64);
+                long esperada = 1;
+                long vistos = 0;
+                while (vistos < total) {
+                    int n;
+                    try {
+                        n = sub.leer(lote, 5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (n == 0) return;
+                    for (int i = 0; i < n; i++) {
+                        if (lote.secuencia(i) != esperada++) return;
+                        netos[id] += lote.nuevo(i) - lote.anterior(i);
+                    }
+                    vistos += n;
+                }
+            });
+            lectores.add(t);
+            t.start();
+        }
+        List<Thread> ts = new ArrayList<>();
+        for (int w = 0; w < escritores; w++) {
+            int id = w;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < porEscritor; i++) {
+                    String codigo = "P" + ((id * 7 + i) % 64);
+                    if (i % 2 == 0) inv.disminuirStock(codigo, 3);
+                    else inv.aumentarStock(codigo, 1);
+                }
+            });
+            ts.add(t);
+            t.start();
+        }
+        for (Thread t : ts) {
+            t.join();
+        }
+        for (Thread t : lectores) {
+            t.join(10_000);
+        }
+        // Cada escritor resta 3 y suma 1 en mitades iguales: neto -1 por par
+        long esperado = -(long) escritores * porEscritor;
+        assertEquals(esperado, netos[0]);
+        assertEquals(esperado, netos[1]);
+        assertEquals(total, feed.getPublicado());
+        feed.close();
+    }
+
+    @Test
+    void publicar_noCreaObjetos() {
+        Inventario inv = new Inventario();
+        FeedCambios feed = FeedCambios.conectar(inv, 1024, PoliticaContrapresion.DESCARTAR_ANTIGUOS);
+        Suscripcion sub = feed.suscribir();
+        LoteCambios lote = new LoteCambios(1024);
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            long antes = hilos.getThreadAllocatedBytes(id);
+            for (int i = 0; i < 100_000; i++) {
+                feed.publicar(TipoCambio.STOCK, "P1", null, i, i + 1);
+                if ((i & 511) == 0) sub.leer(lote);
+            }
+            long bytes = hilos.getThreadAllocatedBytes(id) - antes;
+            if (vuelta == 2) assertTrue(bytes < 16 * 1024, "publicar y leer crearon " + bytes + " bytes");
+        }
+        assertNull(lote.texto(0));
+        feed.close();
+    }
+}
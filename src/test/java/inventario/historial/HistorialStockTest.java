@@ -0,0 +1,239 @@
+package inventario.historial;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenMovimientos;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class HistorialStockTest {
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Reloj que solo avanza cuando el test lo pide
+    private static class RelojManual extends Clock {
+        private long ms = T0.toEpochMilli();
+
+        void avanzar(long millis) {
+            ms += millis;
+        }
+
+        Instant en(long millisDesdeT0) {
+            return T0.plusMillis(millisDesdeT0);
+        }
+
+        @Override
+        public long millis() {
+            return ms;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(ms);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static Producto prod(String codigo, int stock) {
+        return new Producto(codigo, "Prod " + codigo, "", new BigDecimal("1.00"), stock);
+    }
+
+    @Test
+    void stockEnUnInstante_yMovimientosDelIntervalo() {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        inv.agregarProducto(prod("A", 10));
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+
+        reloj.avanzar(1_000);
+        inv.disminuirStock("A", 3);
+        reloj.avanzar(1_000);
+        inv.aumentarStock("A", 5);
+        reloj.avanzar(1_000);
+        inv.buscarPorId("A").orElseThrow().setStock(2);
+
+        assertEquals(OptionalInt.empty(), h.stockEn("A", reloj.en(-1)));
+        assertEquals(OptionalInt.of(10), h.stockEn("A", reloj.en(0)));
+        assertEquals(OptionalInt.of(10), h.stockEn("A", reloj.en(999)));
+        assertEquals(OptionalInt.of(7), h.stockEn("A", reloj.en(1_000)));
+        assertEquals(OptionalInt.of(12), h.stockEn("A", reloj.en(2_500)));
+        assertEquals(OptionalInt.of(2), h.stockEn("A", reloj.en(10_000)));
+        assertEquals(OptionalInt.empty(), h.stockEn("Z", reloj.en(10_000)));
+
+        ResumenMovimientos todo = h.movimientos("A", reloj.en(0), reloj.en(10_000));
+        assertEquals(5, todo.getEntradas());
+        assertEquals(13, todo.getSalidas());
+        assertEquals(-8, todo.getNeto());
+        assertEquals(3, todo.getMovimientos());
+        // El intervalo es [desde, hasta)
+        ResumenMovimientos medio = h.movimientos("A", reloj.en(1_000), reloj.en(3_000));
+        assertEquals(5, medio.getEntradas());
+        assertEquals(3, medio.getSalidas());
+        assertEquals(2, medio.getMovimientos());
+        assertThrows(ValidacionException.class, () -> h.movimientos("A", reloj.en(5), reloj.en(4)));
+    }
+
+    @Test
+    void altasYBajas_noSonMovimientos() {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+
+        inv.agregarProducto(prod("A", 4));
+        reloj.avanzar(10);
+        inv.aumentarStock("A", 1);
+        reloj.avanzar(10);
+        inv.eliminarProducto("A");
+        reloj.avanzar(10);
+        inv.agregarProducto(prod("A", 9));
+
+        assertEquals(OptionalInt.of(4), h.stockEn("A", reloj.en(0)));
+        assertEquals(OptionalInt.of(5), h.stockEn("A", reloj.en(10)));
+        assertEquals(OptionalInt.empty(), h.stockEn("A", reloj.en(25)));
+        assertEquals(OptionalInt.of(9), h.stockEn("A", reloj.en(30)));
+
+        ResumenMovimientos r = h.movimientos(reloj.en(0), reloj.en(100));
+        assertEquals(1, r.getEntradas());
+        assertEquals(0, r.getSalidas());
+        assertEquals(1, r.getMovimientos());
+    }
+
+    @Test
+    void productoEliminadoMientrasSeConecta_noQuedaConSerie() {
+        RelojManual reloj = new RelojManual();
+        // La baja llega entre el listado y la creacion de las series
+        Inventario inv = new Inventario() {
+            @Override
+            public List<Producto> listarTodos() {
+                List<Producto> todos = super.listarTodos();
+                if (contiene("B")) eliminarProducto("B");
+                return todos;
+            }
+        };
+        inv.agregarProducto(prod("A", 1));
+        inv.agregarProducto(prod("B", 2));
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+
+        assertEquals(1, h.getProductos());
+        assertEquals(OptionalInt.empty(), h.stockEn("B", reloj.en(0)));
+        assertEquals(OptionalInt.of(1), h.stockEn("A", reloj.en(0)));
+    }
+
+    @Test
+    void muchosEventos_coincidenConLaReferencia() {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        for (int i = 0; i < 5; i++) inv.agregarProducto(prod("P" + i, 100));
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+
+        // Referencia: (instante, codigo, stock despues) de cada cambio
+        List<long[]> eventos = new ArrayList<>();
+        Random rnd = new Random(4);
+        for (int i = 0; i < 20_000; i++) {
+            // A veces varios cambios en el mismo milisegundo, a veces saltos grandes
+            reloj.avanzar(rnd.nextInt(4) == 0 ? 0 : rnd.nextInt(rnd.nextBoolean() ? 50 : 5_000_000));
+            int p = rnd.nextInt(5);
+            int delta = rnd.nextInt(41) - 20;
+            int actual = inv.buscarPorId("P" + p).orElseThrow().getStock();
+            if (delta == 0 || actual + delta < 0) continue;
+            inv.buscarPorId("P" + p).orElseThrow().setStock(actual + delta);
+            eventos.add(new long[] {reloj.millis() - T0.toEpochMilli(), p, actual + delta, delta});
+        }
+        long fin = reloj.millis() - T0.toEpochMilli();
+        assertEquals(eventos.size(), h.getEventos());
+
+        for (int q = 0; q < 500; q++) {
+            long t = (long) (rnd.nextDouble() * fin);
+            int p = rnd.nextInt(5);
+            long esperado = 100;
+            for (long[] e : eventos) {
+                if (e[0] > t) break;
+                if (e[1] == p) esperado = e[2];
+            }
+            assertEquals(OptionalInt.of((int) esperado), h.stockEn("P" + p, reloj.en(t)), "t=" + t);
+
+            long desde = (long) (rnd.nextDouble() * fin);
+            long hasta = desde + (long) (rnd.nextDouble() * (fin - desde + 1));
+            long entradas = 0;
+            long salidas = 0;
+            long cuantos = 0;
+            for (long[] e : eventos) {
+                if (e[1] != p || e[0] < desde || e[0] >= hasta) continue;
+                if (e[3] > 0) entradas += e[3];
+                else salidas -= e[3];
+                cuantos++;
+            }
+            ResumenMovimientos r = h.movimientos("P" + p, reloj.en(desde), reloj.en(hasta));
+            assertEquals(entradas, r.getEntradas());
+            assertEquals(salidas, r.getSalidas());
+            assertEquals(cuantos, r.getMovimientos());
+        }
+    }
+
+    @Test
+    void retencion_descartaLoViejoYConservaLoReciente() {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        inv.agregarProducto(prod("A", 0));
+        inv.agregarProducto(prod("B", 5));
+        HistorialStock h = HistorialStock.conectar(inv, Duration.ofHours(1), reloj);
+        inv.eliminarProducto("B");
+
+        // Un cambio por minuto durante 10 horas
+        for (int i = 1; i <= 600; i++) {
+            reloj.avanzar(60_000);
+            inv.aumentarStock("A", 1);
+        }
+        h.compactar();
+
+        long ahora = reloj.millis() - T0.toEpochMilli();
+        long horizonte = ahora - 3_600_000;
+        assertTrue(h.getEventos() < 200, "retenidos " + h.getEventos());
+        assertTrue(h.getEventos() >= 60);
+        assertEquals(OptionalInt.empty(), h.stockEn("A", reloj.en(60_000)));
+        for (long t = horizonte; t <= ahora; t += 60_000) {
+            assertEquals(OptionalInt.of((int) (t / 60_000)), h.stockEn("A", reloj.en(t)));
+        }
+        assertEquals(60, h.movimientos("A", reloj.en(horizonte + 1), reloj.en(ahora + 1)).getEntradas());
+        // B se elimino hace mas que la retencion: ya no tiene serie
+        assertEquals(1, h.getProductos());
+    }
+
+    @Test
+    void close_dejaDeRegistrar() {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        inv.agregarProducto(prod("A", 1));
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+        reloj.avanzar(5);
+        inv.aumentarStock("A", 1);
+        h.close();
+        reloj.avanzar(5);
+        inv.aumentarStock("A", 1);
+        assertEquals(1, h.getEventos());
+        assertEquals(OptionalInt.of(2), h.stockEn("A", reloj.en(100)));
+    }
+}
@@ -0,0 +1,146 @@
+package inventario.http;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.dto.ReporteCarga;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class ServidorHttpTest {
+    private Inventario inv;
+    private ServidorHttp servidor;
+    private HttpClient http;
+    private URI base;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inv = new Inventario(ModoInventario.CONCURRENTE);
+        for (int i = 0; i < 30; i++) {
+            inv.agregarProducto(new Producto(String.format("P%02d", i), "Prod " + i, "desc " + i, new BigDecimal("1.50"), i));
+        }
+        servidor = new ServidorHttp(inv, 0);
+        http = HttpClient.newHttpClient();
+        base = URI.create("http://localhost:" + servidor.getPuerto());
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.close();
+    }
+
+    private HttpResponse<String> enviar(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.BodyPublisher bp = cuerpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(cuerpo);
+        return http.send(HttpRequest.newBuilder(base.resolve(ruta)).method(metodo, bp).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void alta_consulta_actualizacion_y_baja() throws Exception {
+        HttpResponse<String> r = enviar("POST", "/productos",
+            "{\"codigo\":\"N1\",\"nombre\":\"Taza \\\"grande\\\"\",\"precio\":2990.5,\"stock\":4}");
+        assertEquals(201, r.statusCode(), r.body());
+        assertEquals("Taza \"grande\"", inv.buscarPorId("N1").orElseThrow().getNombre());
+
+        r = enviar("GET", "/productos/N1", null);
+        assertEquals(200, r.statusCode());
+        Map<String, String> p = Json.leerObjeto(r.body());
+        assertEquals("2990.50", p.get("precio"));
+        assertEquals("4", p.get("stock"));
+
+        r = enviar("PUT", "/productos/N1", "{\"stock\":9,\"descripcion\":\"ceramica\"}");
+        assertEquals(200, r.statusCode(), r.body());
+        assertEquals(9, inv.buscarPorId("N1").orElseThrow().getStock());
+        assertEquals("ceramica", inv.buscarPorId("N1").orElseThrow().getDescripcion());
+
+        assertEquals(204, enviar("DELETE", "/productos/N1", null).statusCode());
+        assertEquals(404, enviar("GET", "/productos/N1", null).statusCode());
+        assertEquals(404, enviar("DELETE", "/productos/N1", null).statusCode());
+    }
+
+    @Test
+    void actualizacionInvalida_noDejaCambiosAMedias() throws Exception {
+        HttpResponse<String> r = enviar("PUT", "/productos/P05", "{\"stock\":50,\"precio\":-1}");
+        assertEquals(400, r.statusCode());
+        assertTrue(r.body().contains("\"error\""));
+        assertEquals(5, inv.buscarPorId("P05").orElseThrow().getStock());
+    }
+
+    @Test
+    void errores_mapeanAEstados() throws Exception {
+        assertEquals(400, enviar("POST", "/productos", "{\"codigo\":\"P01\",\"nombre\":\"x\",\"precio\":1}").statusCode());
+        assertEquals(400, enviar("POST", "/productos", "{no es json").statusCode());
+        assertEquals(400, enviar("GET", "/productos?limite=0", null).statusCode());
+        assertEquals(404, enviar("PUT", "/productos/NOPE", "{\"stock\":1}").statusCode());
+        assertEquals(405, enviar("DELETE", "/buscar?q=x", null).statusCode());
+    }
+
+    @Test
+    @Timeout(5)
+    void precioConExponenteEnorme_responde400SinCalcularlo() throws Exception {
+        HttpResponse<String> r = enviar("POST", "/productos", "{\"codigo\":\"N1\",\"nombre\":\"x\",\"precio\":1e50000000}");
+        assertEquals(400, r.statusCode(), r.body());
+        assertEquals(400, enviar("PUT", "/productos/P01", "{\"precio\":1e50000000}").statusCode());
+        assertEquals(400, enviar("PUT", "/productos/P01", "{\"precio\":1e-50000000}").statusCode());
+        assertEquals(new BigDecimal("1.50"), inv.buscarPorId("P01").orElseThrow().getPrecio());
+    }
+
+    @Test
+    void listado_paginado_busqueda_y_resumen() throws Exception {
+        HttpResponse<String> r = enviar("GET", "/productos?limite=20", null);
+        assertEquals(200, r.statusCode());
+        assertTrue(r.body().endsWith(",\"siguiente\":\"P19\"}"), r.body());
+        r = enviar("GET", "/productos?despues=P19&limite=20", null);
+        assertTrue(r.body().endsWith(",\"siguiente\":null}"), r.body());
+
+        r = enviar("GET", "/buscar?q=desc%2012", null);
+        assertTrue(r.body().startsWith("[{\"codigo\":\"P12\""), r.body());
+
+        r = enviar("GET", "/autocompletar?q=prod%202&k=3", null);
+        assertTrue(r.body().startsWith("[{\"codigo\":\"P02\""), r.body());
+
+        r = enviar("GET", "/resumen?top=2&umbral=3", null);
+        assertTrue(r.body().startsWith("{\"cantidadProductos\":30,\"totalItems\":435,\"valorTotal\":652.50"), r.body());
+    }
+
+    @Test
+    void json_leeEscapesYNull() {
+        Map<String, String> m = Json.leerObjeto(" { \"a\" : \"x\\u00e9\\n\" , \"b\": null, \"c\": 12.5 } ");
+        assertEquals("xé\n", m.get("a"));
+        assertNull(m.get("b"));
+        assertTrue(m.containsKey("b"));
+        assertEquals("12.5", m.get("c"));
+        assertThrows(ValidacionException.class, () -> Json.leerObjeto("{\"a\":{}}"));
+        assertThrows(ValidacionException.class, () -> Json.leerObjeto("{\"a\":1} x"));
+    }
+
+    @Test
+    void inventarioSecuencial_seRechaza() {
+        assertThrows(ValidacionException.class, () -> new ServidorHttp(new Inventario(), 0));
+    }
+
+    @Test
+    void cargaConcurrente_sinErroresYConsistente() throws Exception {
+        ReporteCarga r = new ClienteCarga(base, 32, Duration.ofMillis(800)).ejecutar();
+        assertTrue(r.getSolicitudes() > 0);
+        assertEquals(0, r.getErrores());
+        assertTrue(r.getP50Nanos() <= r.getP99Nanos() && r.getP99Nanos() <= r.getMaxNanos());
+        long items = inv.listarTodos().stream().mapToLong(Producto::getStock).sum();
+        assertEquals(items, inv.generarResumen(1, 0).getTotalItems());
+    }
+}
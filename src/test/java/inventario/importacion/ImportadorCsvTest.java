@@ -0,0 +1,140 @@
+package inventario.importacion;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.dto.ReporteImportacion;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class ImportadorCsvTest {
+    @TempDir
+    Path dir;
+
+    private static final String CSV = String.join("\n",
+        "codigo;nombre;descripcion;precio;stock",
+        "A1;Teclado;\"mecánico; con \"\"RGB\"\"\";19990,50;10",
+        "B1;Mouse;;5000;3",
+        "C1;;sin nombre;1;1",
+        "D1;Monitor;x;abc;1",
+        "A1;Teclado bis;;1;1",
+        "E1;Parlante;;1;-4",
+        "",
+        "X1;Existente nuevo;;2.5;8",
+        "F1;Cable;;100;1;extra");
+
+    private static Inventario conExistente() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(new Producto("X1", "Existente", "", BigDecimal.ONE, 1));
+        return inv;
+    }
+
+    @Test
+    void rechazar_anotaCadaErrorConSuLinea_y_sigueImportando() throws IOException {
+        Inventario inv = conExistente();
+        ImportadorCsv imp = new ImportadorCsv(2, 2, PoliticaDuplicados.RECHAZAR, PoliticaDuplicados.RECHAZAR);
+        ReporteImportacion r = imp.importar(new StringReader(CSV), inv);
+
+        assertEquals(8, r.getFilasLeidas());
+        assertEquals(2, r.getAgregados());
+        assertEquals(6, r.getCantidadErrores());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 9L, 10L),
+            r.getErrores().stream().map(ReporteImportacion.ErrorFila::getLinea).toList());
+        assertEquals("mecánico; con \"RGB\"", inv.buscarPorId("A1").orElseThrow().getDescripcion());
+        assertEquals(new BigDecimal("19990.50"), inv.buscarPorId("A1").orElseThrow().getPrecio());
+        assertEquals("Existente", inv.buscarPorId("X1").orElseThrow().getNombre());
+    }
+
+    @Test
+    void omitir_y_sobrescribir_segunOrigenDelDuplicado() throws IOException {
+        Inventario inv = conExistente();
+        ImportadorCsv imp = new ImportadorCsv(3, 1, PoliticaDuplicados.SOBRESCRIBIR, PoliticaDuplicados.OMITIR);
+        ReporteImportacion r = imp.importar(new StringReader(CSV), inv);
+
+        assertEquals(1, r.getSobrescritos());
+        assertEquals(1, r.getOmitidos());
+        assertEquals("Teclado bis", inv.buscarPorId("A1").orElseThrow().getNombre());
+        assertEquals("Existente", inv.buscarPorId("X1").orElseThrow().getNombre());
+
+        Inventario otro = conExistente();
+        new ImportadorCsv(1, 100, PoliticaDuplicados.OMITIR, PoliticaDuplicados.SOBRESCRIBIR).importar(new StringReader(CSV), otro);
+        assertEquals("Teclado", otro.buscarPorId("A1").orElseThrow().getNombre());
+        assertEquals("Existente nuevo", otro.buscarPorId("X1").orElseThrow().getNombre());
+        assertEquals(8, otro.buscarPorId("X1").orElseThrow().getStock());
+        assertEquals(List.of("X1"), otro.buscarPorNombre("nuevo").stream().map(Producto::getCodigo).toList());
+    }
+
+    @Test
+    void archivoGrande_enParalelo_coincideConLaCargaSecuencial() throws IOException {
+        Path archivo = dir.resolve("catalogo.csv");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            sb.append("P").append(i % 19_000).append(';').append("Prod ").append(i % 300).append(';')
+                .append("desc ").append(i).append(';').append(i % 1000).append(".5;").append(i % 50).append('\n');
+        }
+        Files.writeString(archivo, sb, StandardCharsets.UTF_8);
+
+        Inventario paralelo = new Inventario();
+        ReporteImportacion r = new ImportadorCsv(4, 500, PoliticaDuplicados.SOBRESCRIBIR, PoliticaDuplicados.RECHAZAR)
+            .importar(archivo, paralelo);
+        Inventario secuencial = new Inventario();
+        new ImportadorCsv(1, 20_000, PoliticaDuplicados.SOBRESCRIBIR, PoliticaDuplicados.RECHAZAR).importar(archivo, secuencial);
+
+        assertEquals(20_000, r.getFilasLeidas());
+        assertEquals(19_000, r.getAgregados());
+        assertEquals(1_000, r.getSobrescritos());
+        assertTrue(r.getFilasPorSegundo() > 0);
+        assertEquals(paralelo.listarTodos().stream().map(Producto::descripcionDetallada).toList(),
+            secuencial.listarTodos().stream().map(Producto::descripcionDetallada).toList());
+        assertEquals("desc 19000", paralelo.buscarPorId("P0").orElseThrow().getDescripcion());
+        System.out.println("Importacion CSV: " + r);
+    }
+
+    @Test
+    void otroEscritorInsertandoLosMismosCodigos_seTrataComoExistente() throws Exception {
+        int filas = 20_000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < filas; i++) {
+            sb.append("P").append(i).append(";Importado;;1;1\n");
+        }
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        // Inserta los mismos codigos, en el mismo orden, mientras corre la importacion
+        Thread otro = new Thread(() -> {
+            for (int i = 0; i < filas; i++) {
+                try {
+                    inv.agregarProducto(new Producto("P" + i, "Otro", "", BigDecimal.ONE, 1));
+                } catch (ValidacionException e) {
+                    // ya lo inserto la importacion
+                }
+            }
+        });
+        otro.start();
+        ReporteImportacion r = new ImportadorCsv(2, 100, PoliticaDuplicados.RECHAZAR, PoliticaDuplicados.OMITIR)
+            .importar(new StringReader(sb.toString()), inv);
+        otro.join();
+
+        assertEquals(filas, r.getAgregados() + r.getOmitidos());
+        assertEquals(0, r.getCantidadErrores());
+        assertEquals(filas, inv.size());
+        assertEquals(r.getAgregados(), inv.buscarPorNombre("importado").size());
+    }
+
+    @Test
+    void configuracionInvalida_lanza() {
+        assertThrows(ValidacionException.class, () -> new ImportadorCsv(0, 1, PoliticaDuplicados.OMITIR, PoliticaDuplicados.OMITIR));
+        assertThrows(ValidacionException.class, () -> new ImportadorCsv(1, 1, null, PoliticaDuplicados.OMITIR));
+    }
+}
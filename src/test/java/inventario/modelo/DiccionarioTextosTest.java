@@ -0,0 +1,52 @@
+package inventario.modelo;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class DiccionarioTextosTest {
+
+    @Test
+    void productosConTextosIguales_compartenLaInstancia() {
+        String a = new String("Tornillo Hexagonal");
+        String b = new String("  Tornillo Hexagonal ");
+        assertNotSame(a, b.trim());
+        Producto p1 = new Producto("T1", a, "Acero M6", BigDecimal.ONE, 1);
+        Producto p2 = new Producto("T2", b, new String("Acero M6"), BigDecimal.ONE, 1);
+        assertSame(p1.getNombre(), p2.getNombre());
+        assertSame(p1.getDescripcion(), p2.getDescripcion());
+
+        p2.setNombre(new String("Tuerca"));
+        Producto p3 = Producto.restaurar("T3", new String("Tuerca"), "", 100, 1);
+        assertSame(p2.getNombre(), p3.getNombre());
+        p3.setDescripcion(new String("Acero M6"));
+        assertSame(p1.getDescripcion(), p3.getDescripcion());
+    }
+
+    @Test
+    void plegar_usaLaFormaGuardadaDeCadaTextoDistinto() {
+        Producto p = new Producto("T4", "Llave ALLEN 5mm", BigDecimal.ONE);
+        String plegado = DiccionarioTextos.plegar(p.getNombre());
+        assertEquals("llave allen 5mm", plegado);
+        assertSame(plegado, DiccionarioTextos.plegar(new String("Llave ALLEN 5mm")));
+        // Lo que no esta internado se pliega sin guardarse
+        assertEquals("consulta", DiccionarioTextos.plegar("CONSULTA"));
+    }
+
+    @Test
+    void textosSinUso_seLiberan() throws InterruptedException {
+        int antes = DiccionarioTextos.tamano();
+        for (int i = 0; i < 10_000; i++) {
+            new Producto("X" + i, "temporal " + i, BigDecimal.ONE);
+        }
+        for (int intento = 0; intento < 50 && DiccionarioTextos.tamano() > antes + 1_000; intento++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(DiccionarioTextos.tamano() <= antes + 1_000, "quedan " + (DiccionarioTextos.tamano() - antes));
+    }
+}
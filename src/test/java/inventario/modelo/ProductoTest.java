@@ -1,9 +1,15 @@
 package inventario.modelo;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 import inventario.excepciones.ValidacionException;
@@ -19,6 +25,19 @@ class ProductoTest {
         assertEquals("", p.getDescripcion());
     }
 
+    @Test
+    void precioConExponenteExtremo_seResuelveSinExpandirlo() {
+        long t0 = System.nanoTime();
+        assertThrows(ValidacionException.class, () -> new Producto("P1", "Teclado", new BigDecimal("1e50000000")));
+        Producto p = new Producto("P1", "Teclado", new BigDecimal("1e-50000000"));
+        assertEquals(0, p.getPrecioCentavos());
+        assertEquals(0, new Producto("P1", "Teclado", new BigDecimal("0e50000000")).getPrecioCentavos());
+        assertTrue(System.nanoTime() - t0 < 1_000_000_000L);
+        assertThrows(ValidacionException.class, () -> p.setPrecio(new BigDecimal("100000000000000000")));
+        p.setPrecio(new BigDecimal("0.005"));
+        assertEquals(1, p.getPrecioCentavos());
+    }
+
     @Test
     void crearProducto_completo_ok() {
         Producto p = new Producto("P2", "Mouse", "Gamer", new BigDecimal("15000"), 7);
@@ -84,4 +103,82 @@ class ProductoTest {
         assertEquals(a, b);
         assertEquals(a.hashCode(), b.hashCode());
     }
+
+    @Test
+    void precio_enCentavos_y_vistaBigDecimal() {
+        Producto p = new Producto("PC", "Prod", "", new BigDecimal("19990.505"), 3);
+        assertEquals(1_999_051L, p.getPrecioCentavos());
+        assertEquals(new BigDecimal("19990.51"), p.getPrecio());
+        assertEquals(5_997_153L, p.valorCentavos());
+
+        p.setPrecioCentavos(250);
+        assertEquals(new BigDecimal("2.50"), p.getPrecio());
+        assertThrows(ValidacionException.class, () -> p.setPrecioCentavos(-1));
+    }
+
+    @Test
+    void precio_queNoCabeEnCentavos_lanza_y_valorDesbordado_lanza() {
+        assertThrows(ValidacionException.class, () ->
+                new Producto("PG", "Prod", new BigDecimal("1e20")));
+
+        Producto p = new Producto("PH", "Prod", "", new BigDecimal("1e16"), 0);
+        p.setStock(1_000);
+        assertThrows(ArithmeticException.class, p::valorCentavos);
+    }
+
+    @Test
+    void tryReservar_noLanzaSiNoAlcanza() {
+        Producto p = new Producto("PR", "Prod", "", new BigDecimal("1.00"), 5);
+        assertTrue(p.tryReservar(3));
+        assertFalse(p.tryReservar(3));
+        assertEquals(2, p.getStock());
+        assertTrue(p.tryReservar(2));
+        assertEquals(0, p.getStock());
+        assertThrows(ValidacionException.class, () -> p.tryReservar(0));
+    }
+
+    @Test
+    void stock_desbordado_lanza_y_noCambia() {
+        Producto p = new Producto("PO", "Prod", "", new BigDecimal("1.00"), Integer.MAX_VALUE);
+        assertThrows(ValidacionException.class, () -> p.aumentarStock(1));
+        assertEquals(Integer.MAX_VALUE, p.getStock());
+    }
+
+    @Test
+    void tryReservar_concurrente_noSobrevende() throws Exception {
+        Producto p = new Producto("PH", "Hot", "", new BigDecimal("1.00"), 10_000);
+        int hilos = 8;
+        AtomicInteger vendidas = new AtomicInteger();
+        AtomicInteger anteriores = new AtomicInteger();
+        p.agregarObservador(new ObservadorProducto() {
+            @Override
+            public void stockCambiado(Producto prod, int anterior, int nuevo) {
+                anteriores.incrementAndGet();
+            }
+        });
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> ts = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread t = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Cada hilo intenta comprar 2.000 unidades: entre todos piden 16.000 de 10.000
+                for (int i = 0; i < 2_000; i++) {
+                    if (p.tryReservar(1)) vendidas.incrementAndGet();
+                }
+            });
+            ts.add(t);
+            t.start();
+        }
+        largada.countDown();
+        for (Thread t : ts) {
+            t.join();
+        }
+        assertEquals(10_000, vendidas.get());
+        assertEquals(0, p.getStock());
+        assertEquals(10_000, anteriores.get());
+    }
 }
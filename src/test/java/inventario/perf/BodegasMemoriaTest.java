@@ -0,0 +1,84 @@
+package inventario.perf;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import inventario.core.Inventario;
+import inventario.dto.ResumenInventario;
+import inventario.modelo.Producto;
+
+/**
+ * 100k productos con stock en 50 bodegas: memoria del reparto por bodega (histograma de clases
+ * tras un GC completo) y resumen indexado de una bodega igual al que se obtiene recorriendo
+ * stockPorBodega de cada producto. Los tiempos estan en BodegasBenchmark (JMH).
+ * Se ejecuta con: mvn test -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class BodegasMemoriaTest {
+    private static final int PRODUCTOS = 100_000;
+    private static final int BODEGAS = 50;
+
+    // Bytes vivos en el heap segun GC.class_histogram (fuerza un GC completo)
+    private static long bytesVivos() throws Exception {
+        String histograma = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+            new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        String[] lineas = histograma.trim().split("\n");
+        String[] total = lineas[lineas.length - 1].trim().split("\\s+");
+        return Long.parseLong(total[2]);
+    }
+
+    @Test
+    void cienMilProductosEnCincuentaBodegas() throws Exception {
+        Random rnd = new Random(11);
+        List<Producto> lista = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            lista.add(new Producto("P" + i, "Prod_" + (i % 200), "desc_" + (i % 1_000),
+                BigDecimal.valueOf(rnd.nextInt(500_000), 2), 0));
+        }
+        Inventario inv = new Inventario();
+        inv.agregarProductos(lista);
+        lista = null;
+
+        long sinBodegas = bytesVivos();
+        inv.habilitarBodegas();
+        for (int b = 1; b < BODEGAS; b++) {
+            inv.registrarBodega("B" + b);
+        }
+        List<String> bodegas = inv.listarBodegas();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            for (String b : bodegas) {
+                inv.aumentarStock("P" + i, b, 1 + rnd.nextInt(200));
+            }
+        }
+        long conBodegas = bytesVivos() - sinBodegas;
+
+        for (int i = 0; i < 100_000; i++) {
+            String origen = bodegas.get(rnd.nextInt(BODEGAS));
+            String destino = bodegas.get(rnd.nextInt(BODEGAS));
+            String c = "P" + rnd.nextInt(PRODUCTOS);
+            if (!origen.equals(destino) && inv.stockEnBodega(c, origen) > 0) inv.transferirStock(c, origen, destino, 1);
+        }
+        String bodega = bodegas.get(BODEGAS / 2);
+        ResumenInventario r = inv.generarResumen(bodega, 10, 5);
+        long items = 0;
+        for (int i = 0; i < PRODUCTOS; i++) {
+            items += inv.stockPorBodega("P" + i).getOrDefault(bodega, 0);
+        }
+
+        assertEquals(items, r.getTotalItems());
+        assertEquals(PRODUCTOS, r.getCantidadProductos());
+        // Unos pocos ints por par producto/bodega, no un objeto por par
+        assertTrue(conBodegas < 32L * PRODUCTOS * BODEGAS, "memoria " + conBodegas);
+    }
+}
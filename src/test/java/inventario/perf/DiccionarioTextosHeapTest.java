@@ -0,0 +1,77 @@
+package inventario.perf;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import inventario.modelo.Producto;
+
+/**
+ * Memoria de los textos de 1M productos con 200 nombres y 1000 descripciones distintas, medida
+ * con el histograma de clases de la JVM (java.lang.String y sus byte[]). La base son copias
+ * independientes de cada texto, que es lo que guardaba cada Producto antes del diccionario.
+ * Se ejecuta con: mvn test -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class DiccionarioTextosHeapTest {
+    private static final int PRODUCTOS = 1_000_000;
+
+    // Bytes de instancias de String y byte[] vivas, segun GC.class_histogram (que fuerza un GC completo)
+    private static long bytesDeTextos() throws Exception {
+        String histograma = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+            new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        long bytes = 0;
+        for (String linea : histograma.split("\n")) {
+            String[] c = linea.trim().split("\\s+");
+            if (c.length >= 4 && (c[3].equals("java.lang.String") || c[3].equals("[B"))) {
+                bytes += Long.parseLong(c[2]);
+            }
+        }
+        return bytes;
+    }
+
+    private static String nombre(int i) {
+        return "  Producto de ferreteria modelo " + (i % 200) + " ";
+    }
+
+    private static String descripcion(int i) {
+        return "Descripcion larga del articulo numero " + (i % 1_000) + ", acero galvanizado";
+    }
+
+    @Test
+    void textosDe_1M_productos() throws Exception {
+        long base0 = bytesDeTextos();
+        List<String> copias = new ArrayList<>(2 * PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            copias.add(nombre(i).trim());
+            copias.add(descripcion(i).trim());
+        }
+        long sinDiccionario = bytesDeTextos() - base0;
+        Reference.reachabilityFence(copias);
+        copias = null;
+
+        long dic0 = bytesDeTextos();
+        List<Producto> productos = new ArrayList<>(PRODUCTOS);
+        // Un mismo codigo para todos: asi el histograma solo ve crecer nombres y descripciones
+        String codigo = "P";
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productos.add(new Producto(codigo, nombre(i), descripcion(i), BigDecimal.ONE, 1));
+        }
+        long conDiccionario = bytesDeTextos() - dic0;
+        Reference.reachabilityFence(productos);
+
+        System.out.printf("Textos sin diccionario: %,d bytes%n", sinDiccionario);
+        System.out.printf("Textos con diccionario: %,d bytes (%.1f%% menos)%n", conDiccionario,
+            100.0 * (sinDiccionario - conDiccionario) / sinDiccionario);
+        assertTrue(conDiccionario < sinDiccionario / 10);
+    }
+}
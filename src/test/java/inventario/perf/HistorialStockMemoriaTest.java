@@ -0,0 +1,104 @@
+package inventario.perf;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import inventario.core.Inventario;
+import inventario.historial.HistorialStock;
+import inventario.modelo.Producto;
+
+/**
+ * Memoria del historial de stock por millon de cambios (histograma de clases tras un GC
+ * completo) con 10k productos y 5M cambios (cada producto cambia en promedio cada 5 minutos),
+ * con deltas chicos como los de ventas y reposiciones. Los tiempos estan en
+ * HistorialStockBenchmark (JMH).
+ * Se ejecuta con: mvn test -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class HistorialStockMemoriaTest {
+    private static final int PRODUCTOS = 10_000;
+    private static final int EVENTOS = 5_000_000;
+
+    private static class RelojManual extends Clock {
+        long ms = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+        @Override
+        public long millis() {
+            return ms;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(ms);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    // Bytes vivos en el heap segun GC.class_histogram (fuerza un GC completo)
+    private static long bytesVivos() throws Exception {
+        String histograma = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+            new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        String[] lineas = histograma.trim().split("\n");
+        String[] total = lineas[lineas.length - 1].trim().split("\\s+");
+        return Long.parseLong(total[2]);
+    }
+
+    @Test
+    void memoriaPorMillonDeCambios() throws Exception {
+        RelojManual reloj = new RelojManual();
+        Inventario inv = new Inventario();
+        Producto[] productos = new Producto[PRODUCTOS];
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productos[i] = new Producto("P" + i, "Prod_" + (i % 200), "", new BigDecimal("1.00"), 1_000);
+            inv.agregarProducto(productos[i]);
+        }
+        Instant inicio = reloj.instant();
+        long base = bytesVivos();
+        HistorialStock h = HistorialStock.conectar(inv, null, reloj);
+        long vacio = bytesVivos() - base;
+
+        Random rnd = new Random(21);
+        for (int i = 0; i < EVENTOS; i++) {
+            reloj.ms += rnd.nextInt(600_000) / PRODUCTOS;
+            Producto p = productos[rnd.nextInt(PRODUCTOS)];
+            int delta = rnd.nextInt(4) == 0 ? 1 + rnd.nextInt(50) : -1 - rnd.nextInt(5);
+            p.setStock(Math.max(0, p.getStock() + delta));
+        }
+        long conHistoria = bytesVivos() - base;
+        long eventos = h.getEventos();
+        double bytesPorMillon = (double) (conHistoria - vacio) / eventos * 1_000_000;
+
+        long neto = h.movimientos(inicio, reloj.instant().plusMillis(1)).getNeto();
+        long stockActual = 0;
+        for (Producto p : productos) {
+            stockActual += p.getStock();
+        }
+
+        Reference.reachabilityFence(h);
+        assertEquals(stockActual - 1_000L * PRODUCTOS, neto);
+        assertTrue(bytesPorMillon < 8_000_000, "bytes por millon " + bytesPorMillon);
+    }
+}
@@ -0,0 +1,72 @@
+package inventario.perf;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import inventario.core.Instantanea;
+import inventario.core.Inventario;
+import inventario.modelo.Producto;
+
+/**
+ * Memoria de las instantaneas sobre 1M productos: la version vigente contra lo que agrega cada
+ * instantanea retenida con 1000 cambios de stock entre una y otra, medida con el histograma de
+ * clases tras un GC completo. Los tiempos estan en InstantaneaBenchmark (JMH).
+ * Se ejecuta con: mvn test -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class InstantaneasMemoriaTest {
+    private static final int PRODUCTOS = 1_000_000;
+    private static final int RETENIDAS = 50;
+    private static final int CAMBIOS_ENTRE = 1_000;
+
+    // Bytes vivos en el heap segun GC.class_histogram (fuerza un GC completo)
+    private static long bytesVivos() throws Exception {
+        String histograma = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+            new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        String[] lineas = histograma.trim().split("\n");
+        String[] total = lineas[lineas.length - 1].trim().split("\\s+");
+        return Long.parseLong(total[2]);
+    }
+
+    @Test
+    void memoriaPorInstantaneaRetenida() throws Exception {
+        Random rnd = new Random(5);
+        List<Producto> lista = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            lista.add(new Producto("P" + i, "Prod_" + (i % 200), "desc_" + (i % 1_000),
+                BigDecimal.valueOf(rnd.nextInt(5_000_000), 2), rnd.nextInt(100)));
+        }
+        Inventario inv = new Inventario();
+        inv.agregarProductos(lista);
+        lista = null;
+
+        long sinInstantaneas = bytesVivos();
+        inv.habilitarInstantaneas();
+        long vigente = bytesVivos() - sinInstantaneas;
+
+        List<Instantanea> retenidas = new ArrayList<>(RETENIDAS);
+        long base = bytesVivos();
+        for (int k = 0; k < RETENIDAS; k++) {
+            retenidas.add(inv.snapshot());
+            for (int i = 0; i < CAMBIOS_ENTRE; i++) {
+                inv.aumentarStock("P" + rnd.nextInt(PRODUCTOS), 1);
+            }
+        }
+        long porInstantanea = (bytesVivos() - base) / RETENIDAS;
+        Reference.reachabilityFence(retenidas);
+
+        // Cada cambio copia un camino de ~20 nodos en dos arboles: muy lejos de copiar el inventario
+        assertTrue(porInstantanea < vigente / 20, "por instantanea " + porInstantanea + " vs vigente " + vigente);
+    }
+}
@@ -1,8 +1,10 @@
 package inventario.perf;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -25,7 +27,7 @@ class InventarioPerformanceTest {
     }
 
     @Test
-    @Timeout(2) // debe ejecutar en < 2s
+    @Timeout(1) // debe ejecutar en < 1s
     void buscarPorTexto_en_10000_items_es_razonable() {
         var inv = seed(10_000);
         var res = inv.buscarPorTexto("running");
@@ -39,4 +41,29 @@ class InventarioPerformanceTest {
         var resumen = inv.generarResumen(5, 3);
         assertTrue(resumen.getTopPorStock().size() <= 5);
     }
+
+    @Test
+    void listarPagina_no_ordena_todo_el_catalogo() {
+        var inv = seed(100_000);
+        // 1000 paginas de 20 desde cursores repartidos en < 1s: ordenar 100k productos por pagina no cabe
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 1_000; i++) {
+                assertTrue(inv.listarPagina("P" + (i * 97), 20).getProductos().size() > 0);
+            }
+        });
+    }
+
+    @Test
+    void autocompletar_por_tecla_no_recorre_el_catalogo() {
+        var inv = seed(100_000);
+        String[] teclas = {"p", "pr", "pro", "prod", "prod_", "prod_1", "prod_12", "prod_123"};
+        // 1000 palabras tecleadas (8000 consultas top-10) en < 1s
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 1_000; i++) {
+                for (String t : teclas) {
+                    assertTrue(inv.autocompletar(t, 10).size() > 0);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,75 @@
+package inventario.perf;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import inventario.core.Inventario;
+import inventario.core.LoteMovimientos;
+import inventario.core.ModoLote;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class MovimientosPerformanceTest {
+    private static final int PRODUCTOS = 10_000;
+    private static final int MOVIMIENTOS = 5_000;
+    private static final int RAFAGAS = 40;
+
+    private static Inventario seed() {
+        Inventario inv = new Inventario();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            inv.agregarProducto(new Producto("P" + i, "Prod_" + i, "", new BigDecimal("1.00"), 50));
+        }
+        return inv;
+    }
+
+    private static LoteMovimientos rafaga(Random rnd) {
+        LoteMovimientos lote = new LoteMovimientos(MOVIMIENTOS);
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            int delta = rnd.nextInt(21) - 10;
+            lote.agregar("P" + rnd.nextInt(PRODUCTOS / 10), delta == 0 ? 1 : delta);
+        }
+        return lote;
+    }
+
+    private static void porLlamada(Inventario inv, LoteMovimientos lote) {
+        for (int i = 0; i < lote.size(); i++) {
+            int delta = lote.delta(i);
+            try {
+                if (delta > 0) inv.actualizarProducto(lote.codigo(i), p -> p.aumentarStock(delta));
+                else inv.actualizarProducto(lote.codigo(i), p -> p.disminuirStock(-delta));
+            } catch (ValidacionException e) {
+                // igual que un scanner que ignora la linea rechazada
+            }
+        }
+    }
+
+    @Test
+    void lote_vs_llamadaPorMovimiento_mismoResultado() {
+        Inventario porLinea = seed();
+        Inventario enLote = seed();
+
+        Random rnd = new Random(3);
+        long nsLinea = 0;
+        long nsLote = 0;
+        for (int r = 0; r < RAFAGAS; r++) {
+            LoteMovimientos lote = rafaga(rnd);
+            long t0 = System.nanoTime();
+            porLlamada(porLinea, lote);
+            long t1 = System.nanoTime();
+            enLote.aplicarMovimientos(lote, ModoLote.MEJOR_ESFUERZO);
+            long t2 = System.nanoTime();
+            nsLinea += t1 - t0;
+            nsLote += t2 - t1;
+        }
+        System.out.printf("Movimientos: por llamada %.1f ms | en lote %.1f ms (%d rafagas de %d)%n",
+            nsLinea / 1e6, nsLote / 1e6, RAFAGAS, MOVIMIENTOS);
+
+        assertEquals(porLinea.generarResumen(5, 10).getTotalItems(), enLote.generarResumen(5, 10).getTotalItems());
+        for (Producto p : porLinea.listarTodos()) {
+            assertEquals(p.getStock(), enLote.buscarPorId(p.getCodigo()).orElseThrow().getStock(), p.getCodigo());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package inventario.persistencia;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventario.core.Inventario;
+import inventario.excepciones.ValidacionException;
+import inventario.modelo.Producto;
+
+class InstantaneaBinariaTest {
+    @TempDir
+    Path dir;
+
+    private static String estado(Inventario inv) {
+        StringBuilder sb = new StringBuilder();
+        for (Producto p : inv.listarTodos()) {
+            sb.append(p.descripcionDetallada()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Inventario ejemplo() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(new Producto("A1", "Teclado", "mecánico ñandú", new BigDecimal("19990.50"), 10));
+        inv.agregarProducto(new Producto("B1", "Mouse", "", new BigDecimal("5000"), 0));
+        inv.agregarProducto(new Producto("C1", "Mouse", "", new BigDecimal("0.01"), 7));
+        inv.agregarProducto(new Producto("D1", "Monitor", "running", new BigDecimal("120000"), 2));
+        return inv;
+    }
+
+    @Test
+    void escribirYCargar_reproduceElInventario_yBuscaPorTexto() throws IOException {
+        Inventario inv = ejemplo();
+        Path archivo = dir.resolve("inv.snap");
+        InstantaneaBinaria.escribir(inv, archivo);
+
+        Inventario cargado = new Inventario();
+        assertEquals(4, InstantaneaBinaria.cargar(archivo, cargado));
+        assertEquals(estado(inv), estado(cargado));
+        assertEquals(0, inv.generarResumen(3, 5).getValorTotal().compareTo(cargado.generarResumen(3, 5).getValorTotal()));
+        assertEquals(2, cargado.buscarPorNombre("mouse").size());
+        assertEquals("D1", cargado.buscarPorTexto("RUNN").get(0).getCodigo());
+
+        // Sigue funcionando como un inventario normal despues de la carga
+        cargado.actualizarProducto("A1", p -> p.setNombre("Parlante"));
+        assertTrue(cargado.buscarPorNombre("tecl").isEmpty());
+        assertEquals(List.of("A1"), cargado.buscarPorNombre("parl").stream().map(Producto::getCodigo).toList());
+    }
+
+    @Test
+    void inventarioVacio_seEscribeYCarga() throws IOException {
+        Path archivo = dir.resolve("vacio.snap");
+        InstantaneaBinaria.escribir(new Inventario(), archivo);
+        Inventario cargado = new Inventario();
+        assertEquals(0, InstantaneaBinaria.cargar(archivo, cargado));
+        assertEquals(0, cargado.size());
+    }
+
+    @Test
+    void checksumOVersionInvalidos_lanzanSinCargarNada() throws IOException {
+        Path archivo = dir.resolve("inv.snap");
+        InstantaneaBinaria.escribir(ejemplo(), archivo);
+        byte[] original = Files.readAllBytes(archivo);
+
+        byte[] corrupto = original.clone();
+        corrupto[corrupto.length - 5] ^= 0x01;
+        Files.write(archivo, corrupto);
+        Inventario inv = new Inventario();
+        assertThrows(ValidacionException.class, () -> InstantaneaBinaria.cargar(archivo, inv));
+        assertEquals(0, inv.size());
+
+        byte[] otraVersion = original.clone();
+        otraVersion[4] = 99;
+        Files.write(archivo, otraVersion);
+        assertThrows(ValidacionException.class, () -> InstantaneaBinaria.cargar(archivo, inv));
+
+        Files.write(archivo, new byte[] {1, 2, 3});
+        assertThrows(ValidacionException.class, () -> InstantaneaBinaria.cargar(archivo, inv));
+    }
+
+    @Test
+    void cargarSobreCodigosExistentes_lanzaSinCargarNada() throws IOException {
+        Path archivo = dir.resolve("inv.snap");
+        InstantaneaBinaria.escribir(ejemplo(), archivo);
+        Inventario inv = new Inventario();
+        inv.agregarProducto(new Producto("C1", "Otro", BigDecimal.ONE));
+        assertThrows(ValidacionException.class, () -> InstantaneaBinaria.cargar(archivo, inv));
+        assertEquals(1, inv.size());
+    }
+}
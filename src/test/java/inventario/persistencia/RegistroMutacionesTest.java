@@ -0,0 +1,180 @@
+package inventario.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventario.core.Inventario;
+import inventario.core.ModoInventario;
+import inventario.modelo.Producto;
+
+class RegistroMutacionesTest {
+    @TempDir
+    Path dir;
+
+    private static String estado(Inventario inv) {
+        StringBuilder sb = new StringBuilder();
+        for (Producto p : inv.listarTodos()) {
+            sb.append(p.descripcionDetallada()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Inventario recuperar(Path archivo) throws IOException {
+        Inventario inv = new Inventario();
+        RegistroMutaciones.abrir(archivo, inv, PoliticaFsync.SISTEMA_OPERATIVO).close();
+        return inv;
+    }
+
+    @Test
+    void reabrir_reconstruyeElInventario_conTodasLasPoliticas() throws IOException {
+        for (PoliticaFsync politica : PoliticaFsync.values()) {
+            Path archivo = dir.resolve(politica + ".wal");
+            Inventario inv = new Inventario();
+            try (RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, inv, politica, 5)) {
+                inv.agregarProducto(new Producto("A1", "Teclado", "mecánico ñ", new BigDecimal("19990.50"), 10));
+                inv.agregarProducto(new Producto("B1", "Mouse", "", new BigDecimal("5000"), 3));
+                inv.agregarProducto(new Producto("C1", "Borrar", "", new BigDecimal("1"), 1));
+                inv.actualizarProducto("A1", p -> p.setNombre("Teclado RGB"));
+                inv.actualizarProducto("B1", p -> p.setDescripcion("inalámbrico"));
+                inv.actualizarProducto("B1", p -> p.actualizarPrecio(new BigDecimal("4500.99")));
+                inv.aumentarStock("A1", 5);
+                inv.disminuirStock("B1", 2);
+                inv.eliminarProducto("C1");
+                wal.sincronizar();
+            }
+            Inventario recuperado = recuperar(archivo);
+            assertEquals(estado(inv), estado(recuperado), politica.name());
+            assertFalse(recuperado.contiene("C1"));
+        }
+    }
+
+    @Test
+    void registroTruncadoAMitad_seRecuperaHastaElUltimoCompleto_y_sigueAceptandoEscrituras() throws IOException {
+        Path archivo = dir.resolve("inv.wal");
+        Inventario inv = new Inventario();
+        long tamanoAntesDelUltimo;
+        try (RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, inv, PoliticaFsync.CADA_ESCRITURA)) {
+            inv.agregarProducto(new Producto("A1", "Teclado", "", new BigDecimal("10"), 10));
+            inv.aumentarStock("A1", 1);
+            wal.sincronizar();
+            tamanoAntesDelUltimo = Files.size(archivo);
+            inv.agregarProducto(new Producto("B1", "Mouse con nombre largo", "desc", new BigDecimal("5"), 3));
+        }
+
+        // Simula una caida a mitad del ultimo registro
+        try (FileChannel ch = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(archivo) - 7);
+        }
+
+        Inventario recuperado = new Inventario();
+        try (RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, recuperado, PoliticaFsync.CADA_ESCRITURA)) {
+            assertEquals(tamanoAntesDelUltimo, Files.size(archivo));
+            assertEquals(List.of("A1"), recuperado.listarTodos().stream().map(Producto::getCodigo).toList());
+            assertEquals(11, recuperado.buscarPorId("A1").orElseThrow().getStock());
+            recuperado.aumentarStock("A1", 4);
+            wal.sincronizar();
+        }
+        assertEquals(15, recuperar(archivo).buscarPorId("A1").orElseThrow().getStock());
+    }
+
+    @Test
+    void registroCorrupto_detieneLaReproduccionEnElRegistroDanado() throws IOException {
+        Path archivo = dir.resolve("inv.wal");
+        Inventario inv = new Inventario();
+        long tamanoPrimero;
+        try (RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, inv, PoliticaFsync.CADA_ESCRITURA)) {
+            inv.agregarProducto(new Producto("A1", "Teclado", "", new BigDecimal("10"), 10));
+            wal.sincronizar();
+            tamanoPrimero = Files.size(archivo);
+            inv.agregarProducto(new Producto("B1", "Mouse", "", new BigDecimal("5"), 3));
+        }
+        byte[] bytes = Files.readAllBytes(archivo);
+        bytes[bytes.length - 2] ^= 0x55;
+        Files.write(archivo, bytes);
+
+        Inventario recuperado = recuperar(archivo);
+        assertEquals(1, recuperado.size());
+        assertEquals(tamanoPrimero, Files.size(archivo));
+    }
+
+    @Test
+    void escritoresConcurrentes_conGroupCommit_noPierdenMutaciones() throws Exception {
+        Path archivo = dir.resolve("inv.wal");
+        Inventario inv = new Inventario(ModoInventario.CONCURRENTE);
+        int hilos = 8;
+        int porHilo = 300;
+        try (RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, inv, PoliticaFsync.CADA_ESCRITURA)) {
+            for (int t = 0; t < hilos; t++) {
+                inv.agregarProducto(new Producto("H" + t, "Hilo" + t, "", BigDecimal.ONE, 0));
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(hilos);
+            List<Future<?>> fs = new ArrayList<>();
+            long t0 = System.nanoTime();
+            for (int t = 0; t < hilos; t++) {
+                final String codigo = "H" + t;
+                fs.add(pool.submit(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        inv.aumentarStock(codigo, 1);
+                        inv.aumentarStock("H0", 1);
+                    }
+                }));
+            }
+            for (Future<?> f : fs) {
+                f.get();
+            }
+            wal.sincronizar();
+            double seg = (System.nanoTime() - t0) / 1e9;
+            pool.shutdown();
+            System.out.printf("Registro CADA_ESCRITURA, %d hilos: %.0f mutaciones/s%n", hilos, 2.0 * hilos * porHilo / seg);
+        }
+
+        Inventario recuperado = recuperar(archivo);
+        assertEquals(estado(inv), estado(recuperado));
+        assertEquals(porHilo + hilos * porHilo, recuperado.buscarPorId("H0").orElseThrow().getStock());
+        assertTrue(recuperado.buscarPorId("H7").isPresent());
+    }
+
+    @Test
+    void unFalloDeEscritura_noAplicaElCambio_yRechazaLosSiguientes() throws IOException {
+        Path archivo = dir.resolve("fallo.wal");
+        Inventario inv = new Inventario();
+        RegistroMutaciones wal = RegistroMutaciones.abrir(archivo, inv, PoliticaFsync.CADA_ESCRITURA);
+        inv.agregarProducto(new Producto("A", "Uno", "", new BigDecimal("1.00"), 5));
+
+        // Con el hilo interrumpido el FileChannel se cierra en medio de la escritura
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(UncheckedIOException.class, () -> inv.aumentarStock("A", 1));
+        } finally {
+            Thread.interrupted();
+        }
+        // El registro va antes del cambio: el que fallo no se aplico, y los siguientes tampoco
+        assertEquals(5, inv.buscarPorId("A").orElseThrow().getStock());
+        assertThrows(UncheckedIOException.class, () -> inv.aumentarStock("A", 1));
+        assertThrows(UncheckedIOException.class, () -> inv.buscarPorId("A").orElseThrow().setNombre("Otro"));
+        assertThrows(UncheckedIOException.class, () -> inv.eliminarProducto("A"));
+        assertThrows(UncheckedIOException.class,
+            () -> inv.agregarProducto(new Producto("B", "Dos", "", new BigDecimal("1.00"), 1)));
+        assertEquals(5, inv.buscarPorId("A").orElseThrow().getStock());
+        assertEquals("Uno", inv.buscarPorId("A").orElseThrow().getNombre());
+        assertEquals(1, inv.size());
+        assertThrows(UncheckedIOException.class, wal::close);
+    }
+}
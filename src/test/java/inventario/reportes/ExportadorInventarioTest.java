@@ -0,0 +1,134 @@
+package inventario.reportes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import inventario.core.Inventario;
+import inventario.dto.ReporteImportacion;
+import inventario.dto.ResumenInventario;
+import inventario.excepciones.ValidacionException;
+import inventario.importacion.ImportadorCsv;
+import inventario.modelo.Producto;
+
+class ExportadorInventarioTest {
+
+    private static Inventario inventario() {
+        Inventario inv = new Inventario();
+        inv.agregarProducto(new Producto("A1", "Teclado", "mecánico; con \"RGB\"", new BigDecimal("19990.50"), 10));
+        inv.agregarProducto(new Producto("B1", "Mouse", "", new BigDecimal("5000"), 3));
+        inv.agregarProducto(new Producto("C1", "Cable", "1m\tusb", new BigDecimal("0.05"), 0));
+        return inv;
+    }
+
+    private static String exportar(FormatoExportacion formato, Inventario inv) throws IOException {
+        StringWriter out = new StringWriter();
+        long n = new ExportadorInventario(formato).exportarProductos(inv.recorrerPorCodigo(null).iterator(), out);
+        assertEquals(inv.size(), n);
+        return out.toString();
+    }
+
+    @Test
+    void csv_seVuelveAImportarIgual() throws IOException {
+        Inventario inv = inventario();
+        String csv = exportar(FormatoExportacion.CSV, inv);
+        assertTrue(csv.startsWith("codigo;nombre;descripcion;precio;stock\nA1;Teclado;\"mecánico; con \"\"RGB\"\"\";19990.50;10\n"));
+
+        Inventario copia = new Inventario();
+        ReporteImportacion r = new ImportadorCsv().importar(new StringReader(csv), copia);
+        assertEquals(0, r.getCantidadErrores());
+        for (Producto p : inv.listarTodos()) {
+            Producto q = copia.buscarPorId(p.getCodigo()).orElseThrow();
+            assertEquals(p.getDescripcion(), q.getDescripcion());
+            assertEquals(p.getPrecioCentavos(), q.getPrecioCentavos());
+            assertEquals(p.getStock(), q.getStock());
+        }
+    }
+
+    @Test
+    void jsonl_unObjetoPorLineaConEscapes() throws IOException {
+        String[] lineas = exportar(FormatoExportacion.JSONL, inventario()).split("\n");
+        assertEquals(3, lineas.length);
+        assertEquals("{\"codigo\":\"A1\",\"nombre\":\"Teclado\",\"descripcion\":\"mecánico; con \\\"RGB\\\"\",\"precio\":19990.50,\"stock\":10}",
+            lineas[0]);
+        assertEquals("{\"codigo\":\"C1\",\"nombre\":\"Cable\",\"descripcion\":\"1m\\tusb\",\"precio\":0.05,\"stock\":0}", lineas[2]);
+    }
+
+    @Test
+    void texto_igualQueToString() throws IOException {
+        Inventario inv = inventario();
+        StringBuilder esperado = new StringBuilder();
+        for (Producto p : inv.listarTodos()) {
+            esperado.append(p).append('\n');
+        }
+        assertEquals(esperado.toString(), exportar(FormatoExportacion.TEXTO, inv));
+    }
+
+    @Test
+    void gzipYCanal_producenLosMismosDatos() throws IOException {
+        Inventario inv = inventario();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ExportadorInventario(FormatoExportacion.JSONL, true)
+            .exportarProductos(inv.recorrerPorCodigo(null).iterator(), Channels.newChannel(bytes));
+        String descomprimido;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            descomprimido = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(exportar(FormatoExportacion.JSONL, inv), descomprimido);
+
+        ExportadorInventario conGzip = new ExportadorInventario(FormatoExportacion.CSV, true);
+        assertThrows(ValidacionException.class,
+            () -> conGzip.exportarProductos(inv.recorrerPorCodigo(null).iterator(), new StringWriter()));
+    }
+
+    @Test
+    void muchosProductos_seEscribenEnBloquesSinPerderLineas() throws IOException {
+        List<Producto> ps = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ps.add(new Producto("P" + i, "Producto numero " + i, "x".repeat(i % 50), BigDecimal.valueOf(i, 2), i));
+        }
+        Iterator<Producto> it = ps.iterator();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertEquals(20_000, new ExportadorInventario(FormatoExportacion.CSV).exportarProductos(it, bytes));
+        String[] lineas = bytes.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(20_001, lineas.length);
+        assertEquals("P19999;Producto numero 19999;" + "x".repeat(19_999 % 50) + ";199.99;19999", lineas[20_000]);
+    }
+
+    @Test
+    void resumen_enLosTresFormatos() throws IOException {
+        Producto p1 = new Producto("R1", "Prod1", "", new BigDecimal("1000"), 2);
+        Producto p3 = new Producto("R3", "Prod3", "", new BigDecimal("200"), 1);
+        ResumenInventario r = new ResumenInventario(3, 13, new BigDecimal("7200.00"), List.of(p1), List.of(p3));
+
+        StringWriter csv = new StringWriter();
+        new ExportadorInventario(FormatoExportacion.CSV).exportarResumen(r, csv);
+        assertEquals("cantidad_productos;total_items;valor_total\n3;13;7200.00\n"
+            + "seccion;codigo;nombre;descripcion;precio;stock\ntop;R1;Prod1;;1000.00;2\nbajo;R3;Prod3;;200.00;1\n", csv.toString());
+
+        StringWriter jsonl = new StringWriter();
+        new ExportadorInventario(FormatoExportacion.JSONL).exportarResumen(r, jsonl);
+        String[] lineas = jsonl.toString().split("\n");
+        assertEquals("{\"tipo\":\"resumen\",\"cantidadProductos\":3,\"totalItems\":13,\"valorTotal\":7200.00}", lineas[0]);
+        assertTrue(lineas[2].startsWith("{\"tipo\":\"bajo\",\"codigo\":\"R3\""));
+
+        StringWriter texto = new StringWriter();
+        new ExportadorInventario(FormatoExportacion.TEXTO).exportarResumen(r, texto);
+        assertTrue(texto.toString().contains("Top por stock:\n - " + p1 + "\n"));
+        assertTrue(texto.toString().contains("Stock bajo umbral:\n - " + p3 + "\n"));
+    }
+}